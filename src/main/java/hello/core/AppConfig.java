@@ -3,12 +3,16 @@ package hello.core;
 import hello.core.discount.DiscountPolicy;
 import hello.core.discount.FixDiscountPolicy;
 import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.BlockMemberIdGenerator;
+import hello.core.member.CachingMemberRepository;
+import hello.core.member.MemberIdGenerator;
 import hello.core.member.MemberRepository;
 import hello.core.member.MemberService;
 import hello.core.member.MemberServiceImpl;
 import hello.core.member.MemoryMemberRepository;
 import hello.core.order.OrderService;
 import hello.core.order.OrderServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -28,14 +32,30 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class AppConfig {
 
+    // member.cache.enabled=true 일 때만 회원 저장소 앞에 캐시를 둔다. (new AppConfig() 로 직접 만들면 항상 꺼져 있음)
+    @Value("${member.cache.enabled:false}")
+    private boolean memberCacheEnabled;
+    @Value("${member.cache.max-size:10000}")
+    private int memberCacheMaxSize;
+    // 회원 id 발급기의 high-water mark 파일. 비어 있으면 기록하지 않는다.
+    @Value("${member.id.high-water-mark-file:}")
+    private String memberIdHighWaterMarkFile;
+
     @Bean
     public MemberService memberService() {
         System.out.println("call AppConfig.memberService");
-        return new MemberServiceImpl(memberRepository());
+        return new MemberServiceImpl(memberRepository(), memberIdGenerator());
+    }
+    @Bean
+    public MemberIdGenerator memberIdGenerator() {
+        return new BlockMemberIdGenerator(memberIdHighWaterMarkFile, BlockMemberIdGenerator.DEFAULT_BLOCK_SIZE);
     }
     @Bean
     public MemberRepository memberRepository() {
         System.out.println("call AppConfig.memberRepository");
+        if (memberCacheEnabled) {
+            return new CachingMemberRepository(new MemoryMemberRepository(), memberCacheMaxSize);
+        }
         return new MemoryMemberRepository();
     }
     @Bean
@@ -1,8 +1,36 @@
 package hello.core;
 
+import hello.core.annotation.MainDiscountPolicy;
+import hello.core.discount.BudgetDiscountPolicy;
+import hello.core.discount.CompositeDiscountPolicy;
+import hello.core.discount.DiscountPolicy;
+import hello.core.discount.ReloadableDiscountPolicy;
+import hello.core.discount.ShadowDiscountEvaluator;
+import hello.core.member.CachingMemberRepository;
+import hello.core.member.MemberRepository;
+import hello.core.order.IdempotencyCache;
+import hello.core.order.MemoryOrderRepository;
+import hello.core.order.OrderExecutors;
+import hello.core.order.OrderJournal;
+import hello.core.order.ShardedOrderProcessor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Primary;
+
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 @Configuration
 // 다른 예제의 Configuration 정보들이 있기 때문에 설정정보충돌 방지를 위해 제외시킴
@@ -14,4 +42,149 @@ import org.springframework.context.annotation.FilterType;
         excludeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = Configuration.class)
 )
 public class AutoAppConfig {
+
+    /**
+     * member.cache.enabled=true 일 때만 등록된다.
+     * @Primary 라서 MemberRepository 를 주입 받는 곳(MemberServiceImpl, OrderServiceImpl)은 캐시를 거치게 된다.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "member.cache.enabled", havingValue = "true")
+    public MemberRepository cachingMemberRepository(@Qualifier("memoryMemberRepository") MemberRepository memberRepository,
+                                                    @Value("${member.cache.max-size:10000}") int maxSize) {
+        return new CachingMemberRepository(memberRepository, maxSize);
+    }
+
+    /**
+     * discount.rules.file 을 지정했을 때만 등록된다. 파일이 바뀌면 재시작 없이 다시 읽는다. (discount.rules.watch=false 로 끌 수 있음)
+     * 주문에 적용되는 정책은 mainDiscountPolicy 가 정한다.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "discount.rules.file")
+    public ReloadableDiscountPolicy ruleDiscountPolicy(@Value("${discount.rules.file}") String file,
+                                                       @Value("${discount.rules.watch:true}") boolean watch) {
+        return new ReloadableDiscountPolicy(Paths.get(file), watch);
+    }
+
+    /**
+     * discount.rules.file, discount.composite.policies, discount.budget.amount 중 하나를 지정했을 때만 등록된다.
+     * @Primary 라서 @MainDiscountPolicy 로 주입 받는 곳(OrderServiceImpl)은 RateDiscountPolicy 대신 이 정책을 따른다.
+     * - 기본 정책 : discount.budget.policy(빈 이름). 지정하지 않으면 composite 설정이 있으면 그 묶음,
+     *              규칙 파일이 있으면 ruleDiscountPolicy, 둘 다 없으면 rateDiscountPolicy
+     * - discount.composite.policies(빈 이름 목록)가 있으면 그 정책들을 discount.composite.mode 로 묶는다. (CompositeDiscountPolicy)
+     * - discount.budget.amount 가 있으면 기본 정책의 할인을 하루 예산 안에서만 준다. (BudgetDiscountPolicy)
+     */
+    @Bean(destroyMethod = "")
+    @Primary
+    @MainDiscountPolicy
+    @ConditionalOnExpression("'${discount.rules.file:}' != '' or '${discount.composite.policies:}' != ''"
+            + " or '${discount.budget.amount:}' != ''")
+    public DiscountPolicy mainDiscountPolicy(Map<String, DiscountPolicy> policies,
+                                             @Value("${discount.composite.policies:}") String compositePolicies,
+                                             @Value("${discount.composite.mode:MAX}") CompositeDiscountPolicy.Mode compositeMode,
+                                             @Value("${discount.composite.cap:" + Integer.MAX_VALUE + "}") int compositeCap,
+                                             @Value("${discount.budget.policy:}") String policyName,
+                                             @Value("${discount.budget.amount:#{null}}") Long budget,
+                                             @Value("${discount.budget.chunk-size:10000}") long chunkSize,
+                                             @Value("${discount.budget.max-overspend:0}") long maxOverspend) {
+        DiscountPolicy policy;
+        if (!policyName.isEmpty()) {
+            policy = findPolicy(policies, "discount.budget.policy", policyName);
+        } else if (!compositePolicies.trim().isEmpty()) {
+            List<String> names = new ArrayList<>();
+            List<DiscountPolicy> members = new ArrayList<>();
+            for (String name : Arrays.asList(compositePolicies.split(","))) {
+                names.add(name.trim());
+                members.add(findPolicy(policies, "discount.composite.policies", name.trim()));
+            }
+            policy = new CompositeDiscountPolicy(compositeMode, compositeCap, members, names);
+        } else {
+            policy = policies.getOrDefault("ruleDiscountPolicy", policies.get("rateDiscountPolicy"));
+        }
+        if (budget == null) {
+            return policy;
+        }
+        return new BudgetDiscountPolicy(policy, budget, chunkSize, maxOverspend, Duration.ofDays(1),
+                Clock.systemDefaultZone());
+    }
+
+    private static DiscountPolicy findPolicy(Map<String, DiscountPolicy> policies, String property, String name) {
+        DiscountPolicy policy = policies.get(name);
+        if (policy == null) {
+            throw new IllegalArgumentException("존재하지 않는 할인 정책입니다. " + property + "=" + name);
+        }
+        return policy;
+    }
+
+    /**
+     * discount.shadow.policy 에 후보 할인 정책의 빈 이름을 지정했을 때만 등록된다.
+     * 주문의 일부를 후보 정책으로도 계산해서 지금 정책과의 차이와 계산 시간을 기록한다.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "discount.shadow.policy")
+    public ShadowDiscountEvaluator shadowDiscountEvaluator(Map<String, DiscountPolicy> policies,
+                                                           @Value("${discount.shadow.policy}") String policyName,
+                                                           @Value("${discount.shadow.sample-rate:0.01}") double sampleRate,
+                                                           @Value("${discount.shadow.queue-capacity:1024}") int queueCapacity) {
+        DiscountPolicy candidate = policies.get(policyName);
+        if (candidate == null) {
+            throw new IllegalArgumentException("존재하지 않는 할인 정책입니다. discount.shadow.policy=" + policyName);
+        }
+        return new ShadowDiscountEvaluator(candidate, sampleRate, queueCapacity);
+    }
+
+    /**
+     * order.async.executor=bounded|virtual 일 때만 등록된다. 등록되지 않으면 createOrderAsync 는 commonPool 을 쓴다.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "order.async.executor")
+    public ExecutorService orderExecutor(@Value("${order.async.executor}") String type,
+                                         @Value("${order.async.threads:64}") int threads,
+                                         @Value("${order.async.queue-capacity:10000}") int queueCapacity) {
+        return OrderExecutors.create(type, threads, queueCapacity);
+    }
+
+    /**
+     * order.repository=memory 일 때만 등록된다. 만든 주문을 모두 메모리에 쌓아 두고 회원/기간별로 조회한다.
+     * 등록되지 않으면 OrderServiceImpl 은 주문을 저장하지 않는다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "order.repository", havingValue = "memory")
+    public MemoryOrderRepository memoryOrderRepository() {
+        return new MemoryOrderRepository();
+    }
+
+    /**
+     * order.journal.file 을 지정했을 때만 등록된다. 생성된 주문을 파일에 기록한다.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "order.journal.file")
+    public OrderJournal orderJournal(@Value("${order.journal.file}") String file,
+                                     @Value("${order.journal.fsync:PER_BATCH}") OrderJournal.FsyncPolicy fsyncPolicy,
+                                     @Value("${order.journal.fsync-interval-ms:10}") long fsyncIntervalMs) {
+        return new OrderJournal(Paths.get(file), fsyncPolicy, Duration.ofMillis(fsyncIntervalMs),
+                OrderJournal.DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * order.idempotency.max-size 를 지정했을 때만 등록된다. 등록되지 않으면 OrderServiceImpl 은 기본 설정의 캐시를 쓴다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "order.idempotency.max-size")
+    public IdempotencyCache idempotencyCache(@Value("${order.idempotency.max-size}") int maxSize,
+                                             @Value("${order.idempotency.ttl-seconds:600}") long ttlSeconds) {
+        return new IdempotencyCache(maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * order.shard.count 를 지정했을 때만 등록된다. 회원 id 별로 shard 에 나눠서 주문을 처리한다.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "order.shard.count")
+    public ShardedOrderProcessor shardedOrderProcessor(MemberRepository memberRepository,
+                                                       @MainDiscountPolicy DiscountPolicy discountPolicy,
+                                                       @Value("${order.shard.count}") int shardCount,
+                                                       @Value("${order.shard.queue-capacity:8192}") int queueCapacity) {
+        return new ShardedOrderProcessor(memberRepository, discountPolicy, shardCount, queueCapacity, null);
+    }
 }
@@ -0,0 +1,102 @@
+package hello.core.codec;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 회원 한 명의 바이너리 형식. 회원 로그/스냅샷(MappedLogMemberRepository)과 대량 등록 파일(BinaryMemberFormat)이 함께 쓴다.
+ * [long id][byte grade (null 이면 -1)][short 이름 길이 (null 이면 0xFFFF)][UTF-8 이름]
+ *
+ * 고정 길이 필드는 레코드 시작에서 항상 같은 위치에 있으므로 MemberFlyweight 로 객체를 만들지 않고 제자리에서 읽을 수 있다.
+ * 쓰기/읽기 모두 buffer 의 byte order 를 따른다. (기본 BIG_ENDIAN)
+ */
+public final class MemberCodec {
+
+    public static final int ID_OFFSET = 0;
+    public static final int GRADE_OFFSET = ID_OFFSET + Long.BYTES;
+    public static final int NAME_LENGTH_OFFSET = GRADE_OFFSET + 1;
+    public static final int NAME_OFFSET = NAME_LENGTH_OFFSET + Short.BYTES;
+    public static final int FIXED_BYTES = NAME_OFFSET;
+    public static final int NULL_NAME = 0xFFFF;
+    public static final int MAX_BYTES = FIXED_BYTES + NULL_NAME - 1;
+
+    private static final Grade[] GRADES = Grade.values();
+
+    private MemberCodec() {
+    }
+
+    public static int encodedLength(Member member) {
+        return encodedLength(member.getName());
+    }
+
+    public static int encodedLength(String name) {
+        if (name == null) {
+            return FIXED_BYTES;
+        }
+        int nameLength = Utf8.encodedLength(name);
+        checkNameLength(nameLength);
+        return FIXED_BYTES + nameLength;
+    }
+
+    /**
+     * buffer 의 offset 에서 시작하는 레코드의 길이. 고정 길이 부분(FIXED_BYTES)만 있으면 된다.
+     */
+    public static int encodedLength(ByteBuffer buffer, int offset) {
+        int nameLength = Short.toUnsignedInt(buffer.getShort(offset + NAME_LENGTH_OFFSET));
+        return FIXED_BYTES + (nameLength == NULL_NAME ? 0 : nameLength);
+    }
+
+    public static int write(ByteBuffer buffer, Member member) {
+        return write(buffer, member.getId(), member.getGrade(), member.getName());
+    }
+
+    /**
+     * buffer 의 현재 위치에 레코드 하나를 쓰고 쓴 바이트 수를 돌려준다.
+     * buffer 에는 encodedLength 만큼(모르면 MAX_BYTES) 남아 있어야 한다.
+     */
+    public static int write(ByteBuffer buffer, long id, Grade grade, String name) {
+        if (name != null && name.length() >= NULL_NAME / 3) {
+            checkNameLength(Utf8.encodedLength(name));
+        }
+        int start = buffer.position();
+        buffer.putLong(id);
+        buffer.put(grade == null ? -1 : (byte) grade.ordinal());
+        if (name == null) {
+            buffer.putShort((short) NULL_NAME);
+        } else {
+            buffer.position(start + NAME_OFFSET);
+            int nameLength = Utf8.encode(buffer, name);
+            buffer.putShort(start + NAME_LENGTH_OFFSET, (short) nameLength);
+        }
+        return buffer.position() - start;
+    }
+
+    /**
+     * buffer 의 현재 위치에서 레코드 하나를 읽고, position 을 레코드 끝으로 옮긴다.
+     */
+    public static Member read(ByteBuffer buffer) {
+        int start = buffer.position();
+        int length = encodedLength(buffer, start);
+        Member member = new Member(buffer.getLong(start + ID_OFFSET), readName(buffer, start), readGrade(buffer, start));
+        buffer.position(start + length);
+        return member;
+    }
+
+    static Grade readGrade(ByteBuffer buffer, int offset) {
+        byte grade = buffer.get(offset + GRADE_OFFSET);
+        return grade < 0 ? null : GRADES[grade];
+    }
+
+    static String readName(ByteBuffer buffer, int offset) {
+        int nameLength = Short.toUnsignedInt(buffer.getShort(offset + NAME_LENGTH_OFFSET));
+        return nameLength == NULL_NAME ? null : Utf8.decode(buffer, offset + NAME_OFFSET, nameLength);
+    }
+
+    private static void checkNameLength(int nameLength) {
+        if (nameLength >= NULL_NAME) {
+            throw new IllegalArgumentException("이름이 너무 깁니다. bytes=" + nameLength);
+        }
+    }
+}
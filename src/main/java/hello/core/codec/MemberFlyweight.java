@@ -0,0 +1,53 @@
+package hello.core.codec;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+import java.nio.ByteBuffer;
+
+/**
+ * buffer 안의 MemberCodec 레코드를 복사하지 않고 읽는 뷰. wrap 으로 다른 레코드를 가리키게 해서 재사용한다.
+ * buffer 의 position 은 건드리지 않으며, 한 스레드에서만 쓴다.
+ */
+public class MemberFlyweight {
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    public MemberFlyweight wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    public long getId() {
+        return buffer.getLong(offset + MemberCodec.ID_OFFSET);
+    }
+
+    public Grade getGrade() {
+        return MemberCodec.readGrade(buffer, offset);
+    }
+
+    public String getName() {
+        return MemberCodec.readName(buffer, offset);
+    }
+
+    /**
+     * 이름을 String 으로 만들지 않고 비교한다.
+     */
+    public boolean nameEquals(String name) {
+        int nameLength = Short.toUnsignedInt(buffer.getShort(offset + MemberCodec.NAME_LENGTH_OFFSET));
+        if (nameLength == MemberCodec.NULL_NAME || name == null) {
+            return nameLength == MemberCodec.NULL_NAME && name == null;
+        }
+        return Utf8.contentEquals(buffer, offset + MemberCodec.NAME_OFFSET, nameLength, name);
+    }
+
+    public int encodedLength() {
+        return MemberCodec.encodedLength(buffer, offset);
+    }
+
+    public Member toMember() {
+        return new Member(getId(), getName(), getGrade());
+    }
+}
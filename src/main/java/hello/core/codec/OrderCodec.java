@@ -0,0 +1,97 @@
+package hello.core.codec;
+
+import hello.core.order.Order;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 주문 한 건의 바이너리 형식. 주문 저널(OrderJournal)과 주문 파이프라인의 기록 단계가 함께 쓴다.
+ * [long 회원 id][int 상품 가격][int 할인 금액][short 상품명 길이 (null 이면 0xFFFF)][UTF-8 상품명]
+ *
+ * 고정 길이 필드는 레코드 시작에서 항상 같은 위치에 있으므로 OrderFlyweight 로 객체를 만들지 않고 제자리에서 읽을 수 있다.
+ * 쓰기/읽기 모두 buffer 의 byte order 를 따른다. (기본 BIG_ENDIAN)
+ */
+public final class OrderCodec {
+
+    public static final int MEMBER_ID_OFFSET = 0;
+    public static final int ITEM_PRICE_OFFSET = MEMBER_ID_OFFSET + Long.BYTES;
+    public static final int DISCOUNT_PRICE_OFFSET = ITEM_PRICE_OFFSET + Integer.BYTES;
+    public static final int ITEM_NAME_LENGTH_OFFSET = DISCOUNT_PRICE_OFFSET + Integer.BYTES;
+    public static final int ITEM_NAME_OFFSET = ITEM_NAME_LENGTH_OFFSET + Short.BYTES;
+    public static final int FIXED_BYTES = ITEM_NAME_OFFSET;
+    public static final int NULL_NAME = 0xFFFF;
+    public static final int MAX_BYTES = FIXED_BYTES + NULL_NAME - 1;
+
+    private OrderCodec() {
+    }
+
+    public static int encodedLength(Order order) {
+        return encodedLength(order.getItemName());
+    }
+
+    public static int encodedLength(String itemName) {
+        if (itemName == null) {
+            return FIXED_BYTES;
+        }
+        int nameLength = Utf8.encodedLength(itemName);
+        checkNameLength(nameLength);
+        return FIXED_BYTES + nameLength;
+    }
+
+    /**
+     * buffer 의 offset 에서 시작하는 레코드의 길이. 고정 길이 부분(FIXED_BYTES)만 있으면 된다.
+     */
+    public static int encodedLength(ByteBuffer buffer, int offset) {
+        int nameLength = Short.toUnsignedInt(buffer.getShort(offset + ITEM_NAME_LENGTH_OFFSET));
+        return FIXED_BYTES + (nameLength == NULL_NAME ? 0 : nameLength);
+    }
+
+    public static int write(ByteBuffer buffer, Order order) {
+        return write(buffer, order.getMemberId(), order.getItemName(), order.getItemPrice(), order.getDiscountPrice());
+    }
+
+    /**
+     * buffer 의 현재 위치에 레코드 하나를 쓰고 쓴 바이트 수를 돌려준다.
+     * buffer 에는 encodedLength 만큼(모르면 MAX_BYTES) 남아 있어야 한다.
+     */
+    public static int write(ByteBuffer buffer, long memberId, String itemName, int itemPrice, int discountPrice) {
+        if (itemName != null && itemName.length() >= NULL_NAME / 3) {
+            checkNameLength(Utf8.encodedLength(itemName));
+        }
+        int start = buffer.position();
+        buffer.putLong(memberId);
+        buffer.putInt(itemPrice);
+        buffer.putInt(discountPrice);
+        if (itemName == null) {
+            buffer.putShort((short) NULL_NAME);
+        } else {
+            buffer.position(start + ITEM_NAME_OFFSET);
+            int nameLength = Utf8.encode(buffer, itemName);
+            buffer.putShort(start + ITEM_NAME_LENGTH_OFFSET, (short) nameLength);
+        }
+        return buffer.position() - start;
+    }
+
+    /**
+     * buffer 의 현재 위치에서 레코드 하나를 읽고, position 을 레코드 끝으로 옮긴다.
+     */
+    public static Order read(ByteBuffer buffer) {
+        int start = buffer.position();
+        int length = encodedLength(buffer, start);
+        Order order = new Order(buffer.getLong(start + MEMBER_ID_OFFSET), readItemName(buffer, start),
+                buffer.getInt(start + ITEM_PRICE_OFFSET), buffer.getInt(start + DISCOUNT_PRICE_OFFSET));
+        buffer.position(start + length);
+        return order;
+    }
+
+    static String readItemName(ByteBuffer buffer, int offset) {
+        int nameLength = Short.toUnsignedInt(buffer.getShort(offset + ITEM_NAME_LENGTH_OFFSET));
+        return nameLength == NULL_NAME ? null : Utf8.decode(buffer, offset + ITEM_NAME_OFFSET, nameLength);
+    }
+
+    private static void checkNameLength(int nameLength) {
+        if (nameLength >= NULL_NAME) {
+            throw new IllegalArgumentException("상품명이 너무 깁니다. bytes=" + nameLength);
+        }
+    }
+}
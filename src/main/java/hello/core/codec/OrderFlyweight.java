@@ -0,0 +1,60 @@
+package hello.core.codec;
+
+import hello.core.order.Order;
+
+import java.nio.ByteBuffer;
+
+/**
+ * buffer 안의 OrderCodec 레코드를 복사하지 않고 읽는 뷰. wrap 으로 다른 레코드를 가리키게 해서 재사용한다.
+ * buffer 의 position 은 건드리지 않으며, 한 스레드에서만 쓴다.
+ */
+public class OrderFlyweight {
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    public OrderFlyweight wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    public long getMemberId() {
+        return buffer.getLong(offset + OrderCodec.MEMBER_ID_OFFSET);
+    }
+
+    public int getItemPrice() {
+        return buffer.getInt(offset + OrderCodec.ITEM_PRICE_OFFSET);
+    }
+
+    public int getDiscountPrice() {
+        return buffer.getInt(offset + OrderCodec.DISCOUNT_PRICE_OFFSET);
+    }
+
+    public int calculatePrice() {
+        return getItemPrice() - getDiscountPrice();
+    }
+
+    public String getItemName() {
+        return OrderCodec.readItemName(buffer, offset);
+    }
+
+    /**
+     * 상품명을 String 으로 만들지 않고 비교한다.
+     */
+    public boolean itemNameEquals(String itemName) {
+        int nameLength = Short.toUnsignedInt(buffer.getShort(offset + OrderCodec.ITEM_NAME_LENGTH_OFFSET));
+        if (nameLength == OrderCodec.NULL_NAME || itemName == null) {
+            return nameLength == OrderCodec.NULL_NAME && itemName == null;
+        }
+        return Utf8.contentEquals(buffer, offset + OrderCodec.ITEM_NAME_OFFSET, nameLength, itemName);
+    }
+
+    public int encodedLength() {
+        return OrderCodec.encodedLength(buffer, offset);
+    }
+
+    public Order toOrder() {
+        return new Order(getMemberId(), getItemName(), getItemPrice(), getDiscountPrice());
+    }
+}
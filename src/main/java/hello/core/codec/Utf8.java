@@ -0,0 +1,123 @@
+package hello.core.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ByteBuffer(heap, direct, mapped 모두)에 UTF-8 문자열을 중간 byte[] 없이 쓰고 읽는다.
+ * 쓰기는 String.getBytes(UTF_8) 와 같은 바이트를 만든다. (짝이 없는 surrogate 는 '?')
+ * 읽기는 이 클래스로 쓴 올바른 UTF-8 을 전제로 하며, 잘못된 바이트는 U+FFFD 로 바꾼다.
+ */
+public final class Utf8 {
+
+    private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[256]);
+
+    private Utf8() {
+    }
+
+    public static int encodedLength(String value) {
+        int bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += Character.isSurrogate(c) ? 1 : 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * buffer 의 현재 위치에 쓰고 쓴 바이트 수를 돌려준다.
+     */
+    public static int encode(ByteBuffer buffer, String value) {
+        int start = buffer.position();
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return buffer.position() - start;
+    }
+
+    /**
+     * buffer 의 offset 부터 length 바이트를 문자열로 읽는다. buffer 의 position 은 바꾸지 않는다.
+     * heap buffer 는 배열에서 바로, 그 밖의 buffer 는 스레드별 char 배열에 풀어서 String 하나만 만든다.
+     */
+    public static String decode(ByteBuffer buffer, int offset, int length) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+        char[] chars = SCRATCH.get();
+        if (chars.length < length) {
+            chars = new char[length];
+            SCRATCH.set(chars);
+        }
+        int count = 0;
+        int i = offset;
+        int end = offset + length;
+        while (i < end) {
+            int b = buffer.get(i++);
+            if (b >= 0) {
+                chars[count++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0 && i < end) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (buffer.get(i++) & 0x3F));
+            } else if ((b & 0xF0) == 0xE0 && i + 1 < end) {
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((buffer.get(i) & 0x3F) << 6) | (buffer.get(i + 1) & 0x3F));
+                i += 2;
+            } else if ((b & 0xF8) == 0xF0 && i + 2 < end) {
+                int codePoint = ((b & 0x07) << 18) | ((buffer.get(i) & 0x3F) << 12)
+                        | ((buffer.get(i + 1) & 0x3F) << 6) | (buffer.get(i + 2) & 0x3F);
+                chars[count++] = Character.highSurrogate(codePoint);
+                chars[count++] = Character.lowSurrogate(codePoint);
+                i += 3;
+            } else {
+                chars[count++] = '\uFFFD';
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * buffer 의 offset 부터 length 바이트가 value 를 UTF-8 로 쓴 것과 같은지 비교한다.
+     * ASCII 문자열은 String 을 만들지 않고 바이트끼리 비교한다.
+     */
+    public static boolean contentEquals(ByteBuffer buffer, int offset, int length, String value) {
+        if (value.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                return decode(buffer, offset, length).equals(value);
+            }
+            if (buffer.get(offset + i) != (byte) c) {
+                return false;
+            }
+        }
+        return value.length() == length;
+    }
+}
@@ -0,0 +1,141 @@
+package hello.core.common;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 여러 스레드가 읽는 도중에도 비트를 켜고 끌 수 있는 비트맵.
+ * 64K 비트 단위 chunk(AtomicLongArray)로 나누어 필요한 만큼만 늘린다.
+ * stream/iterator 는 weakly consistent 하다. (순회 도중의 변경은 보일 수도, 안 보일 수도 있다)
+ */
+public class ConcurrentBitmap {
+
+    private static final int CHUNK_BITS = 1 << 16;
+    private static final int CHUNK_WORDS = CHUNK_BITS / Long.SIZE;
+
+    private volatile AtomicLongArray[] chunks = new AtomicLongArray[0];
+
+    public void set(int index) {
+        AtomicLongArray chunk = chunkFor(index);
+        int word = (index % CHUNK_BITS) >>> 6;
+        long mask = 1L << index;
+        long current;
+        do {
+            current = chunk.get(word);
+        } while ((current & mask) == 0 && !chunk.compareAndSet(word, current, current | mask));
+    }
+
+    public void clear(int index) {
+        AtomicLongArray[] current = chunks;
+        int chunkIndex = index / CHUNK_BITS;
+        if (chunkIndex >= current.length) {
+            return;
+        }
+        AtomicLongArray chunk = current[chunkIndex];
+        int word = (index % CHUNK_BITS) >>> 6;
+        long mask = 1L << index;
+        long value;
+        do {
+            value = chunk.get(word);
+        } while ((value & mask) != 0 && !chunk.compareAndSet(word, value, value & ~mask));
+    }
+
+    public boolean get(int index) {
+        AtomicLongArray[] current = chunks;
+        int chunkIndex = index / CHUNK_BITS;
+        return chunkIndex < current.length
+                && (current[chunkIndex].get((index % CHUNK_BITS) >>> 6) & (1L << index)) != 0;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (AtomicLongArray chunk : chunks) {
+            for (int i = 0; i < CHUNK_WORDS; i++) {
+                count += Long.bitCount(chunk.get(i));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 켜진 비트 위치를 오름차순으로 하나씩 읽어 온다. 결과를 미리 모으지 않는다.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int next = nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                int current = next;
+                next = current == Integer.MAX_VALUE ? -1 : nextSetBit(current + 1);
+                return current;
+            }
+        };
+    }
+
+    public IntStream stream() {
+        return StreamSupport.intStream(() -> Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL, false);
+    }
+
+    /**
+     * @return from 이상에서 처음 켜진 비트 위치, 없으면 -1
+     */
+    public int nextSetBit(int from) {
+        AtomicLongArray[] current = chunks;
+        int chunkIndex = from / CHUNK_BITS;
+        int word = (from % CHUNK_BITS) >>> 6;
+        long bits = chunkIndex < current.length ? current[chunkIndex].get(word) & (-1L << from) : 0;
+        while (chunkIndex < current.length) {
+            if (bits != 0) {
+                return chunkIndex * CHUNK_BITS + (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == CHUNK_WORDS) {
+                word = 0;
+                if (++chunkIndex == current.length) {
+                    break;
+                }
+            }
+            bits = current[chunkIndex].get(word);
+        }
+        return -1;
+    }
+
+    private AtomicLongArray chunkFor(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("index=" + index);
+        }
+        int chunkIndex = index / CHUNK_BITS;
+        AtomicLongArray[] current = chunks;
+        if (chunkIndex < current.length) {
+            return current[chunkIndex];
+        }
+        synchronized (this) {
+            current = chunks;
+            if (chunkIndex >= current.length) {
+                AtomicLongArray[] grown = Arrays.copyOf(current, chunkIndex + 1);
+                for (int i = current.length; i < grown.length; i++) {
+                    grown[i] = new AtomicLongArray(CHUNK_WORDS);
+                }
+                chunks = grown;
+                current = grown;
+            }
+            return current[chunkIndex];
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package hello.core.common;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongFunction;
+
+/**
+ * long 키를 박싱 없이 저장하는 동시성 해시 맵.
+ * 키 공간을 여러 stripe로 나누고, stripe마다 open addressing(linear probing) 테이블과 StampedLock을 둔다.
+ * - 조회는 낙관적 읽기(optimistic read)로 락 없이 진행하고, 도중에 쓰기가 끼어든 경우에만 읽기 락으로 다시 읽는다.
+ *   그래서 읽기는 코어 수만큼 선형으로 확장된다.
+ * - 쓰기는 해당 stripe의 쓰기 락만 잡으므로 서로 다른 stripe에 대한 쓰기는 경합하지 않는다.
+ * null 값은 저장할 수 없다. (빈 슬롯 표시로 사용)
+ */
+public class ConcurrentLongMap<V> {
+
+    private static final int DEFAULT_STRIPES = 64;
+    private static final int DEFAULT_STRIPE_CAPACITY = 16;
+    private static final int MAX_STRIPES = 1 << 16;
+
+    private final Stripe<V>[] stripes;
+    private final int stripeMask;
+
+    public ConcurrentLongMap() {
+        this(DEFAULT_STRIPES, DEFAULT_STRIPE_CAPACITY);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentLongMap(int stripeCount, int initialStripeCapacity) {
+        if (stripeCount <= 0 || stripeCount > MAX_STRIPES) {
+            throw new IllegalArgumentException("stripeCount 는 1 ~ " + MAX_STRIPES + " 사이여야 합니다. stripeCount=" + stripeCount);
+        }
+        int stripeSize = powerOfTwo(stripeCount);
+        int capacity = powerOfTwo(Math.max(initialStripeCapacity, 2));
+        this.stripes = new Stripe[stripeSize];
+        for (int i = 0; i < stripeSize; i++) {
+            stripes[i] = new Stripe<>(capacity);
+        }
+        this.stripeMask = stripeSize - 1;
+    }
+
+    public V get(long key) {
+        long hash = hash(key);
+        return stripeOf(hash).get(key, (int) hash);
+    }
+
+    /**
+     * @return 이전에 저장되어 있던 값, 없었으면 null
+     */
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        long hash = hash(key);
+        return stripeOf(hash).put(key, (int) hash, value, false);
+    }
+
+    /**
+     * keys[i] 에 values[i] 를 저장한다.
+     * 키를 stripe 별로 모아서 stripe 마다 쓰기 락을 한 번만 잡는다.
+     */
+    public void putAll(long[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys 와 values 의 길이가 다릅니다.");
+        }
+        long[] hashes = new long[keys.length];
+        int[] counts = new int[stripes.length + 1];
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] == null) {
+                throw new NullPointerException("values[" + i + "]");
+            }
+            hashes[i] = hash(keys[i]);
+            counts[stripeIndex(hashes[i]) + 1]++;
+        }
+        // counting sort 로 stripe 순서대로 정렬한 위치 배열을 만든다.
+        for (int s = 0; s < stripes.length; s++) {
+            counts[s + 1] += counts[s];
+        }
+        int[] order = new int[keys.length];
+        int[] next = Arrays.copyOf(counts, stripes.length);
+        for (int i = 0; i < keys.length; i++) {
+            order[next[stripeIndex(hashes[i])]++] = i;
+        }
+        for (int s = 0; s < stripes.length; s++) {
+            if (counts[s] != counts[s + 1]) {
+                stripes[s].putAll(keys, hashes, values, order, counts[s], counts[s + 1]);
+            }
+        }
+    }
+
+    public V putIfAbsent(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        long hash = hash(key);
+        return stripeOf(hash).put(key, (int) hash, value, true);
+    }
+
+    /**
+     * 값이 없으면 stripe 쓰기 락 안에서 mappingFunction으로 만들어 저장한다.
+     * 이미 있으면 락 없이 바로 반환한다.
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        long hash = hash(key);
+        Stripe<V> stripe = stripeOf(hash);
+        V value = stripe.get(key, (int) hash);
+        if (value != null) {
+            return value;
+        }
+        return stripe.computeIfAbsent(key, (int) hash, mappingFunction);
+    }
+
+    public V remove(long key) {
+        long hash = hash(key);
+        return stripeOf(hash).remove(key, (int) hash);
+    }
+
+    /**
+     * 동시에 수정 중이라면 근사치다.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * stripe 단위로 읽기 락을 잡고 순회한다. 전체 맵의 스냅샷은 아니다.
+     */
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (Stripe<V> stripe : stripes) {
+            stripe.forEach(consumer);
+        }
+    }
+
+    public void clear() {
+        for (Stripe<V> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    private Stripe<V> stripeOf(long hash) {
+        return stripes[stripeIndex(hash)];
+    }
+
+    private int stripeIndex(long hash) {
+        // 슬롯 위치는 하위 32비트, stripe 선택은 상위 비트를 써서 서로 겹치지 않게 한다.
+        return (int) (hash >>> 48) & stripeMask;
+    }
+
+    static long hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static int powerOfTwo(int n) {
+        int p = Integer.highestOneBit(n);
+        return p == n ? n : p << 1;
+    }
+
+    private static final class Stripe<V> {
+        private final StampedLock lock = new StampedLock();
+        private long[] keys;
+        private Object[] values;
+        private int size;
+
+        Stripe(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+        }
+
+        V get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                long[] ks = keys;
+                Object[] vs = values;
+                // resize 도중이면 두 배열의 세대가 다를 수 있다.
+                if (ks.length == vs.length) {
+                    V value = probe(ks, vs, key, hash);
+                    if (lock.validate(stamp)) {
+                        return value;
+                    }
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return probe(keys, values, key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> V probe(long[] ks, Object[] vs, long key, int hash) {
+            int mask = ks.length - 1;
+            int i = hash & mask;
+            for (int n = 0; n < ks.length; n++) {
+                Object value = vs[i];
+                if (value == null) {
+                    return null;
+                }
+                if (ks[i] == key) {
+                    return (V) value;
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        V put(long key, int hash, V value, boolean onlyIfAbsent) {
+            long stamp = lock.writeLock();
+            try {
+                int i = slotOf(key, hash);
+                Object previous = values[i];
+                if (previous == null) {
+                    insertAt(i, key, value);
+                } else if (!onlyIfAbsent) {
+                    values[i] = value;
+                }
+                return (V) previous;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void putAll(long[] keys, long[] hashes, V[] values, int[] order, int from, int to) {
+            long stamp = lock.writeLock();
+            try {
+                for (int n = from; n < to; n++) {
+                    int i = order[n];
+                    int slot = slotOf(keys[i], (int) hashes[i]);
+                    if (this.values[slot] == null) {
+                        insertAt(slot, keys[i], values[i]);
+                    } else {
+                        this.values[slot] = values[i];
+                    }
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V computeIfAbsent(long key, int hash, LongFunction<? extends V> mappingFunction) {
+            long stamp = lock.writeLock();
+            try {
+                int i = slotOf(key, hash);
+                if (values[i] != null) {
+                    return (V) values[i];
+                }
+                V value = mappingFunction.apply(key);
+                if (value != null) {
+                    insertAt(i, key, value);
+                }
+                return value;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V remove(long key, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                int i = slotOf(key, hash);
+                Object previous = values[i];
+                if (previous == null) {
+                    return null;
+                }
+                deleteAt(i);
+                return (V) previous;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void forEach(EntryConsumer<? super V> consumer) {
+            long stamp = lock.readLock();
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != null) {
+                        consumer.accept(keys[i], (V) values[i]);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                Arrays.fill(values, null);
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * 쓰기 락 안에서만 호출. 키가 있으면 그 슬롯, 없으면 들어갈 빈 슬롯을 반환한다.
+         */
+        private int slotOf(long key, int hash) {
+            int mask = keys.length - 1;
+            int i = hash & mask;
+            while (values[i] != null && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        private void insertAt(int i, long key, Object value) {
+            keys[i] = key;
+            values[i] = value;
+            // load factor 0.5를 넘으면 두 배로 늘린다.
+            if (++size > (keys.length >> 1)) {
+                resize();
+            }
+        }
+
+        /**
+         * linear probing 의 backward shift deletion. tombstone 을 남기지 않는다.
+         */
+        private void deleteAt(int i) {
+            int mask = keys.length - 1;
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (values[j] == null) {
+                    break;
+                }
+                int home = (int) hash(keys[j]) & mask;
+                boolean movable = (j > i) ? (home <= i || home > j) : (home <= i && home > j);
+                if (movable) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    i = j;
+                }
+            }
+            values[i] = null;
+            size--;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            long[] newKeys = new long[oldKeys.length << 1];
+            Object[] newValues = new Object[oldValues.length << 1];
+            int mask = newKeys.length - 1;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] == null) {
+                    continue;
+                }
+                int j = (int) hash(oldKeys[i]) & mask;
+                while (newValues[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                newKeys[j] = oldKeys[i];
+                newValues[j] = oldValues[i];
+            }
+            keys = newKeys;
+            values = newValues;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package hello.core.common;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * TinyLFU 에서 쓰는 최근 접근 빈도 추정기. (count-min sketch)
+ * 4비트 카운터(최대 15) 16개를 long 하나에 담고, 키마다 서로 다른 4개의 카운터를 올린 뒤 최솟값을 빈도로 본다.
+ * 추가 횟수가 sampleSize 에 도달하면 모든 카운터를 절반으로 줄여서 오래된 인기도는 점점 잊는다.
+ * 여러 스레드가 동시에 호출해도 되며, 절반으로 줄이는 도중의 증가분 일부는 유실될 수 있다. (근사치라 문제 없음)
+ */
+public class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0x97CB3127L, 0xAB7D6F29L, 0xC2B2AE3DL, 0xFF51AFD7L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * @param maximumSize 캐시의 최대 크기. 카운터 수와 aging 주기를 여기에 맞춘다.
+     */
+    public FrequencySketch(int maximumSize) {
+        int size = Integer.highestOneBit(Math.max(maximumSize, 16) - 1) << 1;
+        this.table = new AtomicLongArray(size);
+        this.tableMask = size - 1;
+        this.sampleSize = (int) Math.min(10L * Math.max(maximumSize, 16), Integer.MAX_VALUE);
+    }
+
+    public int frequency(long key) {
+        long hash = spread(key);
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int offset = counterOffset(hash, i);
+            frequency = Math.min(frequency, (int) ((table.get(index) >>> offset) & 0xFL));
+        }
+        return frequency;
+    }
+
+    public void increment(long key) {
+        long hash = spread(key);
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), counterOffset(hash, i));
+        }
+        if (added && additions.incrementAndGet() == sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int offset) {
+        long mask = 0xFL << offset;
+        while (true) {
+            long current = table.get(index);
+            if ((current & mask) == mask) {
+                return false;
+            }
+            if (table.compareAndSet(index, current, current + (1L << offset))) {
+                return true;
+            }
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length(); i++) {
+            long current;
+            do {
+                current = table.get(i);
+            } while (!table.compareAndSet(i, current, (current >>> 1) & RESET_MASK));
+        }
+        additions.set(0);
+    }
+
+    private int indexOf(long hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    private static int counterOffset(long hash, int i) {
+        // 같은 long 안의 16개 카운터 중 하나 (4비트씩)
+        return (int) ((hash >>> (i << 3)) & 0xF) << 2;
+    }
+
+    private static long spread(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,75 @@
+package hello.core.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 0 이상의 값을 2 의 거듭제곱 구간으로 나눠 세는 히스토그램. 구간 i 는 [2^(i-1), 2^i) 이고 구간 0 은 0 이다.
+ * 구간이 64 개뿐이라 기록은 배열 한 칸을 늘리는 것으로 끝나고, 분위수는 구간의 상한으로 (최대 2 배 오차) 추정한다.
+ * 여러 스레드에서 동시에 기록해도 된다.
+ */
+public class LogHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * 음수는 0 으로 기록한다.
+     */
+    public void record(long value) {
+        counts.incrementAndGet(bucket(value));
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * 기록한 값의 비율 quantile(0 ~ 1) 이 이 값 이하다. 기록이 없으면 0
+     */
+    public long percentile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("quantile 은 0 ~ 1 사이여야 합니다. quantile=" + quantile);
+        }
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * 구간 i 에 기록된 값의 수
+     */
+    public long bucketCount(int bucket) {
+        return counts.get(bucket);
+    }
+
+    /**
+     * 구간 i 에 들어가는 가장 큰 값
+     */
+    public static long upperBound(int bucket) {
+        return bucket == 0 ? 0 : bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    static int bucket(long value) {
+        return value <= 0 ? 0 : Math.min(64 - Long.numberOfLeadingZeros(value), BUCKETS - 1);
+    }
+}
@@ -0,0 +1,81 @@
+package hello.core.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 여러 스레드가 넣고(offer) 한 스레드만 꺼내는(poll) 크기 고정 큐. (multi-producer single-consumer)
+ * 생산자는 producerIndex 를 CAS 로 한 칸 예약한 뒤 그 칸에 값을 쓰고, 소비자는 락 없이 순서대로 꺼낸다.
+ * poll 은 반드시 한 스레드에서만 호출해야 한다.
+ */
+public class MpscArrayQueue<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    public MpscArrayQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity 는 1 이상이어야 합니다. capacity=" + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(Math.max(size, 2));
+        this.mask = buffer.length() - 1;
+    }
+
+    /**
+     * @return 가득 차 있으면 false
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        while (true) {
+            long index = producerIndex.get();
+            if (index - consumerIndex.get() > mask) {
+                return false;
+            }
+            if (producerIndex.compareAndSet(index, index + 1)) {
+                buffer.lazySet((int) index & mask, element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 소비자 스레드에서만 호출한다.
+     *
+     * @return 비어 있으면 null
+     */
+    public E poll() {
+        long index = consumerIndex.get();
+        int offset = (int) index & mask;
+        E element = buffer.get(offset);
+        if (element == null) {
+            if (index == producerIndex.get()) {
+                return null;
+            }
+            // 생산자가 칸을 예약했지만 아직 값을 쓰지 않았다. 곧 써지므로 기다린다.
+            do {
+                Thread.onSpinWait();
+                element = buffer.get(offset);
+            } while (element == null);
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return element;
+    }
+
+    public boolean isEmpty() {
+        return consumerIndex.get() == producerIndex.get();
+    }
+
+    public int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex.get());
+    }
+
+    public int capacity() {
+        return buffer.length();
+    }
+}
@@ -0,0 +1,193 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 기간(기본 하루)마다 정해진 할인 예산 안에서만 할인하는 정책. 할인 금액은 감싼 정책(delegate)이 정한다.
+ *
+ * 예산이 남아 있으면 할인 금액 전부를 주고, 모자라면 할인하지 않는다. (일부만 할인하지 않음)
+ * - 전역 잔액은 AtomicLong 하나이고, 그 앞에 칸(cell) 몇 개를 둔다. 칸마다 잔액에서 chunkSize 만큼 미리 떼어 온 한도가 있고,
+ *   스레드는 스레드 id 로 고른 칸의 한도에서 CAS 로 차감한다. 한도가 모자랄 때만 전역 잔액에서 다시 떼어 온다.
+ *   칸 수는 코어 수에 맞춘 고정 값이라, 주문마다 새 스레드(가상 스레드 등)를 써도 떼어 놓고 못 쓰는 금액이 칸 수 x chunkSize 를 넘지 않는다.
+ * - 준 할인은 모두 미리 떼어 온 금액이므로 합계가 예산 + maxOverspend 를 넘지 않는다.
+ *   잔액이 chunk 보다 적으면 그 주문에 필요한 금액만 떼어 오고, 이때만 잔액이 maxOverspend 까지 음수가 될 수 있다.
+ * - 기간이 바뀌면 잔액과 칸을 새로 만들고, 이전 기간에 떼어 온 한도는 버린다. 기간은 clock 의 시간대 기준 자정부터 센다.
+ */
+public class BudgetDiscountPolicy implements DiscountPolicy {
+
+    public static final long DEFAULT_CHUNK_SIZE = 10_000;
+
+    private static final int MAX_CELLS = 64;
+    // 칸 사이의 false sharing 을 피하려고 칸마다 long 8 개(64 byte) 간격을 둔다.
+    private static final int CELL_STRIDE = 8;
+
+    private final DiscountPolicy delegate;
+    private final long budget;
+    private final long chunkSize;
+    private final long maxOverspend;
+    private final long periodMillis;
+    private final Clock clock;
+    private final int cellMask;
+    private final LongAdder denied = new LongAdder();
+
+    private volatile Period period;
+
+    public BudgetDiscountPolicy(DiscountPolicy delegate, long budget) {
+        this(delegate, budget, DEFAULT_CHUNK_SIZE, 0, Duration.ofDays(1), Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param chunkSize 스레드가 한 번에 떼어 오는 금액. 클수록 공유 상태를 덜 건드리지만 쓰이지 않고 묶이는 금액이 커진다.
+     * @param maxOverspend 예산을 넘어서 줄 수 있는 최대 금액
+     * @param period 예산을 새로 채우는 주기
+     */
+    public BudgetDiscountPolicy(DiscountPolicy delegate, long budget, long chunkSize, long maxOverspend,
+                                Duration period, Clock clock) {
+        if (budget < 0 || chunkSize <= 0 || maxOverspend < 0) {
+            throw new IllegalArgumentException("budget, maxOverspend 는 0 이상, chunkSize 는 1 이상이어야 합니다.");
+        }
+        if (period.toMillis() <= 0) {
+            throw new IllegalArgumentException("period 는 1ms 이상이어야 합니다. period=" + period);
+        }
+        this.delegate = delegate;
+        this.budget = budget;
+        this.chunkSize = chunkSize;
+        this.maxOverspend = maxOverspend;
+        this.periodMillis = period.toMillis();
+        this.clock = clock;
+        int cells = Math.min(MAX_CELLS, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1);
+        this.cellMask = Math.max(cells, 1) - 1;
+        this.period = newPeriod(clock.millis());
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        return grant(delegate.discount(member, price));
+    }
+
+    @Override
+    public int discount(Member member, String itemName, int price) {
+        return grant(delegate.discount(member, itemName, price));
+    }
+
+    private int grant(int discount) {
+        if (discount <= 0) {
+            return discount;
+        }
+        Period period = currentPeriod();
+        AtomicLongArray cells = period.cells;
+        int cell = cellIndex();
+        while (true) {
+            long allowance = cells.get(cell);
+            if (allowance >= discount) {
+                if (cells.compareAndSet(cell, allowance, allowance - discount)) {
+                    period.granted.add(discount);
+                    return discount;
+                }
+            } else if (!refill(period, cell, discount - allowance)) {
+                denied.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 잔액에서 chunk 를 떼어 칸에 더한다. 잔액이 chunk 보다 적으면 모자란 금액(needed)만 떼어 오고, 이때는 maxOverspend 까지 음수가 될 수 있다.
+     */
+    private boolean refill(Period period, int cell, long needed) {
+        long chunk = Math.max(chunkSize, needed);
+        AtomicLong remaining = period.remaining;
+        while (true) {
+            long current = remaining.get();
+            long take;
+            if (current >= chunk) {
+                take = chunk;
+            } else if (current - needed >= -maxOverspend) {
+                take = needed;
+            } else {
+                return false;
+            }
+            if (remaining.compareAndSet(current, current - take)) {
+                period.cells.addAndGet(cell, take);
+                return true;
+            }
+        }
+    }
+
+    private int cellIndex() {
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return ((int) (h >>> 32) & cellMask) * CELL_STRIDE;
+    }
+
+    private Period currentPeriod() {
+        Period period = this.period;
+        long now = clock.millis();
+        if (now < period.endMillis) {
+            return period;
+        }
+        synchronized (this) {
+            if (this.period.endMillis <= now) {
+                this.period = newPeriod(now);
+            }
+            return this.period;
+        }
+    }
+
+    private Period newPeriod(long now) {
+        long offset = clock.getZone().getRules().getOffset(Instant.ofEpochMilli(now)).getTotalSeconds() * 1000L;
+        long start = Math.floorDiv(now + offset, periodMillis) * periodMillis - offset;
+        return new Period(start + periodMillis, budget, (cellMask + 1) * CELL_STRIDE);
+    }
+
+    /**
+     * 이번 기간에 준 할인 금액의 합
+     */
+    public long grantedAmount() {
+        return currentPeriod().granted.sum();
+    }
+
+    /**
+     * 아직 어느 칸도 떼어 가지 않은 잔액. 칸의 한도에 남은 금액은 포함하지 않는다. 음수면 그만큼 예산을 넘겨 떼어 간 것이다.
+     */
+    public long unreservedBudget() {
+        return currentPeriod().remaining.get();
+    }
+
+    /**
+     * 예산이 모자라서 할인하지 않은 주문 수 (모든 기간)
+     */
+    public long deniedCount() {
+        return denied.sum();
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * 한도를 나눠 두는 칸 수. 떼어 놓고 못 쓰는 금액은 칸 수 x chunkSize 이하다.
+     */
+    public int cellCount() {
+        return cellMask + 1;
+    }
+
+    private static final class Period {
+        final long endMillis;
+        final AtomicLong remaining;
+        final LongAdder granted = new LongAdder();
+        final AtomicLongArray cells;
+
+        Period(long endMillis, long budget, int cellSlots) {
+            this.endMillis = endMillis;
+            this.remaining = new AtomicLong(budget);
+            this.cells = new AtomicLongArray(cellSlots);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 여러 할인 정책(등급, 쿠폰, 시즌 할인 등)을 하나로 묶는 정책. 결과는 0 ~ 가격 사이로 자른다.
+ * - MAX          : 가장 큰 할인 하나
+ * - SUM_WITH_CAP : 모든 할인의 합, 최대 cap
+ * - FIRST_MATCH  : 목록 순서대로 보다가 처음으로 0 보다 큰 할인
+ *
+ * MAX 와 SUM_WITH_CAP 은 순서와 상관없이 결과가 같으므로, 측정한 평균 시간이 짧은 정책부터 계산한다.
+ * 결과가 정해지면(MAX 는 가격만큼, SUM_WITH_CAP 은 cap 이나 가격만큼 할인이 쌓이면) 남은 정책은 계산하지 않는다.
+ * FIRST_MATCH 는 목록 순서 자체가 의미이므로 순서를 바꾸지 않는다.
+ *
+ * 정책마다 계산 횟수를 세고, 호출의 1/SAMPLE_RATE 만 시간을 재서 평균 시간을 추정한다. (stats)
+ */
+public class CompositeDiscountPolicy implements DiscountPolicy {
+
+    public enum Mode {
+        MAX, SUM_WITH_CAP, FIRST_MATCH
+    }
+
+    private static final int SAMPLE_RATE = 16;
+    private static final int REORDER_EVERY_SAMPLES = 1024;
+
+    private final Mode mode;
+    private final int cap;
+    private final DiscountPolicy[] policies;
+    private final String[] names;
+    private final LongAdder[] evaluations;
+    private final LongAdder[] sampledNanos;
+    private final LongAdder[] samples;
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    // 계산 순서. 통째로 바꿔 끼운다.
+    private volatile int[] order;
+
+    public CompositeDiscountPolicy(Mode mode, List<? extends DiscountPolicy> policies) {
+        this(mode, Integer.MAX_VALUE, policies);
+    }
+
+    /**
+     * @param cap SUM_WITH_CAP 에서 할인 합계의 상한. 다른 모드에서는 쓰지 않는다.
+     */
+    public CompositeDiscountPolicy(Mode mode, int cap, List<? extends DiscountPolicy> policies) {
+        this(mode, cap, policies, null);
+    }
+
+    /**
+     * @param names stats 에 표시할 정책 이름. null 이면 클래스 이름을 쓴다.
+     */
+    public CompositeDiscountPolicy(Mode mode, int cap, List<? extends DiscountPolicy> policies, List<String> names) {
+        if (policies.isEmpty()) {
+            throw new IllegalArgumentException("정책이 하나 이상 있어야 합니다.");
+        }
+        if (names != null && names.size() != policies.size()) {
+            throw new IllegalArgumentException("정책 이름의 수가 정책 수와 다릅니다.");
+        }
+        if (cap < 0) {
+            throw new IllegalArgumentException("cap 은 0 이상이어야 합니다. cap=" + cap);
+        }
+        this.mode = mode;
+        this.cap = cap;
+        int size = policies.size();
+        this.policies = policies.toArray(new DiscountPolicy[0]);
+        this.names = new String[size];
+        this.evaluations = new LongAdder[size];
+        this.sampledNanos = new LongAdder[size];
+        this.samples = new LongAdder[size];
+        int[] initialOrder = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.names[i] = names == null ? this.policies[i].getClass().getSimpleName() : names.get(i);
+            evaluations[i] = new LongAdder();
+            sampledNanos[i] = new LongAdder();
+            samples[i] = new LongAdder();
+            initialOrder[i] = i;
+        }
+        this.order = initialOrder;
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        return discount(member, null, price);
+    }
+
+    @Override
+    public int discount(Member member, String itemName, int price) {
+        if (price <= 0) {
+            return 0;
+        }
+        boolean sampled = ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0;
+        int[] order = this.order;
+        long result = 0;
+        for (int i : order) {
+            int discount = evaluate(i, member, itemName, price, sampled);
+            if (mode == Mode.FIRST_MATCH) {
+                if (discount > 0) {
+                    result = discount;
+                    break;
+                }
+            } else if (mode == Mode.MAX) {
+                result = Math.max(result, discount);
+                if (result >= price) {
+                    break;
+                }
+            } else {
+                result += Math.max(discount, 0);
+                if (result >= cap || result >= price) {
+                    break;
+                }
+            }
+        }
+        if (mode == Mode.SUM_WITH_CAP) {
+            result = Math.min(result, cap);
+        }
+        if (sampled && mode != Mode.FIRST_MATCH && sampleCount.incrementAndGet() % REORDER_EVERY_SAMPLES == 0) {
+            reorder();
+        }
+        return (int) Math.max(0, Math.min(result, price));
+    }
+
+    /**
+     * 정책별 계산 횟수와 (추정) 평균 시간. 생성할 때 넘긴 순서다.
+     */
+    public List<PolicyStats> stats() {
+        List<PolicyStats> stats = new ArrayList<>(policies.length);
+        for (int i = 0; i < policies.length; i++) {
+            long sampleSum = samples[i].sum();
+            double averageNanos = sampleSum == 0 ? 0 : (double) sampledNanos[i].sum() / sampleSum;
+            stats.add(new PolicyStats(names[i], evaluations[i].sum(), averageNanos));
+        }
+        return stats;
+    }
+
+    /**
+     * 지금 계산 순서 (생성할 때 넘긴 목록의 위치)
+     */
+    public int[] evaluationOrder() {
+        return order.clone();
+    }
+
+    private int evaluate(int i, Member member, String itemName, int price, boolean sampled) {
+        evaluations[i].increment();
+        if (!sampled) {
+            return policies[i].discount(member, itemName, price);
+        }
+        long start = System.nanoTime();
+        int discount = policies[i].discount(member, itemName, price);
+        sampledNanos[i].add(System.nanoTime() - start);
+        samples[i].increment();
+        return discount;
+    }
+
+    /**
+     * 평균 시간이 짧은 정책이 앞에 오도록 순서를 다시 정한다. 아직 시간을 잰 적 없는 정책은 0 으로 보고 앞에 둬서 잴 기회를 준다.
+     */
+    private void reorder() {
+        Integer[] next = new Integer[policies.length];
+        double[] averages = new double[policies.length];
+        for (int i = 0; i < policies.length; i++) {
+            next[i] = i;
+            long sampleSum = samples[i].sum();
+            averages[i] = sampleSum == 0 ? 0 : (double) sampledNanos[i].sum() / sampleSum;
+        }
+        Arrays.sort(next, Comparator.comparingDouble(i -> averages[i]));
+        order = Arrays.stream(next).mapToInt(Integer::intValue).toArray();
+    }
+
+    public static class PolicyStats {
+        private final String name;
+        private final long evaluationCount;
+        private final double averageNanos;
+
+        public PolicyStats(String name, long evaluationCount, double averageNanos) {
+            this.name = name;
+            this.evaluationCount = evaluationCount;
+            this.averageNanos = averageNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getEvaluationCount() {
+            return evaluationCount;
+        }
+
+        public double getAverageNanos() {
+            return averageNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "PolicyStats{" +
+                    "name=" + name +
+                    ", evaluationCount=" + evaluationCount +
+                    ", averageNanos=" + averageNanos +
+                    '}';
+        }
+    }
+}
@@ -1,12 +1,58 @@
 package hello.core.discount;
 
+import hello.core.member.Grade;
 import hello.core.member.Member;
 
 public interface DiscountPolicy {
+
+    /**
+     * discountAll 에서 등급이 없는(null) 회원을 나타내는 값. 나머지는 Grade.ordinal() 이다.
+     */
+    byte NO_GRADE = -1;
+
     /**
      * @param member
      * @param price
      * @return 할인 대상 금액
      */
     int discount(Member member, int price);
+
+    /**
+     * 상품에 따라 할인이 달라지는 정책(RuleDiscountPolicy 등)을 위한 오버로드.
+     * 기본 구현은 상품명을 보지 않고 discount(member, price) 를 호출한다.
+     */
+    default int discount(Member member, String itemName, int price) {
+        return discount(member, price);
+    }
+
+    /**
+     * 여러 건을 한 번에 계산한다. out[i] = discount(grades[i] 등급의 회원, prices[i])
+     * 등급과 가격만 보는 정책(상품명을 보지 않는 정책)의 카탈로그 전체 재계산 같은 용도다.
+     * 기본 구현은 등급마다 회원 객체를 하나 만들어 discount(member, price) 를 건마다 호출한다.
+     *
+     * @param grades Grade.ordinal() 또는 NO_GRADE
+     */
+    default void discountAll(byte[] grades, int[] prices, int[] out) {
+        checkBatch(grades, prices, out);
+        Grade[] values = Grade.values();
+        Member[] members = new Member[values.length + 1];
+        for (int g = 0; g < values.length; g++) {
+            members[g] = new Member(null, null, values[g]);
+        }
+        members[values.length] = new Member(null, null, null);
+        for (int i = 0; i < prices.length; i++) {
+            int grade = grades[i];
+            out[i] = discount(members[grade == NO_GRADE ? values.length : grade], prices[i]);
+        }
+    }
+
+    static byte gradeCode(Grade grade) {
+        return grade == null ? NO_GRADE : (byte) grade.ordinal();
+    }
+
+    static void checkBatch(byte[] grades, int[] prices, int[] out) {
+        if (grades.length != prices.length || out.length < prices.length) {
+            throw new IllegalArgumentException("등급/가격/결과 배열의 길이가 맞지 않습니다.");
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청마다 코드(빈 이름, 예: "fixDiscountPolicy")로 할인 정책을 골라 적용한다.
+ *
+ * 시작할 때 코드를 이름 순서대로 0, 1, 2 ... 의 번호로 바꿔 두고, 정책과 사용 횟수를 번호로 찾는 배열에 둔다.
+ * 자주 부르는 곳은 idOf 로 번호를 한 번 받아 두고 discount(member, price, id) 를 쓰면 문자열 해시 없이 배열만 읽는다.
+ * 요청 파라미터처럼 코드가 문자열로 들어오는 곳은 discount(member, price, code) 를 쓴다. (HashMap 조회 한 번)
+ */
+@Component
+public class DiscountPolicyRouter {
+
+    private final String[] codes;
+    private final DiscountPolicy[] policies;
+    private final LongAdder[] usages;
+    private final Map<String, Integer> ids;
+
+    @Autowired
+    public DiscountPolicyRouter(Map<String, DiscountPolicy> policyMap) {
+        if (policyMap.isEmpty()) {
+            throw new IllegalArgumentException("할인 정책이 하나 이상 있어야 합니다.");
+        }
+        // 등록 순서와 상관없이 같은 정책 목록이면 같은 번호가 되도록 이름 순서로 정한다.
+        Map<String, DiscountPolicy> sorted = new TreeMap<>(policyMap);
+        int size = sorted.size();
+        codes = new String[size];
+        policies = new DiscountPolicy[size];
+        usages = new LongAdder[size];
+        Map<String, Integer> ids = new HashMap<>(size * 2);
+        int id = 0;
+        for (Map.Entry<String, DiscountPolicy> entry : sorted.entrySet()) {
+            codes[id] = entry.getKey();
+            policies[id] = entry.getValue();
+            usages[id] = new LongAdder();
+            ids.put(entry.getKey(), id);
+            id++;
+        }
+        this.ids = ids;
+    }
+
+    /**
+     * 코드의 번호. 없는 코드면 예외가 발생한다.
+     */
+    public int idOf(String code) {
+        Integer id = ids.get(code);
+        if (id == null) {
+            throw new IllegalArgumentException("존재하지 않는 할인 코드입니다. code=" + code);
+        }
+        return id;
+    }
+
+    public int discount(Member member, int price, int policyId) {
+        usages[policyId].increment();
+        return policies[policyId].discount(member, price);
+    }
+
+    public int discount(Member member, String itemName, int price, int policyId) {
+        usages[policyId].increment();
+        return policies[policyId].discount(member, itemName, price);
+    }
+
+    public int discount(Member member, int price, String discountCode) {
+        return discount(member, price, idOf(discountCode));
+    }
+
+    public int policyCount() {
+        return policies.length;
+    }
+
+    public String codeOf(int policyId) {
+        return codes[policyId];
+    }
+
+    public long usageCount(int policyId) {
+        return usages[policyId].sum();
+    }
+
+    /**
+     * 코드별 사용 횟수 (번호 순서)
+     */
+    public Map<String, Long> usageCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < codes.length; i++) {
+            counts.put(codes[i], usages[i].sum());
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+}
@@ -0,0 +1,85 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+
+/**
+ * 할인 규칙 하나. 조건(등급, 가격 구간, 상품명 패턴)이 모두 맞으면 할인(정률 또는 정액, 상한)을 적용한다.
+ * 설정 파일의 한 줄에 해당하며, 형식은 DiscountRuleParser 를 참고.
+ */
+public class DiscountRule {
+
+    public static final int NO_CAP = Integer.MAX_VALUE;
+
+    private final Grade grade;
+    private final int minPrice;
+    private final int maxPrice;
+    private final String itemPattern;
+    private final int percentBasisPoints;
+    private final int fixedAmount;
+    private final int cap;
+
+    /**
+     * @param grade              null 이면 모든 등급
+     * @param minPrice           가격 하한 (포함)
+     * @param maxPrice           가격 상한 (포함)
+     * @param itemPattern        상품명 패턴. "*" 는 모든 상품, "book*" / "*book" / "*book*" 은 앞/뒤/중간 일치, 그 밖은 정확히 일치
+     * @param percentBasisPoints 정률 할인 (1/10000 단위, 10% = 1000). 0 이면 정액 할인
+     * @param fixedAmount        정액 할인 금액
+     * @param cap                할인 금액 상한. 없으면 NO_CAP
+     */
+    public DiscountRule(Grade grade, int minPrice, int maxPrice, String itemPattern,
+                        int percentBasisPoints, int fixedAmount, int cap) {
+        if (minPrice > maxPrice) {
+            throw new IllegalArgumentException("가격 하한이 상한보다 큽니다. " + minPrice + ".." + maxPrice);
+        }
+        if (percentBasisPoints < 0 || percentBasisPoints > 10_000 || fixedAmount < 0 || cap < 0) {
+            throw new IllegalArgumentException("할인 값이 올바르지 않습니다.");
+        }
+        this.grade = grade;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.itemPattern = itemPattern;
+        this.percentBasisPoints = percentBasisPoints;
+        this.fixedAmount = fixedAmount;
+        this.cap = cap;
+    }
+
+    public Grade getGrade() {
+        return grade;
+    }
+
+    public int getMinPrice() {
+        return minPrice;
+    }
+
+    public int getMaxPrice() {
+        return maxPrice;
+    }
+
+    public String getItemPattern() {
+        return itemPattern;
+    }
+
+    public int getPercentBasisPoints() {
+        return percentBasisPoints;
+    }
+
+    public int getFixedAmount() {
+        return fixedAmount;
+    }
+
+    public int getCap() {
+        return cap;
+    }
+
+    @Override
+    public String toString() {
+        return "DiscountRule{" +
+                "grade=" + (grade == null ? "*" : grade) +
+                ", price=" + minPrice + ".." + maxPrice +
+                ", item=" + itemPattern +
+                ", discount=" + (percentBasisPoints != 0 ? percentBasisPoints / 100.0 + "%" : String.valueOf(fixedAmount)) +
+                (cap == NO_CAP ? "" : ", cap=" + cap) +
+                '}';
+    }
+}
@@ -0,0 +1,122 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 할인 규칙 설정을 읽는다. 한 줄에 규칙 하나이며, 위에 있는 규칙이 먼저 적용된다. '#' 뒤는 주석이다.
+ *
+ * 규칙은 공백으로 구분한 key=value 목록이다.
+ * - grade    : BASIC, VIP, * (생략하면 *)
+ * - price    : 10000..50000, 10000.., ..9999, 10000 (양 끝 포함, 생략하면 모든 가격)
+ * - item     : 상품명 패턴. *, book*, *book, *book*, 정확한 이름 (생략하면 *)
+ * - discount : 10%, 2.5% 같은 정률 또는 1000 같은 정액 (필수)
+ * - cap      : 할인 금액 상한 (생략하면 없음)
+ *
+ * 예) grade=VIP price=50000.. item=book* discount=15% cap=20000
+ */
+public final class DiscountRuleParser {
+
+    private DiscountRuleParser() {
+    }
+
+    public static List<DiscountRule> parse(Path file) {
+        try {
+            return parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<DiscountRule> parse(List<String> lines) {
+        List<DiscountRule> rules = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                rules.add(parseRule(line));
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                throw new IllegalArgumentException("할인 규칙 " + (i + 1) + " 번째 줄: " + e.getMessage(), e);
+            }
+        }
+        return rules;
+    }
+
+    private static DiscountRule parseRule(String line) {
+        Grade grade = null;
+        int minPrice = 0;
+        int maxPrice = Integer.MAX_VALUE;
+        String item = "*";
+        String discount = null;
+        int cap = DiscountRule.NO_CAP;
+        for (String token : line.split("\\s+")) {
+            int eq = token.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("key=value 형식이 아닙니다. token=" + token);
+            }
+            String key = token.substring(0, eq);
+            String value = token.substring(eq + 1);
+            switch (key) {
+                case "grade":
+                    grade = "*".equals(value) ? null : Grade.valueOf(value);
+                    break;
+                case "price":
+                    int range = value.indexOf("..");
+                    if (range < 0) {
+                        minPrice = maxPrice = parseAmount(value);
+                    } else {
+                        String from = value.substring(0, range);
+                        String to = value.substring(range + 2);
+                        minPrice = from.isEmpty() ? 0 : parseAmount(from);
+                        maxPrice = to.isEmpty() ? Integer.MAX_VALUE : parseAmount(to);
+                    }
+                    break;
+                case "item":
+                    if (value.isEmpty()) {
+                        throw new IllegalArgumentException("상품명 패턴이 비어 있습니다.");
+                    }
+                    item = value;
+                    break;
+                case "discount":
+                    discount = value;
+                    break;
+                case "cap":
+                    cap = parseAmount(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("알 수 없는 항목입니다. key=" + key);
+            }
+        }
+        if (discount == null) {
+            throw new IllegalArgumentException("discount 가 없습니다.");
+        }
+        if (discount.endsWith("%")) {
+            int basisPoints = new BigDecimal(discount.substring(0, discount.length() - 1)).movePointRight(2).intValueExact();
+            return new DiscountRule(grade, minPrice, maxPrice, item, basisPoints, 0, cap);
+        }
+        return new DiscountRule(grade, minPrice, maxPrice, item, 0, parseAmount(discount), cap);
+    }
+
+    private static int parseAmount(String value) {
+        int amount = Integer.parseInt(value);
+        if (amount < 0) {
+            throw new IllegalArgumentException("금액은 0 이상이어야 합니다. value=" + value);
+        }
+        return amount;
+    }
+}
@@ -19,4 +19,17 @@ public class FixDiscountPolicy implements DiscountPolicy{
             return 0;
         }
     }
+
+    /**
+     * 분기 없이 계산해서 JIT 가 벡터화할 수 있게 한다. 결과는 discount 와 같다.
+     */
+    @Override
+    public void discountAll(byte[] grades, int[] prices, int[] out) {
+        DiscountPolicy.checkBatch(grades, prices, out);
+        int vip = Grade.VIP.ordinal();
+        for (int i = 0; i < prices.length; i++) {
+            int other = grades[i] ^ vip;
+            out[i] = discountFixAmount & ~((other | -other) >> 31);
+        }
+    }
 }
@@ -0,0 +1,136 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * (등급, 가격) 별 할인 결과를 기억해 두는 정책. 인기 가격대가 몇 천 개뿐이라 대부분 표 한 칸을 읽는 것으로 끝난다.
+ * 표는 등급과 가격만으로 찾는다. 상품명을 넘기면 item 규칙이 있을 수 있어서 기억하지 않고 감싼 정책에 그대로 넘긴다.
+ *
+ * - 등급마다(등급 없음 포함) 크기가 정해진 direct-mapped 표를 둔다. 칸 하나는 long 하나에 (가격, 할인) 을 함께 담아서,
+ *   다른 스레드가 덮어쓰는 중이어도 가격과 할인이 어긋나게 읽히지 않는다. 같은 칸에 다른 가격이 오면 덮어쓴다.
+ * - invalidate 는 표 전체를 새 표로 바꿔 끼운다. 바꾼 뒤의 조회는 이전 결과를 보지 않는다.
+ *   감싼 정책이 ReloadableDiscountPolicy 면 규칙을 다시 읽을 때마다 자동으로 invalidate 한다.
+ * - 음수 가격은 기억하지 않는다.
+ * 조회와 통계에 몇 ns 가 들기 때문에 RateDiscountPolicy 처럼 계산이 싼 정책은 감싸면 오히려 느려진다. (MemoizingDiscountPolicyBenchmark)
+ */
+public class MemoizingDiscountPolicy implements DiscountPolicy {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final long EMPTY = -1L;
+    private static final Grade[] GRADES = Grade.values();
+    // 마지막 표는 등급이 없는(null) 회원
+    private static final int GRADE_ROWS = GRADES.length + 1;
+
+    private final DiscountPolicy delegate;
+    private final int capacity;
+    private final int shift;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private volatile AtomicLongArray[] tables;
+
+    public MemoizingDiscountPolicy(DiscountPolicy delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 등급마다 기억할 가격 수. 2 의 거듭제곱으로 올림한다.
+     */
+    public MemoizingDiscountPolicy(DiscountPolicy delegate, int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity 는 1 ~ 2^30 이어야 합니다. capacity=" + capacity);
+        }
+        this.delegate = delegate;
+        this.capacity = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.shift = 32 - Integer.numberOfTrailingZeros(this.capacity);
+        this.tables = newTables();
+        if (delegate instanceof ReloadableDiscountPolicy) {
+            ((ReloadableDiscountPolicy) delegate).addReloadListener(policy -> invalidate());
+        }
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        if (price < 0) {
+            return delegate.discount(member, price);
+        }
+        Grade grade = member.getGrade();
+        AtomicLongArray table = tables[grade == null ? GRADES.length : grade.ordinal()];
+        int index = (price * 0x9E3779B9) >>> shift;
+        long entry = table.get(index);
+        // 빈 칸(EMPTY)의 가격 부분은 -1 이라 음수가 아닌 가격과 맞지 않는다.
+        if ((int) (entry >>> 32) == price) {
+            hits.increment();
+            return (int) entry;
+        }
+        misses.increment();
+        int discount = delegate.discount(member, price);
+        table.lazySet(index, (long) price << 32 | (discount & 0xFFFFFFFFL));
+        return discount;
+    }
+
+    /**
+     * 상품명이 있으면 표를 쓰지 않고 감싼 정책이 상품명까지 보고 계산한다. (hit/miss 에 세지 않는다)
+     */
+    @Override
+    public int discount(Member member, String itemName, int price) {
+        if (itemName == null) {
+            return discount(member, price);
+        }
+        return delegate.discount(member, itemName, price);
+    }
+
+    /**
+     * 기억한 결과를 모두 버린다. 감싼 정책의 설정이 바뀌었을 때 부른다.
+     */
+    public void invalidate() {
+        tables = newTables();
+        invalidations.increment();
+    }
+
+    public DiscountPolicy getDelegate() {
+        return delegate;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public long invalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * 표가 차지하는 메모리(byte) 추정치. 칸마다 8 byte 에 AtomicLongArray 와 배열의 헤더를 더한다.
+     */
+    public long memoryBytes() {
+        return GRADE_ROWS * (32L + 8L * capacity) + 16L + 4L * GRADE_ROWS;
+    }
+
+    private AtomicLongArray[] newTables() {
+        AtomicLongArray[] next = new AtomicLongArray[GRADE_ROWS];
+        for (int i = 0; i < GRADE_ROWS; i++) {
+            next[i] = new AtomicLongArray(capacity);
+            for (int j = 0; j < capacity; j++) {
+                next[i].lazySet(j, EMPTY);
+            }
+        }
+        return next;
+    }
+}
@@ -0,0 +1,220 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 할인 규칙 파일(DiscountRuleParser 형식)을 지켜보다가 바뀌면 다시 읽는 정책. 재배포 없이 할인율/금액을 바꿀 수 있다.
+ *
+ * 파일을 읽고 검증해서 RuleDiscountPolicy(불변)로 컴파일한 뒤, volatile 참조 하나를 바꿔 끼워 공개한다.
+ * discount 는 그 참조를 한 번 읽어서 계산하므로 락을 잡지 않고, 반쯤 적용된 설정을 보는 일도 없다.
+ * 읽기나 검증에 실패하면 이전 설정을 그대로 쓰고 실패 횟수만 늘린다.
+ * 쓰는 도중의 파일을 읽지 않도록, 파일은 임시 파일에 쓴 뒤 rename 으로 바꾸는 것이 안전하다. (규칙이 하나도 없는 파일은 거부한다)
+ *
+ * 여러 번의 계산이 같은 설정을 봐야 한다면 snapshot() 으로 받은 정책을 쓴다.
+ */
+public class ReloadableDiscountPolicy implements DiscountPolicy, Closeable {
+
+    private final Path file;
+    private final List<Consumer<RuleDiscountPolicy>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong listenerFailures = new AtomicLong();
+    private final WatchService watchService;
+    private final Thread watcher;
+
+    private volatile RuleDiscountPolicy current;
+    private volatile List<String> currentLines;
+    private volatile Exception lastFailure;
+    private volatile RuntimeException lastListenerFailure;
+
+    /**
+     * 파일을 읽어서 시작한다. 처음 읽을 때 실패하면 예외를 던진다.
+     *
+     * @param watch true 면 파일이 바뀔 때 자동으로 다시 읽는다. false 면 reload() 를 직접 호출해야 한다.
+     */
+    public ReloadableDiscountPolicy(Path file, boolean watch) {
+        this.file = file.toAbsolutePath();
+        List<String> lines = readLines();
+        this.current = compile(lines);
+        this.currentLines = lines;
+        if (!watch) {
+            this.watchService = null;
+            this.watcher = null;
+            return;
+        }
+        try {
+            this.watchService = this.file.getFileSystem().newWatchService();
+            this.file.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.watcher = new Thread(this::watchLoop, "discount-rules-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        return current.discount(member, price);
+    }
+
+    @Override
+    public int discount(Member member, String itemName, int price) {
+        return current.discount(member, itemName, price);
+    }
+
+    /**
+     * 지금 적용 중인 설정. 이후에 다시 읽어도 바뀌지 않는다.
+     */
+    public RuleDiscountPolicy snapshot() {
+        return current;
+    }
+
+    /**
+     * 파일을 다시 읽는다. 내용이 같으면 아무것도 하지 않는다.
+     *
+     * @return 새 설정으로 바꿨으면 true
+     */
+    public synchronized boolean reload() {
+        RuleDiscountPolicy next;
+        List<String> lines;
+        try {
+            lines = readLines();
+            if (lines.equals(currentLines)) {
+                return false;
+            }
+            next = compile(lines);
+        } catch (RuntimeException e) {
+            lastFailure = e;
+            failures.incrementAndGet();
+            return false;
+        }
+        current = next;
+        currentLines = lines;
+        reloads.incrementAndGet();
+        // 새 설정은 이미 적용됐으므로 리스너가 실패해도 reload 는 성공이다. 한 리스너의 실패가 다른 리스너를 막지 않는다.
+        for (Consumer<RuleDiscountPolicy> listener : listeners) {
+            try {
+                listener.accept(next);
+            } catch (RuntimeException e) {
+                lastListenerFailure = e;
+                listenerFailures.incrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 새 설정으로 바꾼 직후(reload 를 호출한 스레드에서) 새 설정으로 호출된다. 캐시 무효화 등에 쓴다.
+     * 리스너가 던진 예외는 listenerFailureCount 로만 센다.
+     */
+    public void addReloadListener(Consumer<RuleDiscountPolicy> listener) {
+        listeners.add(listener);
+    }
+
+    public long reloadCount() {
+        return reloads.get();
+    }
+
+    /**
+     * 읽기나 검증에 실패해서 이전 설정을 유지한 횟수
+     */
+    public long failureCount() {
+        return failures.get();
+    }
+
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * 리스너가 예외를 던진 횟수. 설정은 이미 바뀐 뒤라 failureCount 와 따로 센다.
+     */
+    public long listenerFailureCount() {
+        return listenerFailures.get();
+    }
+
+    public RuntimeException getLastListenerFailure() {
+        return lastListenerFailure;
+    }
+
+    @Override
+    public void close() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+            watcher.join();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        Path fileName = file.getFileName();
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (ClosedWatchServiceException e) {
+                return;
+            } catch (InterruptedException e) {
+                continue;
+            }
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                    changed = true;
+                }
+            }
+            if (changed) {
+                // 예상하지 못한 예외로 watcher 가 죽으면 이후 변경을 영영 읽지 않으므로 실패로 세고 계속 지켜본다.
+                try {
+                    reload();
+                } catch (RuntimeException e) {
+                    lastFailure = e;
+                    failures.incrementAndGet();
+                }
+            }
+            if (!key.reset()) {
+                return;
+            }
+        }
+    }
+
+    private static RuleDiscountPolicy compile(List<String> lines) {
+        List<DiscountRule> rules = DiscountRuleParser.parse(lines);
+        if (rules.isEmpty()) {
+            throw new IllegalArgumentException("할인 규칙이 하나도 없습니다.");
+        }
+        return new RuleDiscountPolicy(rules);
+    }
+
+    private List<String> readLines() {
+        try {
+            return Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
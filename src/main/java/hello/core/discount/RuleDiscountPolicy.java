@@ -0,0 +1,197 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 설정으로 정의한 할인 규칙(DiscountRule)을 적용하는 정책. 조건이 맞는 규칙 중 목록에서 가장 위에 있는 것 하나만 적용한다.
+ *
+ * 생성할 때 규칙을 [등급 x 가격 구간] 표로 컴파일한다.
+ * - 가격 구간 : 모든 규칙의 가격 경계를 정렬한 배열. 가격이 속한 구간은 이진 탐색으로 찾는다.
+ * - 표의 칸   : 그 등급/구간에 해당하는 규칙 번호를 우선순위 순서로 담은 목록 (모든 칸을 한 배열에 이어 붙임)
+ *              상품명 조건이 없는 규칙 뒤의 규칙은 적용될 일이 없으므로 넣지 않는다.
+ * - 첫 글자 mask : 칸마다 상품명 규칙의 첫 글자(하위 6비트) 집합. 상품명의 첫 글자가 집합에 없으면 상품명 규칙을 건너뛴다.
+ * 할인 계산은 칸 하나의 규칙들만 상품명 패턴으로 확인하며, 객체를 만들지 않는다.
+ */
+public class RuleDiscountPolicy implements DiscountPolicy {
+
+    private static final byte ANY = 0;
+    private static final byte EXACT = 1;
+    private static final byte PREFIX = 2;
+    private static final byte SUFFIX = 3;
+    private static final byte CONTAINS = 4;
+    private static final Grade[] GRADES = Grade.values();
+    // 마지막 행은 등급이 없는(null) 회원
+    private static final int GRADE_ROWS = GRADES.length + 1;
+
+    private final List<DiscountRule> rules;
+    private final int[] bounds;
+    private final int bandCount;
+    private final int[] cellStart;
+    private final int[] cellRules;
+    private final long[] cellFirstChars;
+
+    private final byte[] itemKinds;
+    private final String[] itemLiterals;
+    private final int[] percentBasisPoints;
+    private final int[] fixedAmounts;
+    private final int[] caps;
+
+    public RuleDiscountPolicy(List<DiscountRule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        int ruleCount = rules.size();
+        itemKinds = new byte[ruleCount];
+        itemLiterals = new String[ruleCount];
+        percentBasisPoints = new int[ruleCount];
+        fixedAmounts = new int[ruleCount];
+        caps = new int[ruleCount];
+        TreeSet<Integer> boundSet = new TreeSet<>();
+        for (int i = 0; i < ruleCount; i++) {
+            DiscountRule rule = rules.get(i);
+            compilePattern(i, rule.getItemPattern());
+            percentBasisPoints[i] = rule.getPercentBasisPoints();
+            fixedAmounts[i] = rule.getFixedAmount();
+            caps[i] = rule.getCap();
+            boundSet.add(rule.getMinPrice());
+            if (rule.getMaxPrice() < Integer.MAX_VALUE) {
+                boundSet.add(rule.getMaxPrice() + 1);
+            }
+        }
+        bounds = boundSet.stream().mapToInt(Integer::intValue).toArray();
+        bandCount = bounds.length + 1;
+
+        // 구간 b 는 [bounds[b - 1], bounds[b]) 이고, 구간 0 은 가장 작은 경계보다 작은 가격이다.
+        // 경계가 모든 규칙의 끝점이므로 규칙은 구간 전체를 포함하거나 전혀 포함하지 않는다.
+        cellStart = new int[GRADE_ROWS * bandCount + 1];
+        cellFirstChars = new long[GRADE_ROWS * bandCount];
+        List<Integer> cells = new ArrayList<>();
+        for (int row = 0; row < GRADE_ROWS; row++) {
+            Grade grade = row < GRADES.length ? GRADES[row] : null;
+            for (int band = 0; band < bandCount; band++) {
+                cellStart[row * bandCount + band] = cells.size();
+                if (band == 0) {
+                    continue;
+                }
+                int low = bounds[band - 1];
+                for (int i = 0; i < ruleCount; i++) {
+                    DiscountRule rule = rules.get(i);
+                    boolean gradeMatches = rule.getGrade() == null || rule.getGrade() == grade;
+                    if (gradeMatches && rule.getMinPrice() <= low && low <= rule.getMaxPrice()) {
+                        cells.add(i);
+                        if (itemKinds[i] == ANY) {
+                            break;
+                        }
+                        cellFirstChars[row * bandCount + band] |= itemKinds[i] == EXACT || itemKinds[i] == PREFIX
+                                ? 1L << (itemLiterals[i].charAt(0) & 63)
+                                : -1L;
+                    }
+                }
+            }
+        }
+        cellStart[GRADE_ROWS * bandCount] = cells.size();
+        cellRules = cells.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        return discount(member, null, price);
+    }
+
+    /**
+     * itemName 이 null 이면 상품명 조건이 있는 규칙은 맞지 않는 것으로 본다.
+     */
+    @Override
+    public int discount(Member member, String itemName, int price) {
+        Grade grade = member.getGrade();
+        int row = grade == null ? GRADES.length : grade.ordinal();
+        int cell = row * bandCount + band(price);
+        int i = cellStart[cell];
+        int end = cellStart[cell + 1];
+        if (itemName == null || itemName.isEmpty() || (cellFirstChars[cell] & 1L << (itemName.charAt(0) & 63)) == 0) {
+            // 상품명 규칙은 맞을 수 없다. 칸의 마지막 규칙이 상품명 조건이 없는 규칙일 때만 적용된다.
+            i = Math.max(i, end - 1);
+        }
+        for (; i < end; i++) {
+            int rule = cellRules[i];
+            if (matches(rule, itemName)) {
+                long amount = percentBasisPoints[rule] != 0
+                        ? (long) price * percentBasisPoints[rule] / 10_000
+                        : fixedAmounts[rule];
+                return (int) Math.min(amount, caps[rule]);
+            }
+        }
+        return 0;
+    }
+
+    public List<DiscountRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * 컴파일된 가격 구간 수
+     */
+    public int bandCount() {
+        return bandCount;
+    }
+
+    /**
+     * price 이하인 경계의 수 = price 가 속한 구간 번호
+     */
+    private int band(int price) {
+        int low = 0;
+        int high = bounds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bounds[mid] <= price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean matches(int rule, String itemName) {
+        byte kind = itemKinds[rule];
+        if (kind == ANY) {
+            return true;
+        }
+        if (itemName == null) {
+            return false;
+        }
+        String literal = itemLiterals[rule];
+        switch (kind) {
+            case EXACT:
+                return itemName.equals(literal);
+            case PREFIX:
+                return itemName.startsWith(literal);
+            case SUFFIX:
+                return itemName.endsWith(literal);
+            default:
+                return itemName.contains(literal);
+        }
+    }
+
+    private void compilePattern(int rule, String pattern) {
+        boolean leading = pattern.startsWith("*");
+        boolean trailing = pattern.length() > 1 && pattern.endsWith("*");
+        String literal = pattern.substring(leading ? 1 : 0, pattern.length() - (trailing ? 1 : 0));
+        if (literal.isEmpty()) {
+            itemKinds[rule] = ANY;
+        } else if (leading && trailing) {
+            itemKinds[rule] = CONTAINS;
+        } else if (leading) {
+            itemKinds[rule] = SUFFIX;
+        } else if (trailing) {
+            itemKinds[rule] = PREFIX;
+        } else {
+            itemKinds[rule] = EXACT;
+        }
+        itemLiterals[rule] = literal;
+    }
+}
@@ -0,0 +1,205 @@
+package hello.core.discount;
+
+import hello.core.common.LogHistogram;
+import hello.core.common.MpscArrayQueue;
+import hello.core.member.Member;
+
+import java.io.Closeable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 새 할인 정책(candidate)을 실제 주문에 섀도로 돌려 보고 지금 정책과의 차이를 기록한다. 주문 결과에는 영향이 없다.
+ *
+ * 주문의 sampleRate 비율만 골라, 크기가 정해진 MPSC 큐에 넣고 전용 스레드 하나에서 candidate 를 계산한다.
+ * 큐가 가득 차면 기다리지 않고 버린다. (droppedCount) 주문 스레드는 표본 추첨과 락 없는 offer(CAS 한 번) 비용만 내고,
+ * 섀도 스레드가 잠들어 있을 때만 깨운다.
+ * candidate 의 계산 시간과, 결과가 다를 때 차이(절댓값)의 분포를 LogHistogram 으로 남긴다.
+ */
+public class ShadowDiscountEvaluator implements Closeable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final int SPIN_TRIES = 100;
+    private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final DiscountPolicy candidate;
+    private final double sampleRate;
+    private final MpscArrayQueue<Sample> queue;
+    private final Thread worker;
+    private volatile boolean waiting;
+    private volatile boolean closed;
+
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder evaluated = new LongAdder();
+    private final LongAdder diverged = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LogHistogram latencyNanos = new LogHistogram();
+    private final LogHistogram divergence = new LogHistogram();
+
+    public ShadowDiscountEvaluator(DiscountPolicy candidate, double sampleRate) {
+        this(candidate, sampleRate, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param sampleRate 섀도로 계산할 주문의 비율 (0 ~ 1)
+     * @param queueCapacity 계산을 기다리는 주문 수의 상한. 2 의 거듭제곱으로 올림하며, 넘치면 버린다.
+     */
+    public ShadowDiscountEvaluator(DiscountPolicy candidate, double sampleRate, int queueCapacity) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate 는 0 ~ 1 사이여야 합니다. sampleRate=" + sampleRate);
+        }
+        this.candidate = candidate;
+        this.sampleRate = sampleRate;
+        this.queue = new MpscArrayQueue<>(queueCapacity);
+        this.worker = new Thread(this::run, "discount-shadow");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 지금 정책으로 계산한 할인(primaryDiscount)과 비교하도록 표본으로 뽑힌 주문을 넘긴다. 기다리지 않는다.
+     */
+    public void offer(Member member, String itemName, int price, int primaryDiscount) {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        sampled.increment();
+        // 가득 찼거나 close 뒤면 버린다.
+        if (closed || !queue.offer(new Sample(member, itemName, price, primaryDiscount))) {
+            dropped.increment();
+            return;
+        }
+        if (waiting) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void run() {
+        int idle = 0;
+        while (true) {
+            Sample sample = queue.poll();
+            if (sample != null) {
+                evaluate(sample);
+                idle = 0;
+                continue;
+            }
+            if (closed) {
+                return;
+            }
+            if (++idle < SPIN_TRIES) {
+                Thread.onSpinWait();
+                continue;
+            }
+            // waiting 을 먼저 켜고 큐를 다시 봐야 offer 쪽의 unpark 를 놓치지 않는다.
+            waiting = true;
+            if (queue.isEmpty() && !closed) {
+                LockSupport.park(this);
+            }
+            waiting = false;
+        }
+    }
+
+    private void evaluate(Sample sample) {
+        int discount;
+        long start = System.nanoTime();
+        try {
+            discount = candidate.discount(sample.member, sample.itemName, sample.price);
+        } catch (RuntimeException e) {
+            failed.increment();
+            return;
+        } finally {
+            latencyNanos.record(System.nanoTime() - start);
+        }
+        evaluated.increment();
+        if (discount != sample.primaryDiscount) {
+            diverged.increment();
+            divergence.record(Math.abs((long) discount - sample.primaryDiscount));
+        }
+    }
+
+    public DiscountPolicy getCandidate() {
+        return candidate;
+    }
+
+    /**
+     * 표본으로 뽑힌 주문 수 (버린 주문 포함)
+     */
+    public long sampledCount() {
+        return sampled.sum();
+    }
+
+    /**
+     * 대기열이 가득 차서(또는 close 뒤라서) 계산하지 않고 버린 주문 수
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public long evaluatedCount() {
+        return evaluated.sum();
+    }
+
+    /**
+     * candidate 의 결과가 지금 정책과 다른 주문 수
+     */
+    public long divergenceCount() {
+        return diverged.sum();
+    }
+
+    /**
+     * candidate 가 예외를 던진 주문 수
+     */
+    public long failureCount() {
+        return failed.sum();
+    }
+
+    public double divergenceRate() {
+        long evaluatedCount = evaluated.sum();
+        return evaluatedCount == 0 ? 0 : (double) diverged.sum() / evaluatedCount;
+    }
+
+    /**
+     * candidate 의 계산 시간(ns) 분포
+     */
+    public LogHistogram latencyHistogram() {
+        return latencyNanos;
+    }
+
+    /**
+     * 결과가 다른 주문의 할인 금액 차이(절댓값) 분포
+     */
+    public LogHistogram divergenceHistogram() {
+        return divergence;
+    }
+
+    /**
+     * 대기 중인 계산은 버리지 않고 끝낸 뒤 스레드를 멈춘다.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Sample {
+        private final Member member;
+        private final String itemName;
+        private final int price;
+        private final int primaryDiscount;
+
+        Sample(Member member, String itemName, int price, int primaryDiscount) {
+            this.member = member;
+            this.itemName = itemName;
+            this.price = price;
+            this.primaryDiscount = primaryDiscount;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package hello.core.importer;
+
+import hello.core.codec.MemberCodec;
+import hello.core.member.Member;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 회원 대량 등록용 바이너리 형식.
+ * 파일은 BLOCK_SIZE 크기의 block 이 이어진 구조이고, 레코드는 block 경계를 넘지 않는다.
+ * 그래서 파일을 block 단위로 자르기만 하면 각 구간을 독립적으로 파싱할 수 있다.
+ *
+ * block  : [int 레코드 수][레코드...][0 padding]
+ * 레코드 : MemberCodec 형식 ([long id][byte grade][short 이름 길이][UTF-8 이름])
+ */
+public class BinaryMemberFormat implements MemberFileFormat {
+
+    public static final int BLOCK_SIZE = 64 * 1024;
+
+    @Override
+    public List<Long> split(FileChannel channel, long fileSize, int chunkSize) {
+        if (fileSize % BLOCK_SIZE != 0) {
+            throw new IllegalArgumentException("파일 크기가 block 크기의 배수가 아닙니다. size=" + fileSize);
+        }
+        long step = Math.max(1, chunkSize / BLOCK_SIZE) * (long) BLOCK_SIZE;
+        List<Long> starts = new ArrayList<>();
+        for (long start = 0; start < fileSize; start += step) {
+            starts.add(start);
+        }
+        return starts;
+    }
+
+    @Override
+    public void parse(ByteBuffer buffer, boolean first, Consumer<Member> sink) {
+        for (int blockStart = buffer.position(); blockStart < buffer.limit(); blockStart += BLOCK_SIZE) {
+            buffer.position(blockStart);
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                sink.accept(MemberCodec.read(buffer));
+            }
+        }
+    }
+
+    /**
+     * 회원 목록을 이 형식의 파일로 쓴다.
+     */
+    public static void write(Path file, Iterable<Member> members) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+            block.putInt(0);
+            int count = 0;
+            for (Member member : members) {
+                int length = MemberCodec.encodedLength(member);
+                if (length > BLOCK_SIZE - Integer.BYTES) {
+                    throw new IllegalArgumentException("이름이 너무 깁니다. bytes=" + (length - MemberCodec.FIXED_BYTES));
+                }
+                if (block.remaining() < length) {
+                    flushBlock(channel, block, count);
+                    count = 0;
+                }
+                MemberCodec.write(block, member);
+                count++;
+            }
+            if (count > 0) {
+                flushBlock(channel, block, count);
+            }
+        }
+    }
+
+    private static void flushBlock(FileChannel channel, ByteBuffer block, int count) throws IOException {
+        block.putInt(0, count);
+        while (block.hasRemaining()) {
+            block.put((byte) 0);
+        }
+        block.flip();
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+        block.clear();
+        block.putInt(0);
+    }
+}
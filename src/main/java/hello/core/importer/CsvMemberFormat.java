@@ -0,0 +1,160 @@
+package hello.core.importer;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * id,name,grade 형식의 CSV (UTF-8, 줄바꿈 \n 또는 \r\n)
+ * 첫 줄이 숫자로 시작하지 않으면 헤더로 보고 건너뛴다. 따옴표로 감싼 필드는 지원하지 않는다.
+ * chunk 경계는 목표 위치 다음의 줄바꿈으로 맞춘다.
+ */
+public class CsvMemberFormat implements MemberFileFormat {
+
+    private static final int SCAN_BUFFER = 4096;
+    // 등급 이름은 Grade 상수 이름과 같아야 한다. (Grade.valueOf 와 같은 규칙)
+    private static final Grade[] GRADES = Grade.values();
+
+    @Override
+    public List<Long> split(FileChannel channel, long fileSize, int chunkSize) throws IOException {
+        List<Long> starts = new ArrayList<>();
+        starts.add(0L);
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER);
+        long target = chunkSize;
+        while (target < fileSize) {
+            long lineStart = nextLineStart(channel, target, scan);
+            if (lineStart >= fileSize) {
+                break;
+            }
+            starts.add(lineStart);
+            target = lineStart + chunkSize;
+        }
+        return starts;
+    }
+
+    private long nextLineStart(FileChannel channel, long from, ByteBuffer scan) throws IOException {
+        long position = from;
+        while (true) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                return Long.MAX_VALUE;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    @Override
+    public void parse(ByteBuffer buffer, boolean first, Consumer<Member> sink) {
+        byte[] field = new byte[256];
+        if (first && buffer.hasRemaining() && !isDigit(buffer.get(buffer.position()))) {
+            skipLine(buffer);
+        }
+        while (buffer.hasRemaining()) {
+            int lineStart = buffer.position();
+            if (buffer.get(lineStart) == '\n' || buffer.get(lineStart) == '\r') {
+                buffer.get();
+                continue;
+            }
+            long id = 0;
+            byte b;
+            while ((b = next(buffer, lineStart)) != ',') {
+                if (!isDigit(b)) {
+                    throw invalidLine(buffer, lineStart);
+                }
+                id = id * 10 + (b - '0');
+            }
+            int nameLength = 0;
+            while ((b = next(buffer, lineStart)) != ',') {
+                if (b == '\n') {
+                    throw invalidLine(buffer, lineStart);
+                }
+                if (nameLength == field.length) {
+                    field = Arrays.copyOf(field, field.length * 2);
+                }
+                field[nameLength++] = b;
+            }
+            String name = new String(field, 0, nameLength, StandardCharsets.UTF_8);
+            Grade grade = parseGrade(buffer, lineStart);
+            sink.accept(new Member(id, name, grade));
+        }
+    }
+
+    private Grade parseGrade(ByteBuffer buffer, int lineStart) {
+        int start = buffer.position();
+        int end = start;
+        while (end < buffer.limit() && buffer.get(end) != '\n' && buffer.get(end) != '\r') {
+            end++;
+        }
+        Grade grade = null;
+        for (Grade candidate : GRADES) {
+            if (matches(buffer, start, end, candidate.name())) {
+                grade = candidate;
+                break;
+            }
+        }
+        if (grade == null) {
+            throw invalidLine(buffer, lineStart);
+        }
+        buffer.position(end);
+        skipLine(buffer);
+        return grade;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int start, int end, String token) {
+        if (end - start != token.length()) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (buffer.get(start + i) != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 쉼표 전에 파일(청크)이 끝난 줄도 다른 잘못된 줄처럼 IllegalArgumentException 으로 알린다.
+     */
+    private static byte next(ByteBuffer buffer, int lineStart) {
+        if (!buffer.hasRemaining()) {
+            throw invalidLine(buffer, lineStart);
+        }
+        return buffer.get();
+    }
+
+    private static void skipLine(ByteBuffer buffer) {
+        while (buffer.hasRemaining() && buffer.get() != '\n') {
+            // 줄 끝까지 건너뛴다.
+        }
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static IllegalArgumentException invalidLine(ByteBuffer buffer, int lineStart) {
+        int end = lineStart;
+        while (end < buffer.limit() && buffer.get(end) != '\n' && end - lineStart < 200) {
+            end++;
+        }
+        byte[] line = new byte[end - lineStart];
+        for (int i = 0; i < line.length; i++) {
+            line[i] = buffer.get(lineStart + i);
+        }
+        return new IllegalArgumentException("잘못된 CSV 줄입니다: " + new String(line, StandardCharsets.UTF_8));
+    }
+}
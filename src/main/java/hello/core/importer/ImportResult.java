@@ -0,0 +1,39 @@
+package hello.core.importer;
+
+public class ImportResult {
+    private final long rows;
+    private final int chunks;
+    private final long elapsedNanos;
+
+    public ImportResult(long rows, int chunks, long elapsedNanos) {
+        this.rows = rows;
+        this.chunks = chunks;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "rows=" + rows +
+                ", chunks=" + chunks +
+                ", elapsedMillis=" + elapsedNanos / 1_000_000 +
+                ", rowsPerSecond=" + (long) rowsPerSecond() +
+                '}';
+    }
+}
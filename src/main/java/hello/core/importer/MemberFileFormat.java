@@ -0,0 +1,27 @@
+package hello.core.importer;
+
+import hello.core.member.Member;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 회원 대량 등록 파일 형식.
+ * 파일을 서로 독립적으로 파싱할 수 있는 구간(chunk)으로 나누는 방법과, 한 구간을 파싱하는 방법을 정의한다.
+ */
+public interface MemberFileFormat {
+
+    /**
+     * @return 각 chunk 의 시작 위치. 마지막 chunk 는 파일 끝까지다.
+     */
+    List<Long> split(FileChannel channel, long fileSize, int chunkSize) throws IOException;
+
+    /**
+     * buffer 의 position ~ limit 구간을 파싱한다.
+     * @param first 파일의 첫 chunk 인지 여부 (헤더 처리용)
+     */
+    void parse(ByteBuffer buffer, boolean first, Consumer<Member> sink);
+}
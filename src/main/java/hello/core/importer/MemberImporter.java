@@ -0,0 +1,207 @@
+package hello.core.importer;
+
+import hello.core.member.Member;
+import hello.core.member.MemberService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 파트너사 회원 덤프 파일을 대량으로 가입시킨다.
+ *
+ * 1. 파일을 형식에 맞게 독립적인 chunk 로 나누고, chunk 마다 읽기 전용으로 memory-map 한다.
+ * 2. fork-join pool 에서 chunk 들을 병렬로 파싱해 batchSize 개씩 Member 배치를 만든다.
+ * 3. 배치는 크기가 제한된 큐에 넣고, 호출한 스레드가 꺼내서 MemberService.joinAll 로 저장한다.
+ *    저장이 파싱을 따라가지 못하면 큐가 가득 차서 파싱 스레드가 기다린다. (backpressure)
+ */
+public class MemberImporter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    private static final List<Member> END = new ArrayList<>();
+
+    private final MemberService memberService;
+    private final int parallelism;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    public MemberImporter(MemberService memberService) {
+        this(memberService, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public MemberImporter(MemberService memberService, int parallelism, int chunkSize, int batchSize, int queueCapacity) {
+        this.memberService = memberService;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public ImportResult importFile(Path file, MemberFileFormat format) {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            List<Long> starts = format.split(channel, fileSize, chunkSize);
+            if (fileSize == 0 || starts.isEmpty()) {
+                return new ImportResult(0, 0, System.nanoTime() - start);
+            }
+            long rows = run(channel, fileSize, starts, format);
+            return new ImportResult(rows, starts.size(), System.nanoTime() - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long run(FileChannel channel, long fileSize, List<Long> starts, MemberFileFormat format) {
+        BlockingQueue<List<Member>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger remaining = new AtomicInteger(starts.size());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.execute(new ParseTask(channel, fileSize, starts, 0, starts.size(), format, queue, failure, remaining));
+            long rows = 0;
+            while (true) {
+                List<Member> batch = queue.take();
+                if (batch == END) {
+                    break;
+                }
+                if (failure.get() == null) {
+                    memberService.joinAll(batch);
+                    rows += batch.size();
+                }
+            }
+            if (failure.get() != null) {
+                throw new IllegalStateException("회원 파일 파싱에 실패했습니다.", failure.get());
+            }
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("회원 가져오기가 중단되었습니다.", e);
+        } catch (RuntimeException e) {
+            // 저장 중 실패하면 파싱 스레드가 큐에서 막히지 않도록 멈추게 한다.
+            failure.compareAndSet(null, e);
+            queue.clear();
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * chunk 범위를 반으로 나누어 가며 병렬로 파싱한다.
+     */
+    private class ParseTask extends RecursiveAction {
+        private final FileChannel channel;
+        private final long fileSize;
+        private final List<Long> starts;
+        private final int from;
+        private final int to;
+        private final MemberFileFormat format;
+        private final BlockingQueue<List<Member>> queue;
+        private final AtomicReference<Throwable> failure;
+        private final AtomicInteger remaining;
+
+        ParseTask(FileChannel channel, long fileSize, List<Long> starts, int from, int to, MemberFileFormat format,
+                  BlockingQueue<List<Member>> queue, AtomicReference<Throwable> failure, AtomicInteger remaining) {
+            this.channel = channel;
+            this.fileSize = fileSize;
+            this.starts = starts;
+            this.from = from;
+            this.to = to;
+            this.format = format;
+            this.queue = queue;
+            this.failure = failure;
+            this.remaining = remaining;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ParseTask(channel, fileSize, starts, from, mid, format, queue, failure, remaining),
+                        new ParseTask(channel, fileSize, starts, mid, to, format, queue, failure, remaining));
+                return;
+            }
+            try {
+                if (failure.get() == null) {
+                    parseChunk(from);
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                if (remaining.decrementAndGet() == 0) {
+                    put(END);
+                }
+            }
+        }
+
+        private void parseChunk(int index) throws IOException {
+            long start = starts.get(index);
+            long end = index + 1 < starts.size() ? starts.get(index + 1) : fileSize;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            BatchCollector collector = new BatchCollector();
+            format.parse(buffer, index == 0, collector);
+            if (!collector.batch.isEmpty()) {
+                put(collector.batch);
+            }
+        }
+
+        private class BatchCollector implements Consumer<Member> {
+            private List<Member> batch = new ArrayList<>(batchSize);
+
+            @Override
+            public void accept(Member member) {
+                batch.add(member);
+                if (batch.size() == batchSize) {
+                    put(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+
+        private void put(List<Member> batch) {
+            if (failure.get() != null && batch != END) {
+                throw new IllegalStateException("회원 가져오기가 중단되었습니다.");
+            }
+            try {
+                // fork-join 스레드가 큐에서 막혀도 pool 이 병렬성을 유지하도록 ManagedBlocker 로 기다린다.
+                ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                    private boolean done;
+
+                    @Override
+                    public boolean block() throws InterruptedException {
+                        if (!done) {
+                            queue.put(batch);
+                            done = true;
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public boolean isReleasable() {
+                        return done || (done = queue.offer(batch));
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("회원 가져오기가 중단되었습니다.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package hello.core.member;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 스레드마다 id 블록(blockSize 개)을 전역 카운터에서 예약해 두고, 그 안에서 하나씩 꺼내 주는 id 발급기.
+ * - 빠른 경로(블록 안에서 발급)는 자기 스레드의 블록만 건드리므로 락도 CAS 도 없다.
+ * - 블록이 떨어지면 전역 AtomicLong 에서 getAndAdd 로 다음 블록을 예약한다.
+ * - 발급한 id 가 저장된 high-water mark 에 가까워지면, 그 다음 몇 블록 뒤까지 미리 파일에 기록한다.
+ *   재시작하면 기록된 값부터 발급하므로 이전에 나간 id 를 다시 주지 않는다. (대신 중간에 빈 번호가 생길 수 있다)
+ * 직접 id 를 정해서 가입시키는 회원과 같은 번호 공간을 쓰므로, 한 저장소에서는 한 가지 방식만 쓰는 것이 안전하다.
+ */
+@Component
+public class BlockMemberIdGenerator implements MemberIdGenerator {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1_000;
+    // high-water mark 를 기록할 때 몇 블록 앞까지 미리 잡아 둘지
+    private static final int RESERVE_AHEAD_BLOCKS = 64;
+
+    private final Path highWaterMarkFile;
+    private final int blockSize;
+    private final AtomicLong nextBlockStart;
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+    private volatile long highWaterMark;
+
+    /**
+     * high-water mark 를 파일에 남기지 않는 발급기. (테스트, 메모리 저장소용)
+     */
+    public BlockMemberIdGenerator() {
+        this((Path) null, DEFAULT_BLOCK_SIZE);
+    }
+
+    @Autowired
+    public BlockMemberIdGenerator(@Value("${member.id.high-water-mark-file:}") String highWaterMarkFile,
+                                  @Value("${member.id.block-size:1000}") int blockSize) {
+        this(highWaterMarkFile == null || highWaterMarkFile.isEmpty() ? null : Paths.get(highWaterMarkFile), blockSize);
+    }
+
+    public BlockMemberIdGenerator(Path highWaterMarkFile, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize 는 1 이상이어야 합니다. blockSize=" + blockSize);
+        }
+        this.highWaterMarkFile = highWaterMarkFile;
+        this.blockSize = blockSize;
+        long start = Math.max(1L, readHighWaterMark());
+        this.nextBlockStart = new AtomicLong(start);
+        this.highWaterMark = highWaterMarkFile == null ? Long.MAX_VALUE : start;
+    }
+
+    @Override
+    public long nextId() {
+        Block block = blocks.get();
+        if (block.next == block.end) {
+            reserve(block);
+        }
+        return block.next++;
+    }
+
+    /**
+     * 지금까지 파일에 기록된 high-water mark. 재시작하면 이 값부터 발급한다.
+     */
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    private void reserve(Block block) {
+        long start = nextBlockStart.getAndAdd(blockSize);
+        long end = start + blockSize;
+        if (end > highWaterMark) {
+            persistHighWaterMark(end);
+        }
+        block.next = start;
+        block.end = end;
+    }
+
+    private synchronized void persistHighWaterMark(long required) {
+        if (required <= highWaterMark) {
+            return;
+        }
+        long mark = required + (long) blockSize * RESERVE_AHEAD_BLOCKS;
+        Path temp = highWaterMarkFile.resolveSibling(highWaterMarkFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(Long.toString(mark).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.move(temp, highWaterMarkFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            // rename 이 남지 않으면 재시작 후 이전 값부터 발급해서 이미 나간 id 를 다시 준다.
+            forceDirectory();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        highWaterMark = mark;
+    }
+
+    /**
+     * 이름 바꾸기(rename)가 디스크에 남도록 디렉토리를 fsync 한다. 디렉토리를 열 수 없는 OS(Windows)에서는 건너뛴다.
+     */
+    private void forceDirectory() throws IOException {
+        Path directory = highWaterMarkFile.toAbsolutePath().getParent();
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (FileChannel ignored = channel) {
+            channel.force(true);
+        }
+    }
+
+    private long readHighWaterMark() {
+        if (highWaterMarkFile == null || !Files.exists(highWaterMarkFile)) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(highWaterMarkFile), StandardCharsets.US_ASCII).trim());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Block {
+        private long next;
+        private long end;
+    }
+}
@@ -0,0 +1,296 @@
+package hello.core.member;
+
+import hello.core.common.ConcurrentLongMap;
+import hello.core.common.FrequencySketch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 느린 MemberRepository 앞에 두는 read-through 캐시.
+ * OrderServiceImpl.createOrder 는 주문마다 findById 를 호출하므로, 원본 저장소가 느려지면 이 조회가 가장 큰 비용이 된다.
+ *
+ * - 크기 제한 : maximumSize 를 넘으면 CLOCK(최근 참조 여부)으로 희생자를 고른다.
+ * - TinyLFU 입장 정책 : 새 회원의 최근 빈도가 희생자보다 높을 때만 희생자를 내보내고 캐시에 넣는다.
+ *   한 번 훑고 지나가는 대량 조회가 자주 쓰는 회원을 밀어내지 못한다.
+ * - save/saveAll 하면 해당 회원을 캐시에서 지운다. 조회 도중에 저장이 끼어들면 조회 결과는 캐시에 넣지 않는다.
+ *
+ * 조회(hit)는 락 없이 처리하고, 캐시에 넣고 빼는 작업만 하나의 락으로 보호한다.
+ */
+public class CachingMemberRepository implements MemberRepository {
+
+    private static final int VERSION_STRIPES = 64;
+
+    private final MemberRepository delegate;
+    private final int maximumSize;
+    private final ConcurrentLongMap<Entry> cache = new ConcurrentLongMap<>();
+    private final FrequencySketch sketch;
+    // 키 stripe 별 저장 횟수. 조회 시작 시점과 비교해서 오래된 값이 캐시에 들어가는 것을 막는다.
+    private final AtomicLongArray writeVersions = new AtomicLongArray(VERSION_STRIPES);
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Entry[] clock;
+    private int clockHead;
+    private int clockCount;
+    private int size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public CachingMemberRepository(MemberRepository delegate, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize 는 1 이상이어야 합니다. maximumSize=" + maximumSize);
+        }
+        this.delegate = delegate;
+        this.maximumSize = maximumSize;
+        this.sketch = new FrequencySketch(maximumSize);
+        this.clock = new Entry[maximumSize * 2];
+    }
+
+    @Override
+    public void save(Member member) {
+        delegate.save(member);
+        evictionLock.lock();
+        try {
+            invalidate(member.getId());
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Member> members) {
+        delegate.saveAll(members);
+        evictionLock.lock();
+        try {
+            for (Member member : members) {
+                invalidate(member.getId());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        if (memberId == null) {
+            return delegate.findById(null);
+        }
+        return findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long key) {
+        Member cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        long version = writeVersions.get(versionStripe(key));
+        Member member = delegate.findById(key);
+        if (member != null) {
+            evictionLock.lock();
+            try {
+                admit(key, member, version);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        return member;
+    }
+
+    /**
+     * 캐시에 없는 id 만 모아서 원본 저장소에 한 번에 조회한다.
+     */
+    @Override
+    public List<Member> findAllById(long[] memberIds) {
+        List<Member> members = new ArrayList<>(memberIds.length);
+        int missCount = 0;
+        int[] missPositions = new int[memberIds.length];
+        for (int i = 0; i < memberIds.length; i++) {
+            Member cached = lookup(memberIds[i]);
+            members.add(cached);
+            if (cached == null) {
+                missPositions[missCount++] = i;
+            }
+        }
+        if (missCount == 0) {
+            return members;
+        }
+
+        long[] missIds = new long[missCount];
+        long[] versions = new long[missCount];
+        for (int i = 0; i < missCount; i++) {
+            missIds[i] = memberIds[missPositions[i]];
+            versions[i] = writeVersions.get(versionStripe(missIds[i]));
+        }
+        List<Member> loaded = delegate.findAllById(missIds);
+        evictionLock.lock();
+        try {
+            for (int i = 0; i < missCount; i++) {
+                Member member = loaded.get(i);
+                members.set(missPositions[i], member);
+                if (member != null) {
+                    admit(missIds[i], member, versions[i]);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        return members;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * 빈도가 낮아서 캐시에 들어가지 못한 횟수
+     */
+    public long rejectionCount() {
+        return rejections.sum();
+    }
+
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long requestCount = hitCount + misses.sum();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    public int size() {
+        evictionLock.lock();
+        try {
+            return size;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private Member lookup(long key) {
+        sketch.increment(key);
+        Entry entry = cache.get(key);
+        if (entry != null) {
+            entry.referenced = true;
+            hits.increment();
+            return entry.member;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * evictionLock 안에서만 호출
+     */
+    private void invalidate(long key) {
+        writeVersions.incrementAndGet(versionStripe(key));
+        Entry removed = cache.remove(key);
+        if (removed != null) {
+            removed.removed = true;
+            size--;
+        }
+    }
+
+    /**
+     * evictionLock 안에서만 호출
+     */
+    private void admit(long key, Member member, long version) {
+        if (writeVersions.get(versionStripe(key)) != version || cache.get(key) != null) {
+            // 조회 도중 저장되었거나, 다른 스레드가 먼저 넣었다.
+            return;
+        }
+        if (size >= maximumSize) {
+            Entry victim = selectVictim();
+            if (sketch.frequency(key) <= sketch.frequency(victim.key)) {
+                rejections.increment();
+                return;
+            }
+            popClock();
+            victim.removed = true;
+            cache.remove(victim.key);
+            size--;
+            evictions.increment();
+        }
+        Entry entry = new Entry(key, member);
+        cache.put(key, entry);
+        pushClock(entry);
+        size++;
+    }
+
+    /**
+     * CLOCK: 최근에 참조된 항목은 참조 표시를 지우고 뒤로 보낸다. 희생자는 clock 맨 앞에 남겨 둔다.
+     */
+    private Entry selectVictim() {
+        while (true) {
+            Entry head = clock[clockHead];
+            if (head.removed) {
+                popClock();
+            } else if (head.referenced) {
+                head.referenced = false;
+                popClock();
+                pushClock(head);
+            } else {
+                return head;
+            }
+        }
+    }
+
+    private void popClock() {
+        clock[clockHead] = null;
+        clockHead = (clockHead + 1) % clock.length;
+        clockCount--;
+    }
+
+    private void pushClock(Entry entry) {
+        if (clockCount == clock.length) {
+            compactClock();
+        }
+        clock[(clockHead + clockCount) % clock.length] = entry;
+        clockCount++;
+    }
+
+    /**
+     * 무효화된 항목이 clock 에 쌓여 가득 찼을 때 정리한다. (살아 있는 항목은 maximumSize 개 이하)
+     */
+    private void compactClock() {
+        int live = 0;
+        Entry[] entries = new Entry[clock.length];
+        for (int i = 0; i < clockCount; i++) {
+            Entry entry = clock[(clockHead + i) % clock.length];
+            if (!entry.removed) {
+                entries[live++] = entry;
+            }
+        }
+        System.arraycopy(entries, 0, clock, 0, clock.length);
+        clockHead = 0;
+        clockCount = live;
+    }
+
+    private static int versionStripe(long key) {
+        return (int) (key ^ (key >>> 32)) & (VERSION_STRIPES - 1);
+    }
+
+    private static final class Entry {
+        private final long key;
+        private final Member member;
+        private volatile boolean referenced;
+        private boolean removed;
+
+        Entry(long key, Member member) {
+            this.key = key;
+            this.member = member;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package hello.core.member;
+
+import hello.core.common.ConcurrentLongMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 여러 요청 스레드(Tomcat worker)가 동시에 join/createOrder 를 호출해도 안전한 회원 저장소.
+ * MemoryMemberRepository 는 static HashMap 을 써서 동시 쓰기에 안전하지 않고 id를 매번 박싱한다.
+ * 여기서는 long 키 전용 lock-striped 맵(ConcurrentLongMap)에 저장한다.
+ * 저장소 상태는 인스턴스마다 따로 가진다.
+ */
+public class ConcurrentMemberRepository implements MemberRepository {
+
+    private final ConcurrentLongMap<Member> store;
+
+    public ConcurrentMemberRepository() {
+        this.store = new ConcurrentLongMap<>();
+    }
+
+    public ConcurrentMemberRepository(int stripeCount, int initialStripeCapacity) {
+        this.store = new ConcurrentLongMap<>(stripeCount, initialStripeCapacity);
+    }
+
+    @Override
+    public void save(Member member) {
+        store.put(member.getId(), member);
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
+        return store.get(memberId);
+    }
+
+    @Override
+    public void saveAll(Collection<Member> members) {
+        long[] ids = new long[members.size()];
+        Member[] values = new Member[ids.length];
+        int i = 0;
+        for (Member member : members) {
+            ids[i] = member.getId();
+            values[i++] = member;
+        }
+        store.putAll(ids, values);
+    }
+
+    @Override
+    public List<Member> findAllById(long[] memberIds) {
+        // 조회는 낙관적 읽기라서 락을 묶을 필요가 없다. 박싱만 피한다.
+        List<Member> members = new ArrayList<>(memberIds.length);
+        for (long memberId : memberIds) {
+            members.add(store.get(memberId));
+        }
+        return members;
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        return store.get(memberId);
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public void forEach(Consumer<? super Member> action) {
+        store.forEach((id, member) -> action.accept(member));
+    }
+}
@@ -0,0 +1,182 @@
+package hello.core.member;
+
+import hello.core.common.ConcurrentBitmap;
+import hello.core.common.ConcurrentLongMap;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * 다른 MemberRepository 를 감싸서 저장할 때 보조 인덱스를 함께 관리하는 저장소.
+ * - 등급 인덱스 : 회원마다 고정된 slot 번호를 주고, 등급별 비트맵에 slot 비트를 켠다.
+ * - 이름 prefix 인덱스 : (이름, id) 순으로 정렬된 skip list
+ *
+ * 조회 결과는 Stream 으로 돌려주며, 소비하는 만큼만 원본 저장소에서 회원을 꺼내 온다. (전체 결과를 메모리에 모으지 않음)
+ * 순회 도중 저장된 변경은 보일 수도, 안 보일 수도 있다. 다만 조건에 맞지 않게 된 회원은 걸러서 반환한다.
+ * 인덱스 갱신은 이 저장소를 통해 save 된 회원에만 반영된다.
+ */
+public class IndexedMemberRepository implements MemberRepository {
+
+    private static final int SLOT_CHUNK = 1 << 14;
+    private static final Comparator<NameKey> NAME_ORDER =
+            Comparator.comparing((NameKey key) -> key.name).thenComparingLong(key -> key.id);
+
+    private final MemberRepository delegate;
+    private final ConcurrentLongMap<IndexEntry> entries = new ConcurrentLongMap<>();
+    private final ConcurrentBitmap[] gradeIndex;
+    private final ConcurrentSkipListSet<NameKey> nameIndex = new ConcurrentSkipListSet<>(NAME_ORDER);
+
+    // slot -> 회원 id. 쓰기는 락 안에서, 읽기는 비트맵의 비트(volatile)를 본 뒤에 하므로 값이 보장된다.
+    private volatile long[][] slotIds = new long[0][];
+    private int nextSlot;
+
+    public IndexedMemberRepository(MemberRepository delegate) {
+        this.delegate = delegate;
+        this.gradeIndex = new ConcurrentBitmap[Grade.values().length];
+        for (int i = 0; i < gradeIndex.length; i++) {
+            gradeIndex[i] = new ConcurrentBitmap();
+        }
+    }
+
+    /**
+     * 같은 id 를 동시에 저장하면 원본 저장소와 인덱스에 반영되는 순서가 다를 수 있으므로,
+     * 인덱스에는 넘겨 받은 값이 아니라 락 안에서 원본 저장소를 다시 읽은 값을 반영한다.
+     * 마지막으로 인덱스를 갱신하는 스레드는 모든 저장이 끝난 뒤의 값을 보게 된다.
+     */
+    @Override
+    public void save(Member member) {
+        delegate.save(member);
+        synchronized (this) {
+            updateIndex(member.getId());
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Member> members) {
+        delegate.saveAll(members);
+        synchronized (this) {
+            for (Member member : members) {
+                updateIndex(member.getId());
+            }
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return delegate.findById(memberId);
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        return delegate.findById(memberId);
+    }
+
+    @Override
+    public List<Member> findAllById(long[] memberIds) {
+        return delegate.findAllById(memberIds);
+    }
+
+    /**
+     * 등급이 grade 인 회원을 slot 순서대로 돌려준다.
+     */
+    public Stream<Member> findByGrade(Grade grade) {
+        return gradeIndex[grade.ordinal()].stream()
+                .mapToObj(slot -> delegate.findById(idOfSlot(slot)))
+                .filter(member -> member != null && member.getGrade() == grade);
+    }
+
+    public int countByGrade(Grade grade) {
+        return gradeIndex[grade.ordinal()].cardinality();
+    }
+
+    /**
+     * 이름이 prefix 로 시작하는 회원을 이름, id 순서대로 돌려준다.
+     */
+    public Stream<Member> findByNamePrefix(String prefix) {
+        Objects.requireNonNull(prefix, "prefix");
+        return nameIndex.tailSet(new NameKey(prefix, Long.MIN_VALUE)).stream()
+                .takeWhile(key -> key.name.startsWith(prefix))
+                .map(key -> delegate.findById(key.id))
+                .filter(member -> member != null && member.getName() != null && member.getName().startsWith(prefix));
+    }
+
+    /**
+     * 락 안에서만 호출
+     */
+    private void updateIndex(long id) {
+        Member member = delegate.findById(id);
+        if (member == null) {
+            return;
+        }
+        IndexEntry entry = entries.get(id);
+        if (entry == null) {
+            entry = new IndexEntry(allocateSlot(id));
+            entries.put(id, entry);
+        }
+
+        Grade grade = member.getGrade();
+        if (entry.grade != grade) {
+            if (entry.grade != null) {
+                gradeIndex[entry.grade.ordinal()].clear(entry.slot);
+            }
+            if (grade != null) {
+                gradeIndex[grade.ordinal()].set(entry.slot);
+            }
+            entry.grade = grade;
+        }
+
+        String name = member.getName();
+        if (!Objects.equals(entry.name, name)) {
+            // 새 키를 먼저 넣고 이전 키를 지워서, 동시 조회에서 회원이 잠깐 사라지지 않게 한다.
+            if (name != null) {
+                nameIndex.add(new NameKey(name, id));
+            }
+            if (entry.name != null) {
+                nameIndex.remove(new NameKey(entry.name, id));
+            }
+            entry.name = name;
+        }
+    }
+
+    private int allocateSlot(long id) {
+        int slot = nextSlot++;
+        long[][] chunks = slotIds;
+        int chunk = slot / SLOT_CHUNK;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk + 1);
+            chunks[chunk] = new long[SLOT_CHUNK];
+        }
+        chunks[chunk][slot % SLOT_CHUNK] = id;
+        slotIds = chunks;
+        return slot;
+    }
+
+    private long idOfSlot(int slot) {
+        return slotIds[slot / SLOT_CHUNK][slot % SLOT_CHUNK];
+    }
+
+    private static final class IndexEntry {
+        private final int slot;
+        private Grade grade;
+        private String name;
+
+        IndexEntry(int slot) {
+            this.slot = slot;
+        }
+    }
+
+    private static final class NameKey {
+        private final String name;
+        private final long id;
+
+        NameKey(String name, long id) {
+            this.name = name;
+            this.id = id;
+        }
+    }
+}
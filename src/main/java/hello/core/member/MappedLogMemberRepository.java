@@ -0,0 +1,495 @@
+package hello.core.member;
+
+import hello.core.codec.MemberCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 재시작해도 회원이 사라지지 않는 저장소.
+ * save 는 memory-mapped segment 파일에 append-only 로 기록하고, 조회는 메모리 인덱스(ConcurrentMemberRepository)에서 한다.
+ *
+ * 디렉토리 구성
+ * - segment-{seq}.log  : [int 길이][int crc32][MemberCodec 형식의 회원] 레코드를 이어서 기록. 길이 0 이면 끝
+ * - snapshot-{seq}.snap : seq 보다 작은 segment 의 내용을 회원당 한 건(MemberCodec 형식)으로 압축한 스냅샷
+ *
+ * segment 가 가득 차면 다음 segment 로 넘어가고, snapshotEverySegments 개마다 스냅샷을 새로 쓰고 이전 segment 를 지운다.
+ * 스냅샷은 쓰기 락 밖의 전용 스레드에서 메모리 인덱스를 순회하며 쓰므로, 스냅샷을 쓰는 동안에도 save 는 기다리지 않는다.
+ * (인덱스의 같은 stripe 를 순회하는 짧은 동안만 그 stripe 의 갱신이 기다린다)
+ * 순회 중에 저장된 (스냅샷 번호 이후 segment 의) 회원이 섞여 들어갈 수 있지만, 시작할 때 그 segment 를 순서대로 다시 재생하므로 결과는 같다.
+ * 시작할 때는 가장 최근 스냅샷을 읽고 그 뒤의 segment(tail)만 재생하므로, 재시작 시간은 전체 이력이 아니라 tail 크기에 비례한다.
+ *
+ * 기록은 mapped buffer(page cache)까지만 하고, segment 를 넘길 때와 flush/close 에서 디스크에 force 한다.
+ */
+public class MappedLogMemberRepository implements MemberRepository, Closeable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final int DEFAULT_SNAPSHOT_EVERY_SEGMENTS = 4;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final long SNAPSHOT_MAGIC = 0x4D454D4245525331L;
+    private static final int RECORD_HEADER = Integer.BYTES + Integer.BYTES;
+    private static final int SNAPSHOT_BUFFER_SIZE = 128 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int snapshotEverySegments;
+    private final ConcurrentMemberRepository index = new ConcurrentMemberRepository();
+    private final CRC32 crc = new CRC32();
+
+    private final ExecutorService snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 자동 스냅샷이 대기 중이거나 쓰는 중이면 true. 그동안 segment 를 더 넘겨도 스냅샷을 또 예약하지 않는다.
+    private final AtomicBoolean snapshotPending = new AtomicBoolean();
+
+    private long segmentSeq;
+    // 스냅샷 스레드가 바꾸고 쓰기 락 안에서 읽는다.
+    private volatile long snapshotSeq;
+    private volatile Exception lastSnapshotFailure;
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+
+    private long recoveryNanos;
+    private long replayedRecords;
+    private int snapshotMembers;
+
+    public MappedLogMemberRepository(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_SNAPSHOT_EVERY_SEGMENTS);
+    }
+
+    public MappedLogMemberRepository(Path directory, int segmentSize, int snapshotEverySegments) {
+        if (snapshotEverySegments <= 0) {
+            throw new IllegalArgumentException("snapshotEverySegments 는 1 이상이어야 합니다.");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.snapshotEverySegments = snapshotEverySegments;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void save(Member member) {
+        if (needsRoll(MemberCodec.encodedLength(member))) {
+            rollSegment();
+        }
+        writeRecord(segment, member);
+        index.save(member);
+    }
+
+    /**
+     * 락은 배치 전체에 한 번 잡고, 레코드를 이어서 기록한 뒤 인덱스를 stripe 단위로 한꺼번에 갱신한다.
+     */
+    @Override
+    public void saveAll(Collection<Member> members) {
+        int[] lengths = new int[members.size()];
+        int i = 0;
+        for (Member member : members) {
+            lengths[i++] = MemberCodec.encodedLength(member);
+        }
+        synchronized (this) {
+            List<Member> pending = new ArrayList<>(members.size());
+            i = 0;
+            for (Member member : members) {
+                if (needsRoll(lengths[i++])) {
+                    // 스냅샷은 인덱스를 기준으로 만들어지므로, segment 를 넘기기 전에 지금까지 기록한 회원을 인덱스에 반영한다.
+                    index.saveAll(pending);
+                    pending.clear();
+                    rollSegment();
+                }
+                writeRecord(segment, member);
+                pending.add(member);
+            }
+            index.saveAll(pending);
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return index.findById(memberId);
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        return index.findById(memberId);
+    }
+
+    @Override
+    public List<Member> findAllById(long[] memberIds) {
+        return index.findAllById(memberIds);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * 지금까지의 내용을 스냅샷으로 압축하고, 스냅샷에 포함된 segment 를 지운다. 스냅샷이 끝날 때까지 기다린다.
+     * segment 를 넘기는 동안만 쓰기 락을 잡는다.
+     */
+    public void snapshot() {
+        long target;
+        synchronized (this) {
+            try {
+                startNextSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            target = segmentSeq;
+        }
+        Future<?> future = snapshotExecutor.submit(() -> {
+            writeSnapshot(target);
+            return null;
+        });
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 마지막으로 실패한 자동 스냅샷의 예외. 실패해도 segment 를 지우지 않으므로 데이터는 남아 있다.
+     */
+    public Exception getLastSnapshotFailure() {
+        return lastSnapshotFailure;
+    }
+
+    public synchronized void flush() {
+        segment.force();
+    }
+
+    /**
+     * 진행 중인 스냅샷이 끝나기를 기다린 뒤 닫는다.
+     */
+    @Override
+    public void close() {
+        snapshotExecutor.shutdown();
+        try {
+            snapshotExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeSegment();
+    }
+
+    private synchronized void closeSegment() {
+        try {
+            segment.force();
+            segmentChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getRecoveryNanos() {
+        return recoveryNanos;
+    }
+
+    /**
+     * 시작할 때 스냅샷 이후 segment 에서 재생한 레코드 수
+     */
+    public long getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    /**
+     * 시작할 때 스냅샷에서 읽은 회원 수
+     */
+    public int getSnapshotMembers() {
+        return snapshotMembers;
+    }
+
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+        List<Long> snapshots = listSeqs(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            // 쓰다가 죽은 스냅샷은 건너뛰고 그 이전 것을 사용한다.
+            if (readSnapshot(snapshots.get(i))) {
+                snapshotSeq = snapshots.get(i);
+                break;
+            }
+        }
+
+        List<Long> segments = listSeqs(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        segmentSeq = snapshotSeq;
+        for (long seq : segments) {
+            if (seq < snapshotSeq) {
+                continue;
+            }
+            openSegment(seq);
+            replay(segment);
+            if (seq != segments.get(segments.size() - 1)) {
+                segmentChannel.close();
+            }
+        }
+        if (segment == null) {
+            openSegment(snapshotSeq);
+        }
+        deleteObsoleteFiles();
+        recoveryNanos = System.nanoTime() - start;
+    }
+
+    private void replay(ByteBuffer buffer) {
+        while (buffer.remaining() >= RECORD_HEADER) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining() || checksum != checksum(buffer, buffer.position(), length)) {
+                // 끝이거나 기록 도중 끊긴 레코드. 이 위치부터 다시 쓴다.
+                buffer.position(start);
+                return;
+            }
+            index.save(MemberCodec.read(buffer));
+            replayedRecords++;
+        }
+    }
+
+    /**
+     * 락 안에서만 호출. 다음 레코드 자리에 길이 0(끝 표시)을 쓸 공간까지 남아 있는지 확인한다.
+     */
+    private boolean needsRoll(int memberLength) {
+        int recordLength = RECORD_HEADER + memberLength;
+        if (recordLength + Integer.BYTES > segmentSize) {
+            throw new IllegalArgumentException("레코드가 segment 크기보다 큽니다.");
+        }
+        return segment.remaining() < recordLength + Integer.BYTES;
+    }
+
+    private void writeRecord(ByteBuffer buffer, Member member) {
+        int start = buffer.position();
+        buffer.position(start + RECORD_HEADER);
+        int length = MemberCodec.write(buffer, member);
+        int end = buffer.position();
+        buffer.putInt(start + Integer.BYTES, checksum(buffer, start + RECORD_HEADER, length));
+        // 다음 자리에 끝 표시를 먼저 쓰고 길이를 마지막에 써서, 중간에 끊긴 레코드는 길이 0 또는 crc 불일치로 보이게 한다.
+        buffer.putInt(end, 0);
+        buffer.putInt(start, length);
+    }
+
+    private int checksum(ByteBuffer buffer, int position, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(position).limit(position + length);
+        crc.reset();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 락 안에서만 호출. 스냅샷이 필요하면 스냅샷 스레드에 맡기고 바로 돌아간다.
+     */
+    private void rollSegment() {
+        try {
+            startNextSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (segmentSeq - snapshotSeq >= snapshotEverySegments && snapshotPending.compareAndSet(false, true)) {
+            long target = segmentSeq;
+            snapshotExecutor.execute(() -> {
+                try {
+                    writeSnapshot(target);
+                } catch (IOException | RuntimeException e) {
+                    lastSnapshotFailure = e;
+                } finally {
+                    snapshotPending.set(false);
+                }
+            });
+        }
+    }
+
+    private void startNextSegment() throws IOException {
+        segment.force();
+        segmentChannel.close();
+        openSegment(segmentSeq + 1);
+    }
+
+    private void openSegment(long seq) throws IOException {
+        segmentSeq = seq;
+        segmentChannel = FileChannel.open(segmentPath(seq),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    /**
+     * target 이전 segment 의 모든 내용을 target 번호의 스냅샷으로 쓴다. 스냅샷 스레드에서만 호출한다.
+     * target 으로 넘어가기 전에 기록한 회원은 모두 인덱스에 있으므로 인덱스를 (락 없이) 순회해서 쓴다.
+     * 임시 파일에 쓰고 원자적으로 이름을 바꾼 뒤 디렉토리까지 fsync 하므로, 중간에 죽어도 이전 스냅샷은 그대로 남는다.
+     */
+    private void writeSnapshot(long target) throws IOException {
+        if (target <= snapshotSeq) {
+            return;
+        }
+        Path temp = directory.resolve(SNAPSHOT_PREFIX + "tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BUFFER_SIZE);
+            buffer.putLong(SNAPSHOT_MAGIC);
+            // 순회하는 동안에도 회원이 늘 수 있으므로 회원 수는 다 쓴 뒤에 채운다.
+            buffer.putInt(0);
+            IOException[] failure = new IOException[1];
+            int[] count = new int[1];
+            index.forEach(member -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    if (buffer.remaining() < MemberCodec.MAX_BYTES) {
+                        writeFully(channel, buffer);
+                    }
+                    MemberCodec.write(buffer, member);
+                    count[0]++;
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            if (buffer.remaining() < Long.BYTES) {
+                writeFully(channel, buffer);
+            }
+            buffer.putLong(SNAPSHOT_MAGIC);
+            writeFully(channel, buffer);
+            buffer.putInt(count[0]).flip();
+            channel.write(buffer, Long.BYTES);
+            channel.force(true);
+        }
+        Files.move(temp, snapshotPath(target), StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory();
+        snapshotSeq = target;
+        deleteObsoleteFiles();
+    }
+
+    /**
+     * 이름 바꾸기(rename)가 디스크에 남도록 디렉토리를 fsync 한다. 디렉토리를 열 수 없는 OS(Windows)에서는 건너뛴다.
+     */
+    private void forceDirectory() throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (FileChannel ignored = channel) {
+            channel.force(true);
+        }
+    }
+
+    private boolean readSnapshot(long seq) throws IOException {
+        List<Member> members = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(snapshotPath(seq), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BUFFER_SIZE);
+            buffer.flip();
+            if (!fill(channel, buffer, Long.BYTES + Integer.BYTES) || buffer.getLong() != SNAPSHOT_MAGIC) {
+                return false;
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                if (!fill(channel, buffer, MemberCodec.FIXED_BYTES)
+                        || !fill(channel, buffer, MemberCodec.encodedLength(buffer, buffer.position()))) {
+                    return false;
+                }
+                members.add(MemberCodec.read(buffer));
+            }
+            if (!fill(channel, buffer, Long.BYTES) || buffer.getLong() != SNAPSHOT_MAGIC) {
+                return false;
+            }
+        }
+        for (Member member : members) {
+            index.save(member);
+        }
+        snapshotMembers = members.size();
+        return true;
+    }
+
+    /**
+     * 읽기 상태의 buffer 에 bytes 만큼 남도록 채운다. 파일이 먼저 끝나면 false
+     */
+    private static boolean fill(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes && channel.read(buffer) > 0) {
+            // 채울 때까지 읽는다.
+        }
+        buffer.flip();
+        return buffer.remaining() >= bytes;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void deleteObsoleteFiles() throws IOException {
+        long snapshotSeq = this.snapshotSeq;
+        for (long seq : listSeqs(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (seq < snapshotSeq) {
+                Files.deleteIfExists(segmentPath(seq));
+            }
+        }
+        for (long seq : listSeqs(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (seq < snapshotSeq) {
+                Files.deleteIfExists(snapshotPath(seq));
+            }
+        }
+    }
+
+    private List<Long> listSeqs(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(long seq) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, seq, SEGMENT_SUFFIX));
+    }
+
+    private Path snapshotPath(long seq) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, seq, SNAPSHOT_SUFFIX));
+    }
+}
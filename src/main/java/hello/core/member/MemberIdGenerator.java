@@ -0,0 +1,8 @@
+package hello.core.member;
+
+public interface MemberIdGenerator {
+    /**
+     * @return 한 번도 발급하지 않은 회원 id
+     */
+    long nextId();
+}
@@ -1,6 +1,38 @@
 package hello.core.member;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 public interface MemberRepository {
     void save(Member member);
     Member findById(Long memberId);
+
+    /**
+     * 박싱 없이 조회하는 오버로드. 기본 구현은 findById(Long) 을 호출한다.
+     */
+    default Member findById(long memberId) {
+        return findById(Long.valueOf(memberId));
+    }
+
+    /**
+     * 여러 회원을 한 번에 저장한다.
+     * 기본 구현은 save 를 반복 호출하며, 구현체는 락/인덱스 갱신/영속화 비용을 배치 단위로 묶도록 재정의한다.
+     */
+    default void saveAll(Collection<Member> members) {
+        for (Member member : members) {
+            save(member);
+        }
+    }
+
+    /**
+     * @return memberIds 와 같은 순서의 회원 목록. 없는 id 자리는 null
+     */
+    default List<Member> findAllById(long[] memberIds) {
+        List<Member> members = new ArrayList<>(memberIds.length);
+        for (long memberId : memberIds) {
+            members.add(findById(memberId));
+        }
+        return members;
+    }
 }
@@ -1,7 +1,18 @@
 package hello.core.member;
 
+import java.util.Collection;
+
 public interface MemberService {
+    /**
+     * id 가 없는 회원은 MemberIdGenerator 로 발급한 id(1 부터)를 채워서 가입시킨다.
+     * 직접 정한 id(MemberApp, OrderApp 의 1L 등)와 같은 번호 공간이라 섞어 쓰면 발급한 id 가 기존 회원을 덮어쓸 수 있다.
+     */
     void join(Member member);
 
+    /**
+     * 여러 회원을 한 번에 가입시킨다. (야간 동기화 등 대량 처리용)
+     */
+    void joinAll(Collection<Member> members);
+
     Member findMember(Long memberId);
 }
@@ -3,30 +3,56 @@ package hello.core.member;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+
 @Component
 public class MemberServiceImpl implements MemberService{
     private final MemberRepository memberRepository;
+    private final MemberIdGenerator memberIdGenerator;
     /*
        MemberServiceImpl은 MemoryMemberRepository를 의존하지 않는다.
        단지 MemberREpository 인터페이스만 의존하는것이다. 어떤 구현 객체를 주입할지는
        오직 외부에서 결정된다.(AppConfig)
        이로써 관심사가 분리되었고 DIP가 완성되었다.
     * */
-    @Autowired // 의존관계 주입
     public MemberServiceImpl(MemberRepository memberRepository) {
+        this(memberRepository, new BlockMemberIdGenerator());
+    }
+
+    @Autowired // 의존관계 주입
+    public MemberServiceImpl(MemberRepository memberRepository, MemberIdGenerator memberIdGenerator) {
         this.memberRepository = memberRepository;
+        this.memberIdGenerator = memberIdGenerator;
     }
 
+    /**
+     * id 가 없는 회원은 서버에서 id 를 발급해서 채운다.
+     */
     @Override
     public void join(Member member) {
+        assignId(member);
         memberRepository.save(member);
     }
 
+    @Override
+    public void joinAll(Collection<Member> members) {
+        for (Member member : members) {
+            assignId(member);
+        }
+        memberRepository.saveAll(members);
+    }
+
     @Override
     public Member findMember(Long memberId) {
         return memberRepository.findById(memberId);
     }
 
+    private void assignId(Member member) {
+        if (member.getId() == null) {
+            member.setId(memberIdGenerator.nextId());
+        }
+    }
+
     // 테스트용도
     public MemberRepository getMemberRepository() {
         return memberRepository;
@@ -0,0 +1,290 @@
+package hello.core.member;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 회원 데이터를 힙 밖(direct ByteBuffer)에 컬럼 단위로 저장하는 저장소.
+ * 회원마다 Member 객체(Long id, String name, Grade 참조)를 두지 않으므로 수천만 명을 올려도 힙과 GC 부담이 늘지 않는다.
+ *
+ * 컬럼 구성 (row 번호로 접근)
+ * - ids      : long  (8 byte)
+ * - grades   : byte  (1 byte, Grade.ordinal(), null 이면 -1)
+ * - nameRefs : long  (8 byte, 상위 32비트 = name page 번호, 하위 32비트 = page 안의 위치)
+ * - names    : page 단위 direct buffer 에 [short 길이][UTF-8 바이트] 로 이어서 기록
+ * - index    : open addressing 해시 테이블, 슬롯마다 row + 1 을 int 로 저장 (0 = 빈 슬롯)
+ *
+ * findById 가 호출될 때만 Member 를 만들어 반환한다. 반환된 Member 를 수정해도 저장소에는 반영되지 않는다. (다시 save 해야 함)
+ * 같은 id 로 다시 save 하면 이전 이름 바이트는 재사용하지 않고 남는다. (wastedNameBytes 로 확인)
+ * 용량은 생성 시점에 고정되며, 실행 시 -XX:MaxDirectMemorySize 를 용량에 맞게 잡아 주어야 한다.
+ */
+public class OffHeapMemberRepository implements MemberRepository {
+
+    public static final int MAX_CAPACITY = 1 << 26;
+    private static final int DEFAULT_NAME_PAGE_SIZE = 16 * 1024 * 1024;
+    private static final int NULL_NAME = 0xFFFF;
+    private static final int MAX_NAME_BYTES = NULL_NAME - 1;
+    private static final Grade[] GRADES = Grade.values();
+
+    private final int capacity;
+    private final int namePageSize;
+    private final ByteBuffer ids;
+    private final ByteBuffer grades;
+    private final ByteBuffer nameRefs;
+    private final ByteBuffer index;
+    private final int indexMask;
+    private final List<ByteBuffer> namePages = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private long nameBytes;
+    private long wastedNameBytes;
+
+    public OffHeapMemberRepository(int capacity) {
+        this(capacity, DEFAULT_NAME_PAGE_SIZE);
+    }
+
+    public OffHeapMemberRepository(int capacity, int namePageSize) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity 는 1 ~ " + MAX_CAPACITY + " 사이여야 합니다. capacity=" + capacity);
+        }
+        if (namePageSize < 2 + MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("namePageSize 가 너무 작습니다. namePageSize=" + namePageSize);
+        }
+        this.capacity = capacity;
+        this.namePageSize = namePageSize;
+        this.ids = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        this.grades = ByteBuffer.allocateDirect(capacity);
+        this.nameRefs = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        // load factor 0.5 이하가 되도록 슬롯 수를 잡는다.
+        int slots = Integer.highestOneBit(capacity) << 2;
+        this.index = ByteBuffer.allocateDirect(slots * Integer.BYTES);
+        this.indexMask = slots - 1;
+        namePages.add(ByteBuffer.allocateDirect(namePageSize));
+    }
+
+    @Override
+    public void save(Member member) {
+        long id = member.getId();
+        byte[] name = encodeName(member.getName());
+        byte grade = gradeOf(member);
+
+        lock.writeLock().lock();
+        try {
+            write(id, grade, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 이름 인코딩은 락 밖에서 끝내고, 쓰기 락은 배치 전체에 한 번만 잡는다.
+     */
+    @Override
+    public void saveAll(Collection<Member> members) {
+        long[] memberIds = new long[members.size()];
+        byte[] memberGrades = new byte[memberIds.length];
+        byte[][] names = new byte[memberIds.length][];
+        int i = 0;
+        for (Member member : members) {
+            memberIds[i] = member.getId();
+            memberGrades[i] = gradeOf(member);
+            names[i++] = encodeName(member.getName());
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (i = 0; i < memberIds.length; i++) {
+                write(memberIds[i], memberGrades[i], names[i]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
+        return findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        lock.readLock().lock();
+        try {
+            return read(memberId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Member> findAllById(long[] memberIds) {
+        List<Member> members = new ArrayList<>(memberIds.length);
+        lock.readLock().lock();
+        try {
+            for (long memberId : memberIds) {
+                members.add(read(memberId));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return members;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 실제로 사용 중인 off-heap 바이트 수 (컬럼 + 인덱스 + 이름)
+     */
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) size * (Long.BYTES + 1 + Long.BYTES) + index.capacity() + nameBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 미리 확보해 둔 off-heap 바이트 수
+     */
+    public long reservedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) ids.capacity() + grades.capacity() + nameRefs.capacity() + index.capacity()
+                    + (long) namePages.size() * namePageSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 회원 한 명당 사용하는 off-heap 바이트 수. 비어 있으면 0
+     */
+    public double bytesPerMember() {
+        int currentSize = size();
+        return currentSize == 0 ? 0 : (double) usedBytes() / currentSize;
+    }
+
+    public long wastedNameBytes() {
+        lock.readLock().lock();
+        try {
+            return wastedNameBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static byte gradeOf(Member member) {
+        return member.getGrade() == null ? -1 : (byte) member.getGrade().ordinal();
+    }
+
+    /**
+     * 쓰기 락 안에서만 호출
+     */
+    private void write(long id, byte grade, byte[] name) {
+        int slot = slotOf(id);
+        int row = index.getInt(slot * Integer.BYTES) - 1;
+        if (row < 0) {
+            if (size == capacity) {
+                throw new IllegalStateException("저장소 용량을 초과했습니다. capacity=" + capacity);
+            }
+            row = size++;
+            ids.putLong(row * Long.BYTES, id);
+            index.putInt(slot * Integer.BYTES, row + 1);
+        } else {
+            wastedNameBytes += storedNameBytes(nameRefs.getLong(row * Long.BYTES));
+        }
+        grades.put(row, grade);
+        nameRefs.putLong(row * Long.BYTES, appendName(name));
+    }
+
+    /**
+     * 읽기 락 안에서만 호출
+     */
+    private Member read(long id) {
+        int row = index.getInt(slotOf(id) * Integer.BYTES) - 1;
+        if (row < 0) {
+            return null;
+        }
+        byte grade = grades.get(row);
+        return new Member(id, readName(nameRefs.getLong(row * Long.BYTES)), grade < 0 ? null : GRADES[grade]);
+    }
+
+    /**
+     * 쓰기/읽기 락 안에서만 호출. id 가 있으면 그 슬롯, 없으면 들어갈 빈 슬롯을 반환한다.
+     */
+    private int slotOf(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h ^ (h >>> 32)) & indexMask;
+        while (true) {
+            int row = index.getInt(slot * Integer.BYTES) - 1;
+            if (row < 0 || ids.getLong(row * Long.BYTES) == id) {
+                return slot;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+    }
+
+    private static byte[] encodeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("이름이 너무 깁니다. bytes=" + bytes.length);
+        }
+        return bytes;
+    }
+
+    private long appendName(byte[] name) {
+        int length = name == null ? 0 : name.length;
+        ByteBuffer page = namePages.get(namePages.size() - 1);
+        if (page.remaining() < Short.BYTES + length) {
+            page = ByteBuffer.allocateDirect(namePageSize);
+            namePages.add(page);
+        }
+        int position = page.position();
+        page.putShort((short) (name == null ? NULL_NAME : length));
+        if (name != null) {
+            page.put(name);
+        }
+        nameBytes += Short.BYTES + length;
+        return ((long) (namePages.size() - 1) << 32) | position;
+    }
+
+    private int storedNameBytes(long ref) {
+        int length = Short.toUnsignedInt(namePages.get((int) (ref >>> 32)).getShort((int) ref));
+        return Short.BYTES + (length == NULL_NAME ? 0 : length);
+    }
+
+    private String readName(long ref) {
+        ByteBuffer page = namePages.get((int) (ref >>> 32));
+        int position = (int) ref;
+        int length = Short.toUnsignedInt(page.getShort(position));
+        if (length == NULL_NAME) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        // 절대 위치로 읽기 위해 duplicate 를 사용한다. (여러 읽기 스레드가 position 을 공유하지 않도록)
+        ByteBuffer view = page.duplicate();
+        view.position(position + Short.BYTES);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,206 @@
+package hello.core.order;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 멱등 키(idempotency key)별로 처음 만든 주문을 기억해서, 같은 키로 다시 들어온 요청에 그 주문을 그대로 돌려준다.
+ *
+ * - 키 공간을 여러 stripe 로 나누고, stripe 마다 락 하나와 삽입 순서 LinkedHashMap 을 둔다.
+ * - stripe 마다 maxSize / stripe 수 만큼만 보관하고, 넘치면 가장 오래된 키부터 버린다. 키가 아무리 많이 들어와도 크기는 고정이다.
+ * - 모든 키의 유효 시간(ttl)이 같으므로 삽입 순서가 곧 만료 순서다. 만료된 키는 stripe 앞쪽에서부터 정리한다.
+ * - 처음 요청이 아직 처리 중일 때 같은 키가 들어오면 다시 만들지 않고 처음 요청의 결과를 기다린다.
+ *   처음 요청이 실패하면 키를 지워서 다음 재시도가 새로 처리할 수 있게 한다.
+ *
+ * 키만 보고 판단하므로, 같은 키에 다른 주문 내용이 들어와도 처음 만든 주문을 돌려준다.
+ */
+public class IdempotencyCache {
+
+    public static final int DEFAULT_MAX_SIZE = 100_000;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long ttlMillis;
+    private final Clock clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public IdempotencyCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL);
+    }
+
+    public IdempotencyCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    public IdempotencyCache(int maxSize, Duration ttl, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize 는 1 이상이어야 합니다. maxSize=" + maxSize);
+        }
+        if (ttl.toMillis() <= 0) {
+            throw new IllegalArgumentException("ttl 은 1ms 이상이어야 합니다. ttl=" + ttl);
+        }
+        int stripeCapacity = Math.max(1, (maxSize + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * key 로 만든 주문이 있으면 돌려주고, 없으면 creator 로 만들어 기억한 뒤 돌려준다.
+     * creator 가 던진 예외는 그대로 전달되고, 그 키는 기억하지 않는다.
+     */
+    public Order getOrCreate(String key, Supplier<Order> creator) {
+        Stripe stripe = stripeOf(key);
+        long now = clock.millis();
+        Entry entry;
+        boolean created = false;
+        stripe.lock.lock();
+        try {
+            stripe.expire(now);
+            entry = stripe.entries.get(key);
+            if (entry == null) {
+                entry = new Entry(now + ttlMillis);
+                stripe.entries.put(key, entry);
+                created = true;
+                if (stripe.entries.size() > stripe.capacity) {
+                    stripe.evictEldest();
+                }
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (!created) {
+            hits.increment();
+            return await(entry.order);
+        }
+        misses.increment();
+        try {
+            Order order = creator.get();
+            entry.order.complete(order);
+            return order;
+        } catch (RuntimeException | Error e) {
+            stripe.remove(key, entry);
+            entry.order.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 크기 제한 때문에 만료 전에 버린 키의 수
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * 만료됐지만 아직 정리되지 않은 키도 포함한다.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeOf(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return stripes[(h >>> 28) & (STRIPES - 1)];
+    }
+
+    private static Order await(CompletableFuture<Order> order) {
+        try {
+            return order.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+        private final int capacity;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * 락 안에서만 호출
+         */
+        void expire(long now) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expireAt > now) {
+                    return;
+                }
+                iterator.remove();
+            }
+        }
+
+        /**
+         * 락 안에서만 호출
+         */
+        void evictEldest() {
+            Iterator<Entry> iterator = entries.values().iterator();
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+
+        void remove(String key, Entry entry) {
+            lock.lock();
+            try {
+                entries.remove(key, entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final long expireAt;
+        private final CompletableFuture<Order> order = new CompletableFuture<>();
+
+        Entry(long expireAt) {
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package hello.core.order;
+
+/**
+ * 한 회원의 주문 집계 (조회 시점의 값)
+ */
+public class MemberOrderStats {
+    private final long memberId;
+    private final long orderCount;
+    private final long totalItemPrice;
+    private final long totalDiscountPrice;
+
+    public MemberOrderStats(long memberId, long orderCount, long totalItemPrice, long totalDiscountPrice) {
+        this.memberId = memberId;
+        this.orderCount = orderCount;
+        this.totalItemPrice = totalItemPrice;
+        this.totalDiscountPrice = totalDiscountPrice;
+    }
+
+    public long getMemberId() {
+        return memberId;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getTotalItemPrice() {
+        return totalItemPrice;
+    }
+
+    public long getTotalDiscountPrice() {
+        return totalDiscountPrice;
+    }
+
+    public long getTotalPaidPrice() {
+        return totalItemPrice - totalDiscountPrice;
+    }
+
+    @Override
+    public String toString() {
+        return "MemberOrderStats{" +
+                "memberId=" + memberId +
+                ", orderCount=" + orderCount +
+                ", totalItemPrice=" + totalItemPrice +
+                ", totalDiscountPrice=" + totalDiscountPrice +
+                '}';
+    }
+}
@@ -0,0 +1,91 @@
+package hello.core.order;
+
+import hello.core.common.ConcurrentLongMap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 회원별 주문 수, 주문 금액 합계, 할인 금액 합계를 주문이 만들어질 때마다 누적한다.
+ * 등급 판단처럼 회원의 누적 금액이 필요한 곳에서 주문을 처음부터 다시 합산하지 않고 바로 읽는다.
+ *
+ * - 회원별 값은 ConcurrentLongMap 에 박싱 없이 두고, 각 값은 LongAdder 로 누적한다.
+ *   같은 회원의 주문이 여러 스레드에서 동시에 들어와도 한 칸(CAS)을 두고 다투지 않는다.
+ * - 한 회원의 세 값은 각각 따로 더해지므로, 누적 중에 읽으면 값 사이가 잠깐 어긋날 수 있다.
+ * - top 은 주문이 아니라 회원 수만큼만 훑고, 크기 n 의 heap 으로 상위 n 명을 고른다.
+ */
+@Component
+public class MemberSpendingAggregator {
+
+    private static final Comparator<MemberOrderStats> BY_PAID_PRICE =
+            Comparator.comparingLong(MemberOrderStats::getTotalPaidPrice)
+                    .thenComparing(Comparator.comparingLong(MemberOrderStats::getMemberId).reversed());
+
+    private final ConcurrentLongMap<Spending> spendings = new ConcurrentLongMap<>();
+
+    public void add(long memberId, int itemPrice, int discountPrice) {
+        Spending spending = spendings.computeIfAbsent(memberId, id -> new Spending());
+        spending.orderCount.increment();
+        spending.totalItemPrice.add(itemPrice);
+        spending.totalDiscountPrice.add(discountPrice);
+    }
+
+    public void add(Order order) {
+        add(order.getMemberId(), order.getItemPrice(), order.getDiscountPrice());
+    }
+
+    /**
+     * 주문이 없는 회원은 모두 0 인 집계를 돌려준다.
+     */
+    public MemberOrderStats get(long memberId) {
+        Spending spending = spendings.get(memberId);
+        if (spending == null) {
+            return new MemberOrderStats(memberId, 0, 0, 0);
+        }
+        return spending.toStats(memberId);
+    }
+
+    /**
+     * 결제 금액(주문 금액 - 할인 금액) 합계가 큰 순서로 n 명. 같으면 회원 id 가 작은 쪽이 앞선다.
+     */
+    public List<MemberOrderStats> top(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n 은 1 이상이어야 합니다. n=" + n);
+        }
+        // 가장 작은 값이 맨 위에 오는 heap 에 n 명만 남긴다.
+        PriorityQueue<MemberOrderStats> heap = new PriorityQueue<>(Math.min(n, 1024) + 1, BY_PAID_PRICE);
+        spendings.forEach((memberId, spending) -> {
+            MemberOrderStats stats = spending.toStats(memberId);
+            if (heap.size() < n) {
+                heap.add(stats);
+            } else if (BY_PAID_PRICE.compare(stats, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(stats);
+            }
+        });
+        List<MemberOrderStats> result = new ArrayList<>(heap);
+        result.sort(BY_PAID_PRICE.reversed());
+        return result;
+    }
+
+    /**
+     * 주문이 한 건 이상 있는 회원 수
+     */
+    public int memberCount() {
+        return spendings.size();
+    }
+
+    private static final class Spending {
+        private final LongAdder orderCount = new LongAdder();
+        private final LongAdder totalItemPrice = new LongAdder();
+        private final LongAdder totalDiscountPrice = new LongAdder();
+
+        MemberOrderStats toStats(long memberId) {
+            return new MemberOrderStats(memberId, orderCount.sum(), totalItemPrice.sum(), totalDiscountPrice.sum());
+        }
+    }
+}
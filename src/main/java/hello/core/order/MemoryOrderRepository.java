@@ -0,0 +1,277 @@
+package hello.core.order;
+
+import hello.core.common.ConcurrentLongMap;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 주문을 append-only 로 쌓아 두는 메모리 저장소.
+ *
+ * - 본 저장소 : CHUNK_SIZE 건 단위 chunk 에 컬럼(회원 id, 상품명 번호, 가격, 할인 금액, 저장 시각)별 배열로 이어서 기록한다.
+ *              주문마다 Order 객체를 들고 있지 않고, 조회할 때만 만든다. 상품명은 사전(dictionary)에 한 번만 둔다.
+ * - 회원 인덱스 : 회원별 주문 번호 배열 (오름차순)
+ * - 시간 인덱스 : 분(minute) 단위 bucket 마다 그 분에 처음 저장된 주문 번호
+ *
+ * 저장 시각은 감소하지 않도록 맞추므로(시계가 뒤로 가면 직전 시각을 씀) 주문 번호 순서와 시간 순서가 같다.
+ * 조회는 cursor 위치부터 limit 건만 읽어서 페이지를 만들며, 전체 결과를 복사하지 않는다.
+ */
+public class MemoryOrderRepository implements OrderRepository {
+
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final long BUCKET_MILLIS = 60_000;
+    private static final int NULL_NAME = -1;
+    private static final int INITIAL_MEMBER_ORDERS = 4;
+
+    // 주문 한 건이 컬럼에서 차지하는 크기 : memberId 8 + nameId 4 + itemPrice 4 + discountPrice 4 + createdAt 8
+    private static final int COLUMN_BYTES_PER_ORDER = 28;
+    // 배열 헤더, 객체 헤더, 참조 등 대략적인 고정 비용
+    private static final int ARRAY_OVERHEAD = 16;
+    private static final int MEMBER_INDEX_OVERHEAD = 64;
+
+    private final Clock clock;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final ConcurrentLongMap<MemberOrders> memberIndex = new ConcurrentLongMap<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    private long size;
+    private long lastCreatedAt = Long.MIN_VALUE;
+    private long baseBucket;
+    private long[] bucketFirstOrder = new long[0];
+    private int bucketCount;
+    private long memberIndexBytes;
+    private long nameBytes;
+
+    public MemoryOrderRepository() {
+        this(Clock.systemUTC());
+    }
+
+    public MemoryOrderRepository(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public long save(Order order) {
+        lock.writeLock().lock();
+        try {
+            long orderId = size;
+            int offset = (int) (orderId & CHUNK_MASK);
+            if (offset == 0) {
+                chunks.add(new Chunk());
+            }
+            Chunk chunk = chunks.get(chunks.size() - 1);
+            long createdAt = Math.max(clock.millis(), lastCreatedAt);
+            chunk.memberIds[offset] = order.getMemberId();
+            chunk.nameIds[offset] = nameIdOf(order.getItemName());
+            chunk.itemPrices[offset] = order.getItemPrice();
+            chunk.discountPrices[offset] = order.getDiscountPrice();
+            chunk.createdAt[offset] = createdAt;
+
+            indexMember(order.getMemberId(), orderId);
+            indexTime(createdAt, orderId);
+            lastCreatedAt = createdAt;
+            size++;
+            return orderId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Order findById(long orderId) {
+        lock.readLock().lock();
+        try {
+            return orderId >= 0 && orderId < size ? orderAt(orderId) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public OrderPage findByMemberId(long memberId, long cursor, int limit) {
+        checkLimit(limit);
+        lock.readLock().lock();
+        try {
+            MemberOrders memberOrders = memberIndex.get(memberId);
+            if (memberOrders == null) {
+                return new OrderPage(new ArrayList<>(), cursor, false);
+            }
+            int from = Arrays.binarySearch(memberOrders.orderIds, 0, memberOrders.size, cursor);
+            if (from < 0) {
+                from = -from - 1;
+            }
+            int to = (int) Math.min((long) from + limit, memberOrders.size);
+            List<Order> orders = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                orders.add(orderAt(memberOrders.orderIds[i]));
+            }
+            long nextCursor = to == from ? cursor : memberOrders.orderIds[to - 1] + 1;
+            return new OrderPage(orders, nextCursor, to < memberOrders.size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public OrderPage findByCreatedAt(long fromEpochMilli, long toEpochMilli, long cursor, int limit) {
+        checkLimit(limit);
+        lock.readLock().lock();
+        try {
+            long orderId = Math.max(cursor, firstOrderAtOrAfter(fromEpochMilli));
+            List<Order> orders = new ArrayList<>(Math.min(limit, 1024));
+            while (orderId < size && orders.size() < limit) {
+                long createdAt = createdAtOf(orderId);
+                if (createdAt >= toEpochMilli) {
+                    break;
+                }
+                if (createdAt >= fromEpochMilli) {
+                    orders.add(orderAt(orderId));
+                }
+                orderId++;
+            }
+            boolean hasNext = orderId < size && createdAtOf(orderId) < toEpochMilli;
+            return new OrderPage(orders, orderId, hasNext);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 컬럼, 인덱스, 상품명 사전이 차지하는 메모리 추정치 (byte)
+     */
+    public long memoryUsage() {
+        lock.readLock().lock();
+        try {
+            long columnBytes = (long) chunks.size() * (CHUNK_SIZE * COLUMN_BYTES_PER_ORDER + 5 * ARRAY_OVERHEAD);
+            long bucketBytes = (long) bucketFirstOrder.length * Long.BYTES + ARRAY_OVERHEAD;
+            return columnBytes + memberIndexBytes + bucketBytes + nameBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 주문 한 건당 평균 메모리 (byte)
+     */
+    public double bytesPerOrder() {
+        long count = size();
+        return count == 0 ? 0 : (double) memoryUsage() / count;
+    }
+
+    /**
+     * 쓰기 락 안에서만 호출
+     */
+    private int nameIdOf(String name) {
+        if (name == null) {
+            return NULL_NAME;
+        }
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = names.size();
+            nameIds.put(name, id);
+            names.add(name);
+            // String 객체 + 값 배열 + HashMap 엔트리 + 리스트 참조의 대략적인 크기
+            nameBytes += 40 + name.length() * 2L + 48 + 8;
+        }
+        return id;
+    }
+
+    /**
+     * 쓰기 락 안에서만 호출
+     */
+    private void indexMember(long memberId, long orderId) {
+        MemberOrders memberOrders = memberIndex.get(memberId);
+        if (memberOrders == null) {
+            memberOrders = new MemberOrders();
+            memberIndex.put(memberId, memberOrders);
+            memberIndexBytes += MEMBER_INDEX_OVERHEAD + ARRAY_OVERHEAD + INITIAL_MEMBER_ORDERS * Long.BYTES;
+        }
+        if (memberOrders.size == memberOrders.orderIds.length) {
+            int grown = memberOrders.orderIds.length * 2;
+            memberIndexBytes += (long) (grown - memberOrders.orderIds.length) * Long.BYTES;
+            memberOrders.orderIds = Arrays.copyOf(memberOrders.orderIds, grown);
+        }
+        memberOrders.orderIds[memberOrders.size++] = orderId;
+    }
+
+    /**
+     * 쓰기 락 안에서만 호출. 주문이 없는 분(minute)의 bucket 은 다음 주문 번호를 가리킨다.
+     */
+    private void indexTime(long createdAt, long orderId) {
+        long bucket = Math.floorDiv(createdAt, BUCKET_MILLIS);
+        if (bucketCount == 0) {
+            baseBucket = bucket;
+        }
+        int index = (int) (bucket - baseBucket);
+        if (index >= bucketFirstOrder.length) {
+            bucketFirstOrder = Arrays.copyOf(bucketFirstOrder, Math.max(index + 1, bucketFirstOrder.length * 2));
+        }
+        while (bucketCount <= index) {
+            bucketFirstOrder[bucketCount++] = orderId;
+        }
+    }
+
+    /**
+     * 읽기 락 안에서만 호출. time 이 속한 bucket 의 첫 주문 번호 (time 이전 주문이 섞여 있을 수 있음)
+     */
+    private long firstOrderAtOrAfter(long time) {
+        if (bucketCount == 0) {
+            return size;
+        }
+        long index = Math.floorDiv(time, BUCKET_MILLIS) - baseBucket;
+        if (index < 0) {
+            return 0;
+        }
+        return index >= bucketCount ? size : bucketFirstOrder[(int) index];
+    }
+
+    private long createdAtOf(long orderId) {
+        return chunks.get((int) (orderId >>> CHUNK_SHIFT)).createdAt[(int) (orderId & CHUNK_MASK)];
+    }
+
+    private Order orderAt(long orderId) {
+        Chunk chunk = chunks.get((int) (orderId >>> CHUNK_SHIFT));
+        int offset = (int) (orderId & CHUNK_MASK);
+        int nameId = chunk.nameIds[offset];
+        return new Order(chunk.memberIds[offset], nameId == NULL_NAME ? null : names.get(nameId),
+                chunk.itemPrices[offset], chunk.discountPrices[offset]);
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit 은 1 이상이어야 합니다. limit=" + limit);
+        }
+    }
+
+    private static final class Chunk {
+        private final long[] memberIds = new long[CHUNK_SIZE];
+        private final int[] nameIds = new int[CHUNK_SIZE];
+        private final int[] itemPrices = new int[CHUNK_SIZE];
+        private final int[] discountPrices = new int[CHUNK_SIZE];
+        private final long[] createdAt = new long[CHUNK_SIZE];
+    }
+
+    private static final class MemberOrders {
+        private long[] orderIds = new long[INITIAL_MEMBER_ORDERS];
+        private int size;
+    }
+}
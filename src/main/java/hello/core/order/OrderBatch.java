@@ -0,0 +1,58 @@
+package hello.core.order;
+
+/**
+ * createOrders 의 결과. 주문마다 Order 객체를 만들지 않고 필드별 배열로 들고 있는다.
+ * i 번째 주문은 요청의 i 번째 항목에 대응한다. 필요하면 toOrder(i) 로 Order 를 만든다.
+ */
+public class OrderBatch {
+    private final long[] memberIds;
+    private final String[] itemNames;
+    private final int[] itemPrices;
+    private final int[] discountPrices;
+
+    public OrderBatch(long[] memberIds, String[] itemNames, int[] itemPrices, int[] discountPrices) {
+        this.memberIds = memberIds;
+        this.itemNames = itemNames;
+        this.itemPrices = itemPrices;
+        this.discountPrices = discountPrices;
+    }
+
+    public int size() {
+        return memberIds.length;
+    }
+
+    public long getMemberId(int index) {
+        return memberIds[index];
+    }
+
+    public String getItemName(int index) {
+        return itemNames[index];
+    }
+
+    public int getItemPrice(int index) {
+        return itemPrices[index];
+    }
+
+    public int getDiscountPrice(int index) {
+        return discountPrices[index];
+    }
+
+    public int calculatePrice(int index) {
+        return itemPrices[index] - discountPrices[index];
+    }
+
+    /**
+     * 배치 전체의 결제 금액 합계
+     */
+    public long totalPrice() {
+        long total = 0;
+        for (int i = 0; i < itemPrices.length; i++) {
+            total += itemPrices[i] - discountPrices[i];
+        }
+        return total;
+    }
+
+    public Order toOrder(int index) {
+        return new Order(memberIds[index], itemNames[index], itemPrices[index], discountPrices[index]);
+    }
+}
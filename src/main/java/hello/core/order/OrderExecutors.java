@@ -0,0 +1,71 @@
+package hello.core.order;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * createOrderAsync 에 넘길 executor 를 만든다.
+ * - bounded : 스레드 수와 대기열 크기가 정해진 풀. 대기열이 가득 차면 주문을 거절(RejectedExecutionException)한다.
+ * - virtual : 작업마다 가상 스레드. 가상 스레드가 없는 런타임(Java 21 미만)에서는 bounded 로 대신한다.
+ */
+public final class OrderExecutors {
+
+    public static final String BOUNDED = "bounded";
+    public static final String VIRTUAL = "virtual";
+
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadFactoryMethod();
+
+    private OrderExecutors() {
+    }
+
+    public static ExecutorService create(String type, int threads, int queueCapacity) {
+        if (VIRTUAL.equals(type)) {
+            return virtualThreadsSupported() ? virtualThreads() : boundedPool(threads, queueCapacity);
+        }
+        if (BOUNDED.equals(type)) {
+            return boundedPool(threads, queueCapacity);
+        }
+        throw new IllegalArgumentException("알 수 없는 executor 종류입니다. type=" + type);
+    }
+
+    public static ExecutorService boundedPool(int threads, int queueCapacity) {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "order-async-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public static boolean virtualThreadsSupported() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    public static ExecutorService virtualThreads() {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR == null) {
+            throw new UnsupportedOperationException("이 런타임은 가상 스레드를 지원하지 않습니다. java=" + Runtime.version());
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Method findVirtualThreadFactoryMethod() {
+        // 컴파일 기준은 Java 11 이라서 리플렉션으로 찾는다.
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
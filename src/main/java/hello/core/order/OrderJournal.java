@@ -0,0 +1,381 @@
+package hello.core.order;
+
+import hello.core.codec.OrderCodec;
+import hello.core.codec.OrderFlyweight;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 생성된 주문을 파일 끝에 이어서 기록하는 저널. 재시작 후 replay 로 주문을 다시 읽을 수 있다.
+ * 레코드 : [int 길이][int crc32][OrderCodec 형식의 주문]
+ *
+ * 여러 스레드의 append 를 전용 writer 스레드 하나가 모아서 한 번에 쓴다. (group commit)
+ * 기록이 끝난 시점에 append 가 돌려준 future 가 레코드의 파일 위치로 완료되며, fsync 시점은 FsyncPolicy 로 정한다.
+ * - PER_BATCH : 배치마다 force 한 뒤에 완료한다. 완료된 주문은 장애가 나도 남는다.
+ * - INTERVAL  : 쓰기만 하고 완료하며, fsyncInterval 마다 force 한다. 장애 시 최근 interval 만큼 잃을 수 있다.
+ * - NONE      : force 하지 않는다. (close 할 때만) 운영체제가 page cache 를 내려 쓸 때까지 잃을 수 있다.
+ *
+ * 열 때 끝부분의 끊긴 레코드(길이/crc 불일치)는 잘라내고 그 자리부터 이어서 쓴다.
+ */
+public class OrderJournal implements Closeable {
+
+    public enum FsyncPolicy {
+        PER_BATCH, INTERVAL, NONE
+    }
+
+    public static final Duration DEFAULT_FSYNC_INTERVAL = Duration.ofMillis(10);
+    public static final int DEFAULT_QUEUE_CAPACITY = 16 * 1024;
+
+    private static final int RECORD_HEADER = Integer.BYTES + Integer.BYTES;
+    private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+    private static final int MAX_BATCH_RECORDS = 4096;
+
+    public static final int MAX_RECORD_BYTES = RECORD_HEADER + OrderCodec.MAX_BYTES;
+
+    private final FileChannel channel;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final BlockingQueue<Pending> queue;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final Thread writer;
+
+    // append 와 close 의 경합을 막는다. close 이후에 들어온 레코드가 완료되지 않은 채 남지 않게 한다.
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private long position;
+    private long lastForceNanos = System.nanoTime();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder forces = new LongAdder();
+
+    public OrderJournal(Path file, FsyncPolicy fsyncPolicy) {
+        this(file, fsyncPolicy, DEFAULT_FSYNC_INTERVAL, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public OrderJournal(Path file, FsyncPolicy fsyncPolicy, Duration fsyncInterval, int queueCapacity) {
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        try {
+            this.channel = openForAppend(file);
+            this.position = channel.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.writer = new Thread(this::writeLoop, "order-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 주문을 기록 대기열에 넣는다. 대기열이 가득 차 있으면 자리가 날 때까지 기다린다.
+     */
+    public CompletableFuture<Long> append(Order order) {
+        Pending pending = new Pending(encode(order));
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                pending.future.completeExceptionally(new IllegalStateException("이미 닫힌 저널입니다."));
+            } else if (failure != null) {
+                pending.future.completeExceptionally(new UncheckedIOException(failure));
+            } else {
+                queue.put(pending);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(e);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return pending.future;
+    }
+
+    /**
+     * 저널 파일의 주문을 기록된 순서대로 읽는다. 끝부분의 끊긴 레코드는 무시한다.
+     *
+     * @return 읽은 주문 수
+     */
+    public static long replay(Path file, Consumer<Order> consumer) {
+        return replayInPlace(file, order -> consumer.accept(order.toOrder()));
+    }
+
+    /**
+     * replay 와 같지만 주문을 Order 로 만들지 않고 읽기 버퍼 위의 flyweight 로 넘긴다.
+     * flyweight 는 다음 레코드를 읽을 때 바뀌므로 consumer 밖으로 들고 나가지 않는다.
+     *
+     * @return 읽은 주문 수
+     */
+    public static long replayInPlace(Path file, Consumer<OrderFlyweight> consumer) {
+        long[] count = {0};
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            scan(channel, order -> {
+                consumer.accept(order);
+                count[0]++;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count[0];
+    }
+
+    public long batchCount() {
+        return batches.sum();
+    }
+
+    public long recordCount() {
+        return records.sum();
+    }
+
+    public long forceCount() {
+        return forces.sum();
+    }
+
+    /**
+     * group commit 한 번에 묶인 평균 레코드 수
+     */
+    public double averageBatchSize() {
+        long batchCount = batches.sum();
+        return batchCount == 0 ? 0 : (double) records.sum() / batchCount;
+    }
+
+    /**
+     * 대기 중인 레코드를 모두 기록하고 force 한 뒤 닫는다.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            writer.join();
+            if (failure == null) {
+                channel.force(false);
+            }
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH_RECORDS);
+        long pollNanos = fsyncPolicy == FsyncPolicy.INTERVAL ? fsyncIntervalNanos : TimeUnit.MILLISECONDS.toNanos(100);
+        while (true) {
+            Pending first;
+            try {
+                first = queue.poll(pollNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                // writer 는 close 로만 끝난다.
+                continue;
+            }
+            if (first == null) {
+                if (closed && queue.isEmpty()) {
+                    return;
+                }
+                forceIfIntervalElapsed();
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, MAX_BATCH_RECORDS - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Pending> batch) {
+        if (failure != null) {
+            fail(batch, failure);
+            return;
+        }
+        try {
+            for (Pending pending : batch) {
+                byte[] record = pending.record;
+                if (writeBuffer.remaining() < record.length) {
+                    flushWriteBuffer();
+                }
+                pending.position = position;
+                position += record.length;
+                writeBuffer.put(record);
+            }
+            flushWriteBuffer();
+            if (fsyncPolicy == FsyncPolicy.PER_BATCH) {
+                force();
+            } else {
+                forceIfIntervalElapsed();
+            }
+        } catch (IOException e) {
+            failure = e;
+            fail(batch, e);
+            return;
+        }
+        batches.increment();
+        records.add(batch.size());
+        for (Pending pending : batch) {
+            pending.future.complete(pending.position);
+        }
+    }
+
+    private void forceIfIntervalElapsed() {
+        if (fsyncPolicy != FsyncPolicy.INTERVAL || System.nanoTime() - lastForceNanos < fsyncIntervalNanos) {
+            return;
+        }
+        try {
+            force();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private void force() throws IOException {
+        channel.force(false);
+        lastForceNanos = System.nanoTime();
+        forces.increment();
+    }
+
+    private void flushWriteBuffer() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    private static void fail(List<Pending> batch, IOException e) {
+        for (Pending pending : batch) {
+            pending.future.completeExceptionally(new UncheckedIOException(e));
+        }
+    }
+
+    /**
+     * 저널 파일을 열고, 끝부분의 끊긴 레코드를 잘라낸 뒤 이어서 쓸 위치로 옮긴다.
+     * 저널을 직접 쓰는 곳(예: 주문 파이프라인의 기록 단계)에서도 사용한다.
+     */
+    public static FileChannel openForAppend(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validEnd = scan(channel, order -> { });
+        channel.truncate(validEnd);
+        channel.position(validEnd);
+        return channel;
+    }
+
+    /**
+     * buffer 의 현재 위치에 레코드 하나를 쓴다. 객체를 새로 만들지 않고 OrderCodec 으로 buffer 에 바로 인코딩한다.
+     * buffer 에는 MAX_RECORD_BYTES 이상 남아 있어야 한다.
+     *
+     * @return 기록한 바이트 수
+     */
+    public static int writeRecord(ByteBuffer buffer, long memberId, String itemName, int itemPrice, int discountPrice,
+                                  CRC32 crc) {
+        int start = buffer.position();
+        buffer.position(start + RECORD_HEADER);
+        int length;
+        try {
+            length = OrderCodec.write(buffer, memberId, itemName, itemPrice, discountPrice);
+        } catch (IllegalArgumentException e) {
+            buffer.position(start);
+            throw e;
+        }
+        int end = buffer.position();
+
+        int limit = buffer.limit();
+        buffer.position(start + RECORD_HEADER).limit(end);
+        crc.reset();
+        crc.update(buffer);
+        buffer.limit(limit).position(end);
+        buffer.putInt(start, length);
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        return end - start;
+    }
+
+    static byte[] encode(Order order) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER + OrderCodec.encodedLength(order));
+        writeRecord(buffer, order.getMemberId(), order.getItemName(), order.getItemPrice(), order.getDiscountPrice(),
+                new CRC32());
+        return buffer.array();
+    }
+
+    /**
+     * 처음부터 레코드를 읽어 consumer 에 넘기고, 마지막 정상 레코드의 끝 위치를 돌려준다.
+     */
+    private static long scan(FileChannel channel, Consumer<OrderFlyweight> consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        OrderFlyweight order = new OrderFlyweight();
+        long validEnd = 0;
+        long readPosition = 0;
+        while (true) {
+            int read = channel.read(buffer, readPosition);
+            if (read <= 0) {
+                return validEnd;
+            }
+            readPosition += read;
+            buffer.flip();
+            while (buffer.remaining() >= RECORD_HEADER) {
+                int start = buffer.position();
+                int length = buffer.getInt(start);
+                if (length <= 0 || length > WRITE_BUFFER_SIZE - RECORD_HEADER) {
+                    return validEnd;
+                }
+                if (buffer.remaining() < RECORD_HEADER + length) {
+                    break;
+                }
+                int checksum = buffer.getInt(start + Integer.BYTES);
+                if (checksum != checksum(buffer.array(), start + RECORD_HEADER, length)) {
+                    return validEnd;
+                }
+                consumer.accept(order.wrap(buffer, start + RECORD_HEADER));
+                buffer.position(start + RECORD_HEADER + length);
+                validEnd += RECORD_HEADER + length;
+            }
+            buffer.compact();
+        }
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static final class Pending {
+        private final byte[] record;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+        private long position;
+
+        Pending(byte[] record) {
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package hello.core.order;
+
+import java.util.List;
+
+/**
+ * cursor 기반 페이지. 다음 페이지는 nextCursor 를 cursor 로 넘겨서 조회한다.
+ */
+public class OrderPage {
+    private final List<Order> orders;
+    private final long nextCursor;
+    private final boolean hasNext;
+
+    public OrderPage(List<Order> orders, long nextCursor, boolean hasNext) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+}
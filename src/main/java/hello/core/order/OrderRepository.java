@@ -0,0 +1,21 @@
+package hello.core.order;
+
+public interface OrderRepository {
+
+    /**
+     * @return 저장된 순서대로 0 부터 매겨지는 주문 번호
+     */
+    long save(Order order);
+
+    Order findById(long orderId);
+
+    /**
+     * 회원의 주문을 주문 번호 순서로 cursor 부터 최대 limit 건 조회한다. 첫 페이지의 cursor 는 0 이다.
+     */
+    OrderPage findByMemberId(long memberId, long cursor, int limit);
+
+    /**
+     * 저장 시각이 [fromEpochMilli, toEpochMilli) 인 주문을 주문 번호 순서로 cursor 부터 최대 limit 건 조회한다.
+     */
+    OrderPage findByCreatedAt(long fromEpochMilli, long toEpochMilli, long cursor, int limit);
+}
@@ -1,5 +1,31 @@
 package hello.core.order;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 public interface OrderService {
     Order createOrder(Long memberId, String itemName, int itemPrice);
+
+    /**
+     * 같은 idempotencyKey 로 다시 호출하면 회원 조회와 할인 계산 없이 처음 만든 주문을 돌려준다. (재시도 중복 방지)
+     * idempotencyKey 가 null 이면 createOrder(memberId, itemName, itemPrice) 와 같다.
+     */
+    Order createOrder(Long memberId, String itemName, int itemPrice, String idempotencyKey);
+
+    /**
+     * 장바구니처럼 여러 회원의 여러 상품을 한 번에 주문한다.
+     * 세 배열은 길이가 같아야 하며, i 번째 값들이 하나의 주문 항목이다.
+     */
+    OrderBatch createOrders(long[] memberIds, String[] itemNames, int[] itemPrices);
+
+    /**
+     * 회원 조회와 할인 계산을 별도 executor 에서 처리한다. 호출한 스레드는 기다리지 않는다.
+     * 반환된 future 를 cancel 하면 아직 시작하지 않은 단계는 실행하지 않는다.
+     */
+    CompletableFuture<Order> createOrderAsync(Long memberId, String itemName, int itemPrice);
+
+    /**
+     * timeout 안에 끝나지 않으면 TimeoutException 으로 실패하고, 진행 중인 작업은 중단(interrupt)한다.
+     */
+    CompletableFuture<Order> createOrderAsync(Long memberId, String itemName, int itemPrice, Duration timeout);
 }
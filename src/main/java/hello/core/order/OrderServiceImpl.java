@@ -4,6 +4,7 @@ import hello.core.annotation.MainDiscountPolicy;
 import hello.core.discount.DiscountPolicy;
 import hello.core.discount.FixDiscountPolicy;
 import hello.core.discount.RateDiscountPolicy;
+import hello.core.discount.ShadowDiscountEvaluator;
 import hello.core.member.Member;
 import hello.core.member.MemberRepository;
 import hello.core.member.MemoryMemberRepository;
@@ -12,6 +13,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /*
 *  실행에만 집중하면 됨!
 *  생성자 주입
@@ -29,14 +43,244 @@ public class OrderServiceImpl implements OrderService {
     * */
     private final MemberRepository memberRepository;
     private final DiscountPolicy discountPolicy;
+    private Executor orderExecutor = ForkJoinPool.commonPool();
+    private OrderJournal orderJournal;
+    private OrderRepository orderRepository;
+    private MemberSpendingAggregator spendingAggregator;
+    private IdempotencyCache idempotencyCache = new IdempotencyCache();
+    private ShadowDiscountEvaluator shadowEvaluator;
 
     @Override
     public Order createOrder(Long memberId, String itemName, int itemPrice) {
         Member member= memberRepository.findById(memberId);
-        int discountPrice = discountPolicy.discount(member, itemPrice);
+        int discountPrice = discountPolicy.discount(member, itemName, itemPrice);
+        shadow(member, itemName, itemPrice, discountPrice);
+
+        Order order = new Order(memberId, itemName, itemPrice, discountPrice);
+        journal(order).join();
+        save(order);
+        if (spendingAggregator != null) {
+            spendingAggregator.add(order);
+        }
+        return order;
+    }
+
+    @Override
+    public Order createOrder(Long memberId, String itemName, int itemPrice, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createOrder(memberId, itemName, itemPrice);
+        }
+        return idempotencyCache.getOrCreate(idempotencyKey, () -> createOrder(memberId, itemName, itemPrice));
+    }
+
+    /**
+     * 같은 회원은 한 번만 조회하고, 필요한 회원을 저장소에서 한 번에(findAllById) 가져온다.
+     */
+    @Override
+    public OrderBatch createOrders(long[] memberIds, String[] itemNames, int[] itemPrices) {
+        if (memberIds.length != itemNames.length || memberIds.length != itemPrices.length) {
+            throw new IllegalArgumentException("주문 항목 배열의 길이가 서로 다릅니다.");
+        }
+        // positions[i] : memberIds[i] 가 uniqueIds 의 몇 번째인지
+        int[] positions = new int[memberIds.length];
+        long[] uniqueIds = distinct(memberIds, positions);
+        List<Member> members = memberRepository.findAllById(uniqueIds);
+
+        int[] discountPrices = new int[memberIds.length];
+        for (int i = 0; i < memberIds.length; i++) {
+            Member member = members.get(positions[i]);
+            if (member == null) {
+                throw new IllegalArgumentException("존재하지 않는 회원입니다. memberId=" + memberIds[i]);
+            }
+            discountPrices[i] = discountPolicy.discount(member, itemNames[i], itemPrices[i]);
+            shadow(member, itemNames[i], itemPrices[i], discountPrices[i]);
+        }
+        OrderBatch batch = new OrderBatch(memberIds.clone(), itemNames.clone(), itemPrices.clone(), discountPrices);
+        if (orderRepository != null || orderJournal != null) {
+            // 모두 대기열에 넣은 뒤에 기다려야 저널의 같은 group commit 으로 묶인다.
+            Order[] orders = new Order[batch.size()];
+            CompletableFuture<?>[] records = new CompletableFuture<?>[orders.length];
+            for (int i = 0; i < orders.length; i++) {
+                orders[i] = batch.toOrder(i);
+                records[i] = journal(orders[i]);
+            }
+            CompletableFuture.allOf(records).join();
+            for (Order order : orders) {
+                save(order);
+            }
+        }
+        if (spendingAggregator != null) {
+            for (int i = 0; i < batch.size(); i++) {
+                spendingAggregator.add(batch.getMemberId(i), batch.getItemPrice(i), batch.getDiscountPrice(i));
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * 저널에 기록한다. 기록이 끝나면 저널 위치(저널이 없으면 null)로 완료된다.
+     */
+    private CompletableFuture<Long> journal(Order order) {
+        if (orderJournal == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return orderJournal.append(order);
+    }
 
-        return new Order(memberId, itemName, itemPrice, discountPrice);
+    /**
+     * 저장소에 저장한다. 저널 기록이 성공한 주문만 저장해야 실패한 주문이 조회되거나 재시도로 두 번 저장되지 않는다.
+     */
+    private void save(Order order) {
+        if (orderRepository != null) {
+            orderRepository.save(order);
+        }
+    }
+
+    private void shadow(Member member, String itemName, int itemPrice, int discountPrice) {
+        if (shadowEvaluator != null) {
+            shadowEvaluator.offer(member, itemName, itemPrice, discountPrice);
+        }
+    }
+
+    /**
+     * 처음 나온 순서대로 중복을 제거한다. 정렬 대신 배치 크기에 맞춘 임시 해시 테이블을 쓴다.
+     */
+    private static long[] distinct(long[] ids, int[] positions) {
+        int capacity = Integer.highestOneBit(Math.max(ids.length, 1) * 2 - 1) << 1;
+        int mask = capacity - 1;
+        long[] keys = new long[capacity];
+        int[] slots = new int[capacity]; // 0 은 빈 칸, 나머지는 uniqueIds 위치 + 1
+        long[] uniqueIds = new long[ids.length];
+        int size = 0;
+        for (int i = 0; i < ids.length; i++) {
+            long id = ids[i];
+            long h = id * 0x9E3779B97F4A7C15L;
+            int index = (int) (h ^ (h >>> 32)) & mask;
+            while (slots[index] != 0 && keys[index] != id) {
+                index = (index + 1) & mask;
+            }
+            if (slots[index] == 0) {
+                keys[index] = id;
+                uniqueIds[size++] = id;
+                slots[index] = size;
+            }
+            positions[i] = slots[index] - 1;
+        }
+        return Arrays.copyOf(uniqueIds, size);
     }
+
+    @Override
+    public CompletableFuture<Order> createOrderAsync(Long memberId, String itemName, int itemPrice) {
+        CompletableFuture<Order> result = new CompletableFuture<>();
+        // 기록을 시작한 뒤에는 인터럽트하지 않는다. 저널 append 도중에 끊기면 기록이 반쯤 실패한다.
+        AtomicBoolean recording = new AtomicBoolean();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            // 단계마다 취소/시간 초과 여부를 확인해서 이미 끝난 주문의 다음 단계는 건너뛴다.
+            if (result.isDone()) {
+                return;
+            }
+            Member member = memberRepository.findById(memberId);
+            if (result.isDone()) {
+                return;
+            }
+            int discountPrice = discountPolicy.discount(member, itemName, itemPrice);
+            shadow(member, itemName, itemPrice, discountPrice);
+            Order order = new Order(memberId, itemName, itemPrice, discountPrice);
+            recording.set(true);
+            // 이미 시간 초과/취소된 주문은 기록하지 않는다. 호출한 쪽은 실패로 보고 다시 주문할 수 있다.
+            if (result.isDone()) {
+                return;
+            }
+            journal(order).whenComplete((recorded, e) -> {
+                if (e == null) {
+                    save(order);
+                    if (spendingAggregator != null) {
+                        spendingAggregator.add(order);
+                    }
+                    result.complete(order);
+                } else {
+                    result.completeExceptionally(e);
+                }
+            });
+        }, null) {
+            @Override
+            protected void setException(Throwable t) {
+                super.setException(t);
+                result.completeExceptionally(t);
+            }
+        };
+        result.whenComplete((order, e) -> {
+            // 바깥에서 끝낸 경우(cancel, timeout)에만 실행 중인 작업을 중단한다.
+            if (e instanceof CancellationException || e instanceof TimeoutException) {
+                task.cancel(!recording.get());
+            }
+        });
+        try {
+            orderExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Order> createOrderAsync(Long memberId, String itemName, int itemPrice, Duration timeout) {
+        return createOrderAsync(memberId, itemName, itemPrice).orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * createOrderAsync 를 실행할 executor. 등록된 빈이 없으면 ForkJoinPool.commonPool() 을 쓴다.
+     * 저장소나 할인 계산이 블로킹된다면 OrderExecutors 로 만든 전용 풀을 orderExecutor 이름으로 등록하자.
+     */
+    @Autowired(required = false)
+    public void setOrderExecutor(@Qualifier("orderExecutor") Executor orderExecutor) {
+        this.orderExecutor = orderExecutor;
+    }
+
+    /**
+     * 저널이 있으면 만든 주문을 기록하고, 기록이 완료(FsyncPolicy 기준)된 뒤에 주문을 돌려준다.
+     */
+    @Autowired(required = false)
+    public void setOrderJournal(OrderJournal orderJournal) {
+        this.orderJournal = orderJournal;
+    }
+
+    /**
+     * 저장소가 있으면 저널 기록까지 끝난 주문을 저장한다.
+     */
+    @Autowired(required = false)
+    public void setOrderRepository(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    /**
+     * 집계기가 있으면 기록까지 끝난 주문을 회원별 누적 금액에 더한다.
+     */
+    @Autowired(required = false)
+    public void setSpendingAggregator(MemberSpendingAggregator spendingAggregator) {
+        this.spendingAggregator = spendingAggregator;
+    }
+
+    /**
+     * 멱등 키 캐시. 등록된 빈이 없으면 기본 크기(IdempotencyCache.DEFAULT_MAX_SIZE)와 유효 시간으로 만든 캐시를 쓴다.
+     */
+    @Autowired(required = false)
+    public void setIdempotencyCache(IdempotencyCache idempotencyCache) {
+        this.idempotencyCache = idempotencyCache;
+    }
+
+    public IdempotencyCache getIdempotencyCache() {
+        return idempotencyCache;
+    }
+
+    /**
+     * 섀도 평가기가 있으면 할인을 계산할 때마다 후보 정책과 비교하도록 넘긴다. 주문 결과는 지금 정책을 따른다.
+     */
+    @Autowired(required = false)
+    public void setShadowEvaluator(ShadowDiscountEvaluator shadowEvaluator) {
+        this.shadowEvaluator = shadowEvaluator;
+    }
+
     // 테스트용도
     public MemberRepository getMemberRepository() {
         return memberRepository;
@@ -0,0 +1,296 @@
+package hello.core.order;
+
+import hello.core.common.MpscArrayQueue;
+import hello.core.discount.DiscountPolicy;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 회원 id 를 해시해서 N 개의 shard 중 하나에 주문을 보내고, shard 마다 전용 스레드 하나가 처리하는 실행 방식.
+ *
+ * - 같은 회원의 주문은 항상 같은 shard 에서 들어온 순서대로 처리된다.
+ * - 회원별 집계(박싱 없는 long 키 표)와 (있다면) 주문 저장소는 shard 마다 따로 두고 그 shard 스레드만 만지므로 락이 필요 없다.
+ * - shard 입구는 크기가 정해진 MPSC 큐다. 가득 차면 submit 하는 스레드가 자리가 날 때까지 기다린다.
+ *
+ * 회원 저장소와 할인 정책은 모든 shard 가 함께 쓰므로 여러 스레드에서 읽어도 안전해야 한다.
+ */
+public class ShardedOrderProcessor implements Closeable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 8 * 1024;
+    private static final int SPIN_TRIES = 100;
+    private static final long FULL_BACKOFF_NANOS = 1_000;
+
+    private final MemberRepository memberRepository;
+    private final DiscountPolicy discountPolicy;
+    private final Shard[] shards;
+    private volatile boolean closed;
+
+    public ShardedOrderProcessor(MemberRepository memberRepository, DiscountPolicy discountPolicy, int shardCount) {
+        this(memberRepository, discountPolicy, shardCount, DEFAULT_QUEUE_CAPACITY, null);
+    }
+
+    /**
+     * @param orderRepositoryFactory shard 마다 하나씩 만들 주문 저장소. null 이면 주문을 저장하지 않는다.
+     */
+    public ShardedOrderProcessor(MemberRepository memberRepository, DiscountPolicy discountPolicy, int shardCount,
+                                 int queueCapacity, Supplier<? extends OrderRepository> orderRepositoryFactory) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount 는 1 이상이어야 합니다. shardCount=" + shardCount);
+        }
+        this.memberRepository = memberRepository;
+        this.discountPolicy = discountPolicy;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            OrderRepository orderRepository = orderRepositoryFactory == null ? null : orderRepositoryFactory.get();
+            shards[i] = new Shard(i, queueCapacity, orderRepository);
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    public CompletableFuture<Order> submit(long memberId, String itemName, int itemPrice) {
+        return enqueue(memberId, shard -> shard.process(memberId, itemName, itemPrice));
+    }
+
+    /**
+     * 회원의 주문 집계. 이 호출 전에 submit 한 같은 회원의 주문은 모두 반영된다.
+     */
+    public CompletableFuture<MemberOrderStats> memberStats(long memberId) {
+        return enqueue(memberId, shard -> shard.stats(memberId));
+    }
+
+    /**
+     * 회원이 속한 shard 의 주문 저장소에서 조회한다.
+     */
+    public CompletableFuture<OrderPage> findOrders(long memberId, long cursor, int limit) {
+        return enqueue(memberId, shard -> {
+            if (shard.orderRepository == null) {
+                throw new IllegalStateException("주문 저장소 없이 생성된 processor 입니다.");
+            }
+            return shard.orderRepository.findByMemberId(memberId, cursor, limit);
+        });
+    }
+
+    public int shardOf(long memberId) {
+        long h = memberId * 0x9E3779B97F4A7C15L;
+        return (int) ((h >>> 33) % shards.length);
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public long processedCount() {
+        long count = 0;
+        for (Shard shard : shards) {
+            count += shard.processed;
+        }
+        return count;
+    }
+
+    /**
+     * 새 주문을 더 받지 않고, 이미 받은 주문을 모두 처리한 뒤 shard 스레드를 끝낸다.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Shard shard : shards) {
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            shard.rejectRemaining();
+        }
+    }
+
+    private <R> CompletableFuture<R> enqueue(long memberId, Function<Shard, R> work) {
+        Shard shard = shards[shardOf(memberId)];
+        Task<R> task = new Task<>(work);
+        if (closed) {
+            task.future.completeExceptionally(new RejectedExecutionException("이미 닫힌 processor 입니다."));
+            return task.future;
+        }
+        while (!shard.queue.offer(task)) {
+            // 가득 찼다. shard 가 비울 때까지 조금씩 기다린다.
+            LockSupport.unpark(shard.thread);
+            LockSupport.parkNanos(FULL_BACKOFF_NANOS);
+        }
+        if (shard.waiting) {
+            LockSupport.unpark(shard.thread);
+        }
+        if (closed && !shard.thread.isAlive()) {
+            // close 와 경합해서 shard 스레드가 끝난 뒤에 들어갔다.
+            shard.rejectRemaining();
+        }
+        return task.future;
+    }
+
+    private final class Shard implements Runnable {
+        private final MpscArrayQueue<Task<?>> queue;
+        private final Thread thread;
+        private final OrderRepository orderRepository;
+        // shard 스레드만 접근한다.
+        private final Counters counters = new Counters();
+
+        private volatile boolean waiting;
+        private volatile long processed;
+
+        Shard(int index, int queueCapacity, OrderRepository orderRepository) {
+            this.queue = new MpscArrayQueue<>(queueCapacity);
+            this.orderRepository = orderRepository;
+            this.thread = new Thread(this, "order-shard-" + index);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (true) {
+                Task<?> task = queue.poll();
+                if (task != null) {
+                    task.run(this);
+                    idle = 0;
+                    continue;
+                }
+                if (closed) {
+                    return;
+                }
+                if (++idle < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                // waiting 을 먼저 켜고 큐를 다시 봐야 submit 쪽의 unpark 를 놓치지 않는다.
+                waiting = true;
+                if (queue.isEmpty() && !closed) {
+                    LockSupport.park(this);
+                }
+                waiting = false;
+            }
+        }
+
+        Order process(long memberId, String itemName, int itemPrice) {
+            Member member = memberRepository.findById(memberId);
+            if (member == null) {
+                throw new IllegalArgumentException("존재하지 않는 회원입니다. memberId=" + memberId);
+            }
+            int discountPrice = discountPolicy.discount(member, itemName, itemPrice);
+            Order order = new Order(memberId, itemName, itemPrice, discountPrice);
+
+            counters.add(memberId, itemPrice, discountPrice);
+            if (orderRepository != null) {
+                orderRepository.save(order);
+            }
+            processed = processed + 1;
+            return order;
+        }
+
+        MemberOrderStats stats(long memberId) {
+            return counters.stats(memberId);
+        }
+
+        /**
+         * shard 스레드가 끝난 뒤에만 호출한다. 동시에 둘 이상이 꺼내지 않도록 묶는다.
+         */
+        synchronized void rejectRemaining() {
+            Task<?> task;
+            while ((task = queue.poll()) != null) {
+                task.future.completeExceptionally(new RejectedExecutionException("이미 닫힌 processor 입니다."));
+            }
+        }
+    }
+
+    private static final class Task<R> {
+        private final Function<Shard, R> work;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        Task(Function<Shard, R> work) {
+            this.work = work;
+        }
+
+        void run(Shard shard) {
+            try {
+                future.complete(work.apply(shard));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * 회원별 주문 집계. shard 스레드만 쓰므로 락 없는 open addressing(linear probing) 표에 박싱 없이 담는다.
+     * 같은 위치의 keys/orderCounts/totalItemPrices/totalDiscountPrices 가 한 칸이고, orderCount 가 0 이면 빈 칸이다.
+     * 주문마다 객체를 만들지 않으며, 표가 절반을 넘게 차면 두 배로 늘린다.
+     */
+    private static final class Counters {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private long[] orderCounts = new long[INITIAL_CAPACITY];
+        private long[] totalItemPrices = new long[INITIAL_CAPACITY];
+        private long[] totalDiscountPrices = new long[INITIAL_CAPACITY];
+        private int size;
+
+        void add(long memberId, int itemPrice, int discountPrice) {
+            int index = indexOf(memberId);
+            if (orderCounts[index] == 0) {
+                keys[index] = memberId;
+                size++;
+            }
+            orderCounts[index]++;
+            totalItemPrices[index] += itemPrice;
+            totalDiscountPrices[index] += discountPrice;
+            if (size * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        MemberOrderStats stats(long memberId) {
+            int index = indexOf(memberId);
+            return new MemberOrderStats(memberId, orderCounts[index], totalItemPrices[index], totalDiscountPrices[index]);
+        }
+
+        private int indexOf(long memberId) {
+            int mask = keys.length - 1;
+            long h = memberId * 0x9E3779B97F4A7C15L;
+            int index = (int) (h ^ (h >>> 32)) & mask;
+            while (orderCounts[index] != 0 && keys[index] != memberId) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldOrderCounts = orderCounts;
+            long[] oldTotalItemPrices = totalItemPrices;
+            long[] oldTotalDiscountPrices = totalDiscountPrices;
+            int capacity = oldKeys.length * 2;
+            keys = new long[capacity];
+            orderCounts = new long[capacity];
+            totalItemPrices = new long[capacity];
+            totalDiscountPrices = new long[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldOrderCounts[i] != 0) {
+                    int index = indexOf(oldKeys[i]);
+                    keys[index] = oldKeys[i];
+                    orderCounts[index] = oldOrderCounts[i];
+                    totalItemPrices[index] = oldTotalItemPrices[i];
+                    totalDiscountPrices[index] = oldTotalDiscountPrices[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package hello.core.order.pipeline;
+
+import hello.core.discount.DiscountPolicy;
+
+/**
+ * event 에 채워진 회원으로 할인 금액을 계산한다.
+ */
+public class DiscountHandler implements OrderEventHandler {
+
+    private final DiscountPolicy discountPolicy;
+
+    public DiscountHandler(DiscountPolicy discountPolicy) {
+        this.discountPolicy = discountPolicy;
+    }
+
+    @Override
+    public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+        if (event.isRejected()) {
+            return;
+        }
+        event.setDiscountPrice(discountPolicy.discount(event.getMember(), event.getItemName(), event.getItemPrice()));
+    }
+}
@@ -0,0 +1,125 @@
+package hello.core.order.pipeline;
+
+import hello.core.order.OrderJournal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.zip.CRC32;
+
+/**
+ * reject 되지 않은 주문을 OrderJournal 과 같은 형식으로 기록한다. (OrderJournal.replay 로 읽을 수 있음)
+ * 넘겨받은 묶음을 버퍼에 모았다가 묶음의 끝(endOfBatch)에서 한 번에 쓰므로 group commit 이 저절로 된다.
+ * fsync 는 OrderJournal.FsyncPolicy 를 따른다. INTERVAL 은 주문이 끊겨도 기다리는 동안(onIdle) interval 이 지나면 force 한다.
+ *
+ * 파이프라인을 close 한 다음에 close 한다.
+ */
+public class JournalHandler implements OrderEventHandler, Closeable {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final OrderJournal.FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, OrderJournal.MAX_RECORD_BYTES));
+    private final CRC32 crc = new CRC32();
+    private long lastForceNanos = System.nanoTime();
+    // 아직 내보내지 않았거나(NONE) force 하지 않은(PER_BATCH, INTERVAL) 주문이 있는지
+    private boolean dirty;
+    private volatile long forces;
+
+    public JournalHandler(Path file, OrderJournal.FsyncPolicy fsyncPolicy) {
+        this(file, fsyncPolicy, OrderJournal.DEFAULT_FSYNC_INTERVAL);
+    }
+
+    public JournalHandler(Path file, OrderJournal.FsyncPolicy fsyncPolicy, Duration fsyncInterval) {
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        try {
+            this.channel = OrderJournal.openForAppend(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+        try {
+            if (!event.isRejected()) {
+                if (buffer.remaining() < OrderJournal.MAX_RECORD_BYTES) {
+                    flush();
+                }
+                OrderJournal.writeRecord(buffer, event.getMemberId(), event.getItemName(), event.getItemPrice(),
+                        event.getDiscountPrice(), crc);
+                dirty = true;
+            }
+            if (endOfBatch && dirty) {
+                flush();
+                if (fsyncPolicy == OrderJournal.FsyncPolicy.PER_BATCH) {
+                    force();
+                } else if (fsyncPolicy == OrderJournal.FsyncPolicy.INTERVAL) {
+                    forceIfIntervalElapsed();
+                } else {
+                    dirty = false;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 마지막 묶음 뒤에 주문이 끊겨도 INTERVAL 의 force 가 close 까지 미뤄지지 않게 한다.
+     */
+    @Override
+    public void onIdle() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            forceIfIntervalElapsed();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long forceCount() {
+        return forces;
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void forceIfIntervalElapsed() throws IOException {
+        if (System.nanoTime() - lastForceNanos >= fsyncIntervalNanos) {
+            force();
+        }
+    }
+
+    private void force() throws IOException {
+        channel.force(false);
+        lastForceNanos = System.nanoTime();
+        forces = forces + 1;
+        dirty = false;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,26 @@
+package hello.core.order.pipeline;
+
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+
+/**
+ * 회원을 조회해서 event 에 채운다. 없는 회원의 주문은 reject 한다.
+ */
+public class MemberResolveHandler implements OrderEventHandler {
+
+    private final MemberRepository memberRepository;
+
+    public MemberResolveHandler(MemberRepository memberRepository) {
+        this.memberRepository = memberRepository;
+    }
+
+    @Override
+    public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+        Member member = memberRepository.findById(event.getMemberId());
+        if (member == null) {
+            event.reject("존재하지 않는 회원입니다.");
+            return;
+        }
+        event.setMember(member);
+    }
+}
@@ -0,0 +1,78 @@
+package hello.core.order.pipeline;
+
+import hello.core.member.Member;
+import hello.core.order.Order;
+
+/**
+ * ring buffer 의 한 칸. 미리 만들어 두고 주문마다 값만 바꿔서 재사용한다.
+ * 생산자가 memberId/itemName/itemPrice 를 채우고, 단계들이 member, discountPrice 를 채운다.
+ * 처리할 수 없는 주문은 reject 해서 뒤 단계가 건너뛰게 한다.
+ */
+public class OrderEvent {
+    private long memberId;
+    private String itemName;
+    private int itemPrice;
+
+    private Member member;
+    private int discountPrice;
+    private String rejectReason;
+
+    /**
+     * 생산자가 호출한다. 이전 주문에서 남은 값도 함께 지운다.
+     */
+    public void set(long memberId, String itemName, int itemPrice) {
+        this.memberId = memberId;
+        this.itemName = itemName;
+        this.itemPrice = itemPrice;
+        this.member = null;
+        this.discountPrice = 0;
+        this.rejectReason = null;
+    }
+
+    public long getMemberId() {
+        return memberId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public int getItemPrice() {
+        return itemPrice;
+    }
+
+    public Member getMember() {
+        return member;
+    }
+
+    public void setMember(Member member) {
+        this.member = member;
+    }
+
+    public int getDiscountPrice() {
+        return discountPrice;
+    }
+
+    public void setDiscountPrice(int discountPrice) {
+        this.discountPrice = discountPrice;
+    }
+
+    public void reject(String reason) {
+        this.rejectReason = reason;
+    }
+
+    public boolean isRejected() {
+        return rejectReason != null;
+    }
+
+    public String getRejectReason() {
+        return rejectReason;
+    }
+
+    /**
+     * 칸은 재사용되므로 단계 밖으로 넘길 때는 Order 로 복사한다.
+     */
+    public Order toOrder() {
+        return new Order(memberId, itemName, itemPrice, discountPrice);
+    }
+}
@@ -0,0 +1,18 @@
+package hello.core.order.pipeline;
+
+/**
+ * 파이프라인의 한 단계. 단계마다 전용 스레드 하나가 호출하므로 구현체 안의 상태에는 락이 필요 없다.
+ */
+public interface OrderEventHandler {
+
+    /**
+     * @param endOfBatch 이번에 한꺼번에 넘겨받은 주문 중 마지막이면 true. 모아 둔 쓰기를 내보내기 좋은 시점이다.
+     */
+    void onEvent(OrderEvent event, long sequence, boolean endOfBatch);
+
+    /**
+     * 처리할 주문이 없어서 기다리기 직전마다 호출된다. 주문이 끊긴 뒤에도 해야 하는 일(시간 기준 fsync 등)에 쓴다.
+     */
+    default void onIdle() {
+    }
+}
@@ -0,0 +1,162 @@
+package hello.core.order.pipeline;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ring buffer 기반 주문 접수 파이프라인. (Disruptor 방식)
+ *
+ * 생산자는 미리 만들어진 OrderEvent 칸을 예약해서 그 자리에 주문을 채우고(claim → event → publish),
+ * 단계들은 각자 전용 스레드에서 앞 단계가 끝낸 주문들을 묶음으로 받아 차례로 처리한다.
+ * 예) 회원 조회(MemberResolveHandler) → 할인 계산(DiscountHandler) → 저널 기록(JournalHandler)
+ *
+ * 접수 경로에서 주문마다 새 객체를 만들지 않으며, 스레드 사이에는 칸 번호(sequence)만 주고받는다.
+ * 마지막 단계가 처리한 칸만 다시 쓰므로, 파이프라인이 밀리면 생산자가 기다린다.
+ */
+public class OrderPipeline implements Closeable {
+
+    public static final Duration DEFAULT_CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final OrderRingBuffer ringBuffer;
+    private final StageProcessor[] stages;
+    private final Thread[] threads;
+    // claim 중인 생산자 수. close 는 이 값이 0 이 된 뒤에 예약된 칸 수를 읽는다.
+    private final AtomicInteger claiming = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * @param ringSize 2의 거듭제곱
+     * @param handlers 실행 순서대로의 단계. 단계마다 스레드 하나가 생긴다.
+     */
+    public OrderPipeline(int ringSize, WaitStrategy waitStrategy, OrderEventHandler... handlers) {
+        if (handlers.length == 0) {
+            throw new IllegalArgumentException("단계가 하나 이상 있어야 합니다.");
+        }
+        this.ringBuffer = new OrderRingBuffer(ringSize);
+        this.stages = new StageProcessor[handlers.length];
+        this.threads = new Thread[handlers.length];
+        StageProcessor upstream = null;
+        for (int i = 0; i < handlers.length; i++) {
+            stages[i] = new StageProcessor(ringBuffer, upstream, handlers[i], waitStrategy);
+            upstream = stages[i];
+        }
+        ringBuffer.setGating(upstream.sequence());
+        for (int i = 0; i < stages.length; i++) {
+            threads[i] = new Thread(stages[i], "order-pipeline-" + i + "-" + handlers[i].getClass().getSimpleName());
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+    }
+
+    /**
+     * 빈 칸을 하나 예약한다. 반드시 publish 해야 뒤의 주문들도 처리된다.
+     */
+    public long claim() {
+        // 먼저 claiming 을 늘리고 closed 를 본다. close 는 closed 를 켠 뒤 claiming 을 보므로,
+        // 둘 중 하나는 반드시 상대를 본다. (close 가 못 본 claim 은 closed 를 보고 그만둔다)
+        claiming.incrementAndGet();
+        try {
+            if (closed) {
+                throw new IllegalStateException("이미 닫힌 파이프라인입니다.");
+            }
+            return ringBuffer.next();
+        } finally {
+            claiming.decrementAndGet();
+        }
+    }
+
+    public OrderEvent event(long sequence) {
+        return ringBuffer.get(sequence);
+    }
+
+    public void publish(long sequence) {
+        ringBuffer.publish(sequence);
+    }
+
+    public void publish(long memberId, String itemName, int itemPrice) {
+        long sequence = claim();
+        ringBuffer.get(sequence).set(memberId, itemName, itemPrice);
+        ringBuffer.publish(sequence);
+    }
+
+    /**
+     * 마지막 단계까지 처리된 주문 수
+     */
+    public long processedCount() {
+        return stages[stages.length - 1].sequence().get() + 1;
+    }
+
+    /**
+     * 단계에서 예외가 나서 reject 된 주문 수 (모든 단계 합계)
+     */
+    public long failureCount() {
+        long count = 0;
+        for (StageProcessor stage : stages) {
+            count += stage.failureCount();
+        }
+        return count;
+    }
+
+    /**
+     * 마지막 단계가 한 번에 넘겨받은 평균 주문 수
+     */
+    public double averageBatchSize() {
+        long batchCount = stages[stages.length - 1].batchCount();
+        return batchCount == 0 ? 0 : (double) processedCount() / batchCount;
+    }
+
+    /**
+     * 새 주문을 더 받지 않고, 예약된 주문이 모두 처리된 뒤 단계 스레드를 끝낸다.
+     * 단계가 쓰는 자원(JournalHandler 등)은 이 다음에 따로 닫는다.
+     */
+    @Override
+    public void close() {
+        close(DEFAULT_CLOSE_TIMEOUT);
+    }
+
+    /**
+     * close() 와 같지만, 처리가 timeout 동안 전혀 나아가지 않으면(예약만 하고 publish 하지 않은 칸이 있는 경우 등)
+     * 더 기다리지 않고 단계 스레드를 끝낸 뒤 예외를 던진다.
+     */
+    public void close(Duration timeout) {
+        closed = true;
+        Sequence last = stages[stages.length - 1].sequence();
+        long timeoutNanos = timeout.toNanos();
+        long lastProgress = System.nanoTime();
+        long processed = last.get();
+        boolean drained = false;
+        while (true) {
+            // 진행 중인 claim 이 끝나야 예약된 칸 수가 더 늘지 않는다.
+            if (claiming.get() == 0 && last.get() >= ringBuffer.claimedSequence()) {
+                drained = true;
+                break;
+            }
+            long current = last.get();
+            if (current != processed) {
+                processed = current;
+                lastProgress = System.nanoTime();
+            } else if (System.nanoTime() - lastProgress > timeoutNanos) {
+                break;
+            }
+            LockSupport.parkNanos(100_000);
+        }
+        for (StageProcessor stage : stages) {
+            stage.halt();
+        }
+        ringBuffer.halt();
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (!drained) {
+            throw new IllegalStateException("처리되지 않은 주문이 남은 채로 닫았습니다. processed="
+                    + (last.get() + 1) + ", claimed=" + (ringBuffer.claimedSequence() + 1));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package hello.core.order.pipeline;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 미리 만든 OrderEvent 를 돌려 쓰는 크기 고정 ring buffer. (여러 생산자)
+ *
+ * 생산자는 next 로 번호(sequence)를 CAS 로 예약하고, 그 칸의 OrderEvent 를 채운 뒤 publish 한다.
+ * 칸마다 "몇 바퀴째에 publish 되었는지"를 기록해서, 예약 순서와 publish 순서가 달라도
+ * 소비자는 빈틈 없이 publish 된 곳까지만 읽는다.
+ * 마지막 단계(gating)가 아직 처리하지 않은 칸은 덮어쓰지 않으며, 가득 차면 생산자가 기다린다.
+ */
+final class OrderRingBuffer {
+
+    private final OrderEvent[] entries;
+    private final int mask;
+    private final int indexShift;
+    private final AtomicIntegerArray published;
+    private final Sequence claimed = new Sequence(-1);
+    private Sequence gating;
+    // gating 을 매번 읽지 않도록 마지막으로 본 값을 기억한다. (실제 값보다 작을 수만 있다)
+    private volatile long gatingCache = -1;
+    private volatile boolean halted;
+
+    OrderRingBuffer(int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("ring 크기는 2의 거듭제곱이어야 합니다. size=" + size);
+        }
+        this.entries = new OrderEvent[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = new OrderEvent();
+        }
+        this.mask = size - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(size);
+        this.published = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * 소비 단계를 연결하기 전에 한 번만 호출한다.
+     */
+    void setGating(Sequence gating) {
+        this.gating = gating;
+    }
+
+    long next() {
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            long wrapPoint = next - entries.length;
+            if (wrapPoint > gatingCache) {
+                long minimum = gating.get();
+                gatingCache = minimum;
+                if (wrapPoint > minimum) {
+                    if (halted) {
+                        throw new IllegalStateException("이미 닫힌 파이프라인입니다.");
+                    }
+                    // 한 바퀴 앞서 있다. 마지막 단계가 따라올 때까지 기다린다.
+                    LockSupport.parkNanos(1);
+                    continue;
+                }
+            }
+            if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 소비 단계가 멈춘 뒤에 호출한다. 빈 칸을 기다리던 생산자는 더 기다리지 않고 예외로 끝난다.
+     */
+    void halt() {
+        halted = true;
+    }
+
+    OrderEvent get(long sequence) {
+        return entries[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        published.lazySet((int) sequence & mask, (int) (sequence >>> indexShift));
+    }
+
+    long claimedSequence() {
+        return claimed.get();
+    }
+
+    /**
+     * from 부터 빈틈 없이 publish 된 마지막 sequence. 하나도 없으면 from - 1
+     */
+    long highestPublished(long from) {
+        long claimedSequence = claimed.get();
+        for (long sequence = from; sequence <= claimedSequence; sequence++) {
+            if (published.get((int) sequence & mask) != (int) (sequence >>> indexShift)) {
+                return sequence - 1;
+            }
+        }
+        return claimedSequence;
+    }
+}
@@ -0,0 +1,33 @@
+package hello.core.order.pipeline;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 단계별 진행 위치. 여러 스레드가 서로 다른 Sequence 를 자주 쓰므로 같은 cache line 에 놓이지 않도록
+ * 15칸 배열의 가운데 칸만 사용한다. (앞뒤 7칸 = 56 byte 가 padding)
+ */
+final class Sequence {
+
+    private static final int VALUE = 7;
+
+    private final AtomicLongArray slots = new AtomicLongArray(VALUE * 2 + 1);
+
+    Sequence(long initialValue) {
+        slots.set(VALUE, initialValue);
+    }
+
+    long get() {
+        return slots.get(VALUE);
+    }
+
+    /**
+     * 앞에서 한 쓰기가 다른 스레드에 먼저 보이도록 release 로 쓴다.
+     */
+    void set(long value) {
+        slots.lazySet(VALUE, value);
+    }
+
+    boolean compareAndSet(long expected, long value) {
+        return slots.compareAndSet(VALUE, expected, value);
+    }
+}
@@ -0,0 +1,81 @@
+package hello.core.order.pipeline;
+
+/**
+ * 한 단계를 실행하는 스레드의 본문. 앞 단계(첫 단계는 생산자)가 끝낸 곳까지를 한 번에 넘겨받아 처리한다.
+ */
+final class StageProcessor implements Runnable {
+
+    private final OrderRingBuffer ringBuffer;
+    private final StageProcessor upstream;
+    private final OrderEventHandler handler;
+    private final WaitStrategy waitStrategy;
+    private final Sequence sequence = new Sequence(-1);
+
+    private volatile boolean running = true;
+    private volatile long failures;
+    private volatile long batches;
+
+    /**
+     * @param upstream 앞 단계. null 이면 생산자가 publish 한 주문을 바로 받는다.
+     */
+    StageProcessor(OrderRingBuffer ringBuffer, StageProcessor upstream, OrderEventHandler handler,
+                   WaitStrategy waitStrategy) {
+        this.ringBuffer = ringBuffer;
+        this.upstream = upstream;
+        this.handler = handler;
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    public void run() {
+        long next = sequence.get() + 1;
+        int attempt = 0;
+        while (true) {
+            long available = upstream == null ? ringBuffer.highestPublished(next) : upstream.sequence.get();
+            if (available < next) {
+                if (!running) {
+                    return;
+                }
+                try {
+                    handler.onIdle();
+                } catch (RuntimeException e) {
+                    failures = failures + 1;
+                }
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+            attempt = 0;
+            for (long current = next; current <= available; current++) {
+                OrderEvent event = ringBuffer.get(current);
+                try {
+                    handler.onEvent(event, current, current == available);
+                } catch (RuntimeException e) {
+                    event.reject(String.valueOf(e.getMessage()));
+                    failures = failures + 1;
+                }
+            }
+            batches = batches + 1;
+            sequence.set(available);
+            next = available + 1;
+        }
+    }
+
+    Sequence sequence() {
+        return sequence;
+    }
+
+    /**
+     * 지금까지 넘겨받은 주문을 모두 처리하면 끝낸다.
+     */
+    void halt() {
+        running = false;
+    }
+
+    long failureCount() {
+        return failures;
+    }
+
+    long batchCount() {
+        return batches;
+    }
+}
@@ -0,0 +1,45 @@
+package hello.core.order.pipeline;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 처리할 주문이 아직 없을 때 소비 스레드가 기다리는 방법.
+ * attempt 는 연속으로 기다린 횟수이며, 주문을 처리하면 0 부터 다시 센다.
+ *
+ * - busySpin : CPU 하나를 계속 쓰지만 지연이 가장 짧다. 코어가 단계 수보다 충분히 많을 때만 쓴다.
+ * - yielding : 잠깐 돌다가 Thread.yield 로 다른 스레드에 양보한다.
+ * - parking  : 돌다가, 양보하다가, 그래도 없으면 parkNanos 만큼 잠든다. CPU 는 가장 적게 쓰고 지연은 가장 길다.
+ */
+public interface WaitStrategy {
+
+    int SPIN_TRIES = 100;
+    int YIELD_TRIES = 200;
+
+    void idle(int attempt);
+
+    static WaitStrategy busySpin() {
+        return attempt -> Thread.onSpinWait();
+    }
+
+    static WaitStrategy yielding() {
+        return attempt -> {
+            if (attempt < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        };
+    }
+
+    static WaitStrategy parking(long parkNanos) {
+        return attempt -> {
+            if (attempt < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (attempt < YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(parkNanos);
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package hello.core.codec;
+
+import hello.core.order.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 주문 인코딩/디코딩의 처리량(orders/s)과 주문당 할당량. ./gradlew benchmark 로 실행한다.
+ * 할당량은 com.sun.management.ThreadMXBean.getThreadAllocatedBytes 로 잰다.
+ * - stream   : 이전 스냅샷 방식처럼 DataOutputStream 에 getBytes 로 만든 상품명을 쓴다.
+ * - codec    : OrderCodec 으로 direct buffer 에 바로 쓰고 Order 로 읽는다.
+ * - flyweight: 같은 buffer 를 OrderFlyweight 로 제자리에서 읽는다. (상품명 비교 포함)
+ */
+@Tag("benchmark")
+class CodecBenchmark {
+
+    static final int ORDERS = 100_000;
+    static final int ROUNDS = 20;
+    static final String[] ITEM_NAMES = {"itemA", "itemB", "상품C", "상품D"};
+
+    @Test
+    void encodeDecode() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(ORDERS * (OrderCodec.FIXED_BYTES + 16));
+        Order[] orders = new Order[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            orders[i] = new Order((long) i, ITEM_NAMES[i & 3], 10000 + i, 1000);
+        }
+        for (int warmup = 0; warmup < 3; warmup++) {
+            streamEncode(orders);
+            codecEncode(buffer, orders);
+            codecDecode(buffer);
+            flyweightDecode(buffer);
+        }
+
+        measure("stream encode", () -> streamEncode(orders));
+        measure("codec encode", () -> codecEncode(buffer, orders));
+        measure("codec decode", () -> codecDecode(buffer));
+        measure("flyweight decode", () -> flyweightDecode(buffer));
+    }
+
+    private static long streamEncode(Order[] orders) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(ORDERS * 32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Order order : orders) {
+            out.writeLong(order.getMemberId());
+            out.writeInt(order.getItemPrice());
+            out.writeInt(order.getDiscountPrice());
+            byte[] name = order.getItemName().getBytes(StandardCharsets.UTF_8);
+            out.writeShort(name.length);
+            out.write(name);
+        }
+        return bytes.size();
+    }
+
+    private static long codecEncode(ByteBuffer buffer, Order[] orders) {
+        buffer.clear();
+        for (Order order : orders) {
+            OrderCodec.write(buffer, order);
+        }
+        buffer.flip();
+        return buffer.limit();
+    }
+
+    private static long codecDecode(ByteBuffer buffer) {
+        long sum = 0;
+        ByteBuffer view = buffer.duplicate();
+        while (view.hasRemaining()) {
+            sum += OrderCodec.read(view).calculatePrice();
+        }
+        return sum;
+    }
+
+    private static long flyweightDecode(ByteBuffer buffer) {
+        long sum = 0;
+        OrderFlyweight order = new OrderFlyweight();
+        for (int offset = 0; offset < buffer.limit(); offset += order.encodedLength()) {
+            order.wrap(buffer, offset);
+            if (order.itemNameEquals("itemA")) {
+                sum += order.calculatePrice();
+            }
+        }
+        return sum;
+    }
+
+    private static void measure(String name, Work work) throws IOException {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long blackhole = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            blackhole += work.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        long total = (long) ORDERS * ROUNDS;
+        System.out.printf("[%s] %,d orders/s, %.1f bytes/order allocated (%d)%n", name,
+                total * 1_000_000_000L / Math.max(elapsed, 1), (double) allocated / total, blackhole & 1);
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private interface Work {
+        long run() throws IOException;
+    }
+}
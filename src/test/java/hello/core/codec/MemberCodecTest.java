@@ -0,0 +1,69 @@
+package hello.core.codec;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberCodecTest {
+
+    @Test
+    @DisplayName("이름이나 등급이 null 인 회원도 그대로 다시 읽는다")
+    void roundTrip() {
+        //given
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        Member[] members = {
+                new Member(1L, "memberA", Grade.VIP),
+                new Member(2L, null, Grade.BASIC),
+                new Member(3L, "회원C", null),
+        };
+
+        //when
+        for (Member member : members) {
+            MemberCodec.write(buffer, member);
+        }
+        buffer.flip();
+
+        //then
+        for (Member member : members) {
+            Member read = MemberCodec.read(buffer);
+            assertThat(read.getId()).isEqualTo(member.getId());
+            assertThat(read.getName()).isEqualTo(member.getName());
+            assertThat(read.getGrade()).isEqualTo(member.getGrade());
+        }
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    @DisplayName("flyweight 로 레코드를 차례로 건너뛰며 필드를 제자리에서 읽는다")
+    void flyweight() {
+        //given
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        for (long id = 1; id <= 10; id++) {
+            MemberCodec.write(buffer, id, id % 2 == 0 ? Grade.VIP : Grade.BASIC, "member" + id);
+        }
+        int end = buffer.position();
+
+        //when
+        MemberFlyweight member = new MemberFlyweight();
+        long vipIdSum = 0;
+        int found = -1;
+        for (int offset = 0; offset < end; offset += member.encodedLength()) {
+            member.wrap(buffer, offset);
+            if (member.getGrade() == Grade.VIP) {
+                vipIdSum += member.getId();
+            }
+            if (member.nameEquals("member7")) {
+                found = offset;
+            }
+        }
+
+        //then
+        assertThat(vipIdSum).isEqualTo(2L + 4 + 6 + 8 + 10);
+        assertThat(member.wrap(buffer, found).toMember().getId()).isEqualTo(7L);
+    }
+}
@@ -0,0 +1,103 @@
+package hello.core.codec;
+
+import hello.core.order.Order;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderCodecTest {
+
+    @Test
+    @DisplayName("heap, direct buffer 모두 쓴 주문을 그대로 다시 읽는다")
+    void roundTrip() {
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(1024), ByteBuffer.allocateDirect(1024)}) {
+            //given
+            Order[] orders = {
+                    new Order(1L, "itemA", 10000, 1000),
+                    new Order(2L, null, 20000, 0),
+                    new Order(3L, "상품 😀", 30000, 3000),
+            };
+
+            //when
+            for (Order order : orders) {
+                int written = OrderCodec.write(buffer, order);
+                assertThat(written).isEqualTo(OrderCodec.encodedLength(order));
+            }
+            buffer.flip();
+
+            //then
+            for (Order order : orders) {
+                Order read = OrderCodec.read(buffer);
+                assertThat(read.getMemberId()).isEqualTo(order.getMemberId());
+                assertThat(read.getItemName()).isEqualTo(order.getItemName());
+                assertThat(read.getItemPrice()).isEqualTo(order.getItemPrice());
+                assertThat(read.getDiscountPrice()).isEqualTo(order.getDiscountPrice());
+            }
+            assertThat(buffer.hasRemaining()).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("상품명은 String.getBytes(UTF_8) 와 같은 바이트로 기록된다")
+    void utf8Compatible() {
+        //given
+        String itemName = "가나다 abc é 😀";
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        //when
+        OrderCodec.write(buffer, 1L, itemName, 1000, 0);
+
+        //then
+        byte[] expected = itemName.getBytes(StandardCharsets.UTF_8);
+        assertThat(Short.toUnsignedInt(buffer.getShort(OrderCodec.ITEM_NAME_LENGTH_OFFSET))).isEqualTo(expected.length);
+        byte[] actual = new byte[expected.length];
+        buffer.position(OrderCodec.ITEM_NAME_OFFSET);
+        buffer.get(actual);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("flyweight 는 buffer 의 position 을 바꾸지 않고 임의 위치의 주문을 읽는다")
+    void flyweight() {
+        //given
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        OrderCodec.write(buffer, 1L, "itemA", 10000, 1000);
+        int second = buffer.position();
+        OrderCodec.write(buffer, 2L, "상품B", 20000, 2000);
+        int end = buffer.position();
+
+        //when
+        OrderFlyweight order = new OrderFlyweight().wrap(buffer, second);
+
+        //then
+        assertThat(order.getMemberId()).isEqualTo(2L);
+        assertThat(order.getItemPrice()).isEqualTo(20000);
+        assertThat(order.calculatePrice()).isEqualTo(18000);
+        assertThat(order.getItemName()).isEqualTo("상품B");
+        assertThat(order.itemNameEquals("상품B")).isTrue();
+        assertThat(order.itemNameEquals("itemA")).isFalse();
+        assertThat(order.itemNameEquals(null)).isFalse();
+        assertThat(second + order.encodedLength()).isEqualTo(end);
+        assertThat(order.wrap(buffer, 0).itemNameEquals("itemA")).isTrue();
+        assertThat(buffer.position()).isEqualTo(end);
+    }
+
+    @Test
+    @DisplayName("상품명이 0xFFFF 바이트 이상이면 아무것도 쓰지 않고 예외가 발생한다")
+    void tooLongItemName() {
+        //given
+        String itemName = "가".repeat(30_000);
+        ByteBuffer buffer = ByteBuffer.allocate(OrderCodec.MAX_BYTES * 2);
+
+        //when
+        assertThrows(IllegalArgumentException.class, () -> OrderCodec.write(buffer, 1L, itemName, 1000, 0));
+
+        //then
+        assertThat(buffer.position()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,34 @@
+package hello.core.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentBitmapTest {
+
+    @Test
+    void matchesBitSet() {
+        ConcurrentBitmap bitmap = new ConcurrentBitmap();
+        BitSet expected = new BitSet();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 100_000; i++) {
+            int index = random.nextInt(300_000);
+            if (random.nextBoolean()) {
+                bitmap.set(index);
+                expected.set(index);
+            } else {
+                bitmap.clear(index);
+                expected.clear(index);
+            }
+        }
+
+        assertThat(bitmap.cardinality()).isEqualTo(expected.cardinality());
+        assertThat(bitmap.stream().toArray()).isEqualTo(expected.stream().toArray());
+        assertThat(bitmap.nextSetBit(300_000)).isEqualTo(-1);
+        assertThat(bitmap.get(expected.nextSetBit(0))).isTrue();
+    }
+}
@@ -0,0 +1,64 @@
+package hello.core.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentLongMapTest {
+
+    @Test
+    void putGetRemove() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>(4, 2);
+
+        assertThat(map.put(0L, "zero")).isNull();
+        assertThat(map.put(-1L, "minus")).isNull();
+        assertThat(map.put(0L, "ZERO")).isEqualTo("zero");
+        assertThat(map.putIfAbsent(-1L, "other")).isEqualTo("minus");
+
+        assertThat(map.get(0L)).isEqualTo("ZERO");
+        assertThat(map.get(-1L)).isEqualTo("minus");
+        assertThat(map.size()).isEqualTo(2);
+
+        assertThat(map.remove(0L)).isEqualTo("ZERO");
+        assertThat(map.get(0L)).isNull();
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        // 작은 테이블로 resize 와 backward shift 삭제를 많이 일으킨다.
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>(2, 2);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                assertThat(map.put(key, (long) i)).isEqualTo(expected.put(key, (long) i));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertThat(map.get(key)).isEqualTo(expected.get(key));
+        }
+        Map<Long, Long> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertThat(iterated).isEqualTo(expected);
+    }
+
+    @Test
+    void computeIfAbsent() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+
+        assertThat(map.computeIfAbsent(7L, key -> "v" + key)).isEqualTo("v7");
+        assertThat(map.computeIfAbsent(7L, key -> "other")).isEqualTo("v7");
+        assertThat(map.size()).isEqualTo(1);
+    }
+}
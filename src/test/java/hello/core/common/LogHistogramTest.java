@@ -0,0 +1,30 @@
+package hello.core.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogHistogramTest {
+
+    @Test
+    @DisplayName("값을 2 의 거듭제곱 구간에 세고, 분위수는 구간의 상한으로 돌려준다")
+    void percentile() {
+        //given
+        LogHistogram histogram = new LogHistogram();
+
+        //when
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+
+        //then
+        assertThat(histogram.count()).isEqualTo(1001L);
+        assertThat(histogram.bucketCount(0)).isEqualTo(1L);
+        assertThat(histogram.percentile(0.0)).isEqualTo(0L);
+        assertThat(histogram.percentile(0.5)).isEqualTo(511L);
+        assertThat(histogram.percentile(0.99)).isEqualTo(1023L);
+        assertThat(new LogHistogram().percentile(0.5)).isEqualTo(0L);
+    }
+}
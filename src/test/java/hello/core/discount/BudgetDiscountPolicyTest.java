@@ -0,0 +1,175 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BudgetDiscountPolicyTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+
+    @Test
+    @DisplayName("예산이 모자라면 할인하지 않고, maxOverspend 만큼은 예산을 넘어서 할인한다")
+    void budgetExhausted() {
+        //given
+        TestClock clock = new TestClock(0);
+        BudgetDiscountPolicy strict = new BudgetDiscountPolicy(new FixDiscountPolicy(), 2500, 1000, 0,
+                Duration.ofDays(1), clock);
+        BudgetDiscountPolicy tolerant = new BudgetDiscountPolicy(new FixDiscountPolicy(), 2500, 1000, 500,
+                Duration.ofDays(1), clock);
+
+        //when
+        int[] strictDiscounts = new int[4];
+        int[] tolerantDiscounts = new int[4];
+        for (int i = 0; i < 4; i++) {
+            strictDiscounts[i] = strict.discount(vip, 10000);
+            tolerantDiscounts[i] = tolerant.discount(vip, 10000);
+        }
+
+        //then
+        assertThat(strictDiscounts).containsExactly(1000, 1000, 0, 0);
+        assertThat(strict.grantedAmount()).isEqualTo(2000L);
+        assertThat(strict.deniedCount()).isEqualTo(2L);
+        assertThat(tolerantDiscounts).containsExactly(1000, 1000, 1000, 0);
+        assertThat(tolerant.grantedAmount()).isEqualTo(3000L);
+        assertThat(tolerant.unreservedBudget()).isEqualTo(-500L);
+    }
+
+    @Test
+    @DisplayName("기간이 바뀌면 예산을 다시 채운다")
+    void resetEveryPeriod() {
+        //given
+        TestClock clock = new TestClock(Duration.ofHours(10).toMillis());
+        BudgetDiscountPolicy policy = new BudgetDiscountPolicy(new FixDiscountPolicy(), 1000, 1000, 0,
+                Duration.ofDays(1), clock);
+        int first = policy.discount(vip, 10000);
+        int exhausted = policy.discount(vip, 10000);
+
+        //when
+        clock.set(Duration.ofHours(24).toMillis());
+        int nextDay = policy.discount(vip, 10000);
+
+        //then
+        assertThat(first).isEqualTo(1000);
+        assertThat(exhausted).isEqualTo(0);
+        assertThat(nextDay).isEqualTo(1000);
+        assertThat(policy.grantedAmount()).isEqualTo(1000L);
+    }
+
+    @Test
+    @DisplayName("64 개 스레드가 동시에 할인해도 준 할인의 합은 예산 + maxOverspend 를 넘지 않는다")
+    void concurrentStress() throws Exception {
+        //given
+        long budget = 5_000_000;
+        long chunkSize = 5_000;
+        long maxOverspend = 1_000;
+        // 가격을 그대로 할인 금액으로 쓴다.
+        DiscountPolicy priceAsDiscount = (member, price) -> price;
+        BudgetDiscountPolicy policy = new BudgetDiscountPolicy(priceAsDiscount, budget, chunkSize, maxOverspend,
+                Duration.ofDays(1), Clock.systemDefaultZone());
+        int threadCount = 64;
+        AtomicLong granted = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            Thread thread = new Thread(() -> {
+                long sum = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // 연속으로 여러 번 거절될 때까지 할인을 요청한다.
+                int deniedInRow = 0;
+                while (deniedInRow < 100) {
+                    int discount = policy.discount(vip, 1 + ThreadLocalRandom.current().nextInt(1000));
+                    sum += discount;
+                    deniedInRow = discount == 0 ? deniedInRow + 1 : 0;
+                }
+                granted.addAndGet(sum);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        //when
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        //then
+        assertThat(granted.get()).isEqualTo(policy.grantedAmount());
+        assertThat(granted.get()).isLessThanOrEqualTo(budget + maxOverspend);
+        // 칸마다 한도에 남은 금액은 마지막에 거절된 할인 금액(1000)보다 적다.
+        assertThat(granted.get()).isGreaterThan(budget - policy.cellCount() * 1000L);
+        assertThat(policy.deniedCount()).isGreaterThanOrEqualTo(threadCount * 100L);
+    }
+
+    @Test
+    @DisplayName("주문마다 새 스레드를 써도 떼어 놓고 못 쓰는 예산이 칸 수 x chunkSize 를 넘지 않는다")
+    void threadPerTask() throws Exception {
+        //given
+        long budget = 1_000_000;
+        long chunkSize = 10_000;
+        BudgetDiscountPolicy policy = new BudgetDiscountPolicy(new FixDiscountPolicy(), budget, chunkSize, 0,
+                Duration.ofDays(1), Clock.systemDefaultZone());
+
+        //when : 할인 1000 원씩, 예산의 두 배만큼 요청한다.
+        for (int i = 0; i < 2 * budget / 1000; i++) {
+            Thread thread = new Thread(() -> policy.discount(vip, 10000));
+            thread.start();
+            thread.join();
+        }
+
+        //then
+        assertThat(policy.grantedAmount()).isGreaterThanOrEqualTo(budget - policy.cellCount() * chunkSize);
+        assertThat(policy.grantedAmount()).isLessThanOrEqualTo(budget);
+    }
+
+    static class TestClock extends Clock {
+        private volatile long millis;
+
+        TestClock(long millis) {
+            this.millis = millis;
+        }
+
+        void set(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
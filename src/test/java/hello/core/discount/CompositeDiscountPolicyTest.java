@@ -0,0 +1,134 @@
+package hello.core.discount;
+
+import hello.core.discount.CompositeDiscountPolicy.Mode;
+import hello.core.discount.CompositeDiscountPolicy.PolicyStats;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompositeDiscountPolicyTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    Member basic = new Member(2L, "memberBASIC", Grade.BASIC);
+
+    @Test
+    @DisplayName("MAX 는 가장 큰 할인, SUM_WITH_CAP 은 cap 까지의 합, FIRST_MATCH 는 처음으로 할인이 있는 정책을 따른다")
+    void modes() {
+        //given
+        List<DiscountPolicy> policies = Arrays.asList(new FixDiscountPolicy(), new RateDiscountPolicy(), fixed(500));
+        CompositeDiscountPolicy max = new CompositeDiscountPolicy(Mode.MAX, policies);
+        CompositeDiscountPolicy sum = new CompositeDiscountPolicy(Mode.SUM_WITH_CAP, 2500, policies);
+        CompositeDiscountPolicy firstMatch = new CompositeDiscountPolicy(Mode.FIRST_MATCH, policies);
+
+        //when
+        //then
+        assertThat(max.discount(vip, 20000)).isEqualTo(2000);
+        assertThat(max.discount(basic, 20000)).isEqualTo(500);
+        assertThat(sum.discount(vip, 20000)).isEqualTo(2500);
+        assertThat(sum.discount(vip, 5000)).isEqualTo(2000);
+        assertThat(firstMatch.discount(vip, 20000)).isEqualTo(1000);
+        assertThat(firstMatch.discount(basic, 20000)).isEqualTo(500);
+        assertThat(max.discount(vip, 300)).isEqualTo(300);
+    }
+
+    @Test
+    @DisplayName("결과가 정해지면 남은 정책은 계산하지 않는다")
+    void shortCircuit() {
+        //given
+        CountingPolicy slow = new CountingPolicy(0, 0);
+        CompositeDiscountPolicy max = new CompositeDiscountPolicy(Mode.MAX, Arrays.asList(fixed(10000), slow));
+        CompositeDiscountPolicy sum = new CompositeDiscountPolicy(Mode.SUM_WITH_CAP, 1000,
+                Arrays.asList(fixed(600), fixed(600), slow));
+
+        //when
+        int maxDiscount = max.discount(vip, 10000);
+        int sumDiscount = sum.discount(vip, 10000);
+
+        //then
+        assertThat(maxDiscount).isEqualTo(10000);
+        assertThat(sumDiscount).isEqualTo(1000);
+        assertThat(slow.calls).isEqualTo(0);
+        assertThat(max.stats().get(1).getEvaluationCount()).isEqualTo(0L);
+        assertThat(sum.stats().get(0).getEvaluationCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("측정한 시간이 짧은 정책을 앞으로 옮겨서 비싼 정책의 계산을 줄인다")
+    void reorderByCost() {
+        //given
+        CountingPolicy slow = new CountingPolicy(0, 5_000);
+        CountingPolicy cheap = new CountingPolicy(10000, 0);
+        CompositeDiscountPolicy policy = new CompositeDiscountPolicy(Mode.MAX, Integer.MAX_VALUE,
+                Arrays.asList(slow, cheap), Arrays.asList("slow", "cheap"));
+        int calls = 100_000;
+
+        //when
+        for (int i = 0; i < calls; i++) {
+            assertThat(policy.discount(vip, 10000)).isEqualTo(10000);
+        }
+
+        //then
+        List<PolicyStats> stats = policy.stats();
+        assertThat(policy.evaluationOrder()).containsExactly(1, 0);
+        assertThat(stats.get(0).getName()).isEqualTo("slow");
+        assertThat(stats.get(0).getAverageNanos()).isGreaterThan(stats.get(1).getAverageNanos());
+        assertThat(stats.get(1).getEvaluationCount()).isEqualTo((long) calls);
+        assertThat(stats.get(0).getEvaluationCount()).isLessThan((long) calls / 2);
+    }
+
+    @Test
+    @DisplayName("FIRST_MATCH 는 시간이 오래 걸려도 목록 순서를 바꾸지 않는다")
+    void firstMatchKeepsOrder() {
+        //given
+        CompositeDiscountPolicy policy = new CompositeDiscountPolicy(Mode.FIRST_MATCH,
+                Arrays.asList(new CountingPolicy(100, 5_000), fixed(200)));
+
+        //when
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(policy.discount(vip, 10000)).isEqualTo(100);
+        }
+
+        //then
+        assertThat(policy.evaluationOrder()).containsExactly(0, 1);
+    }
+
+    @Test
+    @DisplayName("정책이 없으면 만들 수 없다")
+    void emptyPolicies() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CompositeDiscountPolicy(Mode.MAX, Collections.emptyList()));
+    }
+
+    private static DiscountPolicy fixed(int amount) {
+        return (member, price) -> amount;
+    }
+
+    static class CountingPolicy implements DiscountPolicy {
+        private final int amount;
+        private final long spinNanos;
+        int calls;
+
+        CountingPolicy(int amount, long spinNanos) {
+            this.amount = amount;
+            this.spinNanos = spinNanos;
+        }
+
+        @Override
+        public int discount(Member member, int price) {
+            calls++;
+            long start = System.nanoTime();
+            while (System.nanoTime() - start < spinNanos) {
+                Thread.onSpinWait();
+            }
+            return amount;
+        }
+    }
+}
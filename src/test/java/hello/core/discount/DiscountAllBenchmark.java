@@ -0,0 +1,72 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * 건마다 discount 를 호출할 때와 discountAll 로 한 번에 계산할 때의 처리량(코어 하나 기준 건/초). ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class DiscountAllBenchmark {
+
+    static final int SIZE = 1 << 16;
+    static final int ROUNDS = 2_000;
+
+    @Test
+    void compareWithScalar() {
+        Random random = new Random(1);
+        byte[] grades = new byte[SIZE];
+        int[] prices = new int[SIZE];
+        Member[] members = new Member[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            Grade grade = Grade.values()[random.nextInt(Grade.values().length)];
+            grades[i] = DiscountPolicy.gradeCode(grade);
+            prices[i] = 1000 + random.nextInt(100_000);
+            members[i] = new Member((long) i, "member" + i, grade);
+        }
+        DiscountPolicy[] policies = {new RateDiscountPolicy(), new FixDiscountPolicy()};
+        String[] names = {"rate", "fix"};
+        int[] out = new int[SIZE];
+        for (int warmup = 0; warmup < 3; warmup++) {
+            for (DiscountPolicy policy : policies) {
+                scalar(policy, members, prices, out, ROUNDS / 10);
+                batch(policy, grades, prices, out, ROUNDS / 10);
+            }
+        }
+        for (int p = 0; p < policies.length; p++) {
+            long start = System.nanoTime();
+            long scalarSum = scalar(policies[p], members, prices, out, ROUNDS);
+            long scalarNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            long batchSum = batch(policies[p], grades, prices, out, ROUNDS);
+            long batchNanos = System.nanoTime() - start;
+            long items = (long) SIZE * ROUNDS;
+            System.out.printf("[%s] scalar %.1f M/s, batch %.1f M/s (%s)%n", names[p],
+                    items * 1e3 / scalarNanos, items * 1e3 / batchNanos, scalarSum == batchSum);
+        }
+    }
+
+    private static long scalar(DiscountPolicy policy, Member[] members, int[] prices, int[] out, int rounds) {
+        long sum = 0;
+        for (int r = 0; r < rounds; r++) {
+            for (int i = 0; i < prices.length; i++) {
+                out[i] = policy.discount(members[i], prices[i]);
+            }
+            sum += out[r & (SIZE - 1)];
+        }
+        return sum;
+    }
+
+    private static long batch(DiscountPolicy policy, byte[] grades, int[] prices, int[] out, int rounds) {
+        long sum = 0;
+        for (int r = 0; r < rounds; r++) {
+            policy.discountAll(grades, prices, out);
+            sum += out[r & (SIZE - 1)];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,58 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DiscountAllTest {
+
+    static final int SIZE = 10_000;
+
+    @Test
+    @DisplayName("한 번에 계산한 결과는 건마다 계산한 결과와 같다")
+    void sameAsScalar() {
+        //given
+        Random random = new Random(42);
+        byte[] grades = new byte[SIZE];
+        int[] prices = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            grades[i] = (byte) (random.nextInt(Grade.values().length + 1) - 1);
+            // 음수, 0, 큰 값(곱셈 오버플로)도 섞는다.
+            prices[i] = i % 100 == 0 ? random.nextInt() : random.nextInt(1_000_000) - 1000;
+        }
+        DiscountPolicy[] policies = {
+                new RateDiscountPolicy(),
+                new FixDiscountPolicy(),
+                new RuleDiscountPolicy(DiscountRuleParser.parse(Arrays.asList(
+                        "grade=VIP price=10000.. discount=20% cap=30000", "grade=BASIC discount=500"))),
+        };
+
+        for (DiscountPolicy policy : policies) {
+            //when
+            int[] out = new int[SIZE];
+            policy.discountAll(grades, prices, out);
+
+            //then
+            int[] expected = new int[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                Grade grade = grades[i] == DiscountPolicy.NO_GRADE ? null : Grade.values()[grades[i]];
+                expected[i] = policy.discount(new Member((long) i, "member" + i, grade), prices[i]);
+            }
+            assertThat(out).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("배열의 길이가 맞지 않으면 예외가 발생한다")
+    void lengthMismatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateDiscountPolicy().discountAll(new byte[2], new int[3], new int[3]));
+    }
+}
@@ -0,0 +1,64 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DiscountPolicyRouterTest {
+
+    Member member = new Member(1L, "userA", Grade.VIP);
+
+    @Test
+    @DisplayName("코드나 번호로 고른 정책으로 할인하고, 정책별 사용 횟수를 센다")
+    void route() {
+        //given
+        DiscountPolicyRouter router = newRouter();
+        int rateId = router.idOf("rateDiscountPolicy");
+
+        //when
+        int fixDiscount = router.discount(member, 10000, "fixDiscountPolicy");
+        int rateDiscount = router.discount(member, 20000, rateId);
+        router.discount(member, 30000, rateId);
+
+        //then
+        assertThat(fixDiscount).isEqualTo(1000);
+        assertThat(rateDiscount).isEqualTo(2000);
+        assertThat(router.codeOf(rateId)).isEqualTo("rateDiscountPolicy");
+        assertThat(router.usageCount(rateId)).isEqualTo(2L);
+        assertThat(router.usageCounts().get("fixDiscountPolicy")).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("번호는 등록 순서와 상관없이 코드의 이름 순서로 정해진다")
+    void denseIdsByName() {
+        //given
+        DiscountPolicyRouter router = newRouter();
+
+        //when
+        //then
+        assertThat(router.policyCount()).isEqualTo(2);
+        assertThat(router.idOf("fixDiscountPolicy")).isEqualTo(0);
+        assertThat(router.idOf("rateDiscountPolicy")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("없는 코드면 예외가 발생한다")
+    void unknownCode() {
+        DiscountPolicyRouter router = newRouter();
+        assertThrows(IllegalArgumentException.class, () -> router.discount(member, 10000, "couponDiscountPolicy"));
+    }
+
+    private static DiscountPolicyRouter newRouter() {
+        Map<String, DiscountPolicy> policyMap = new LinkedHashMap<>();
+        policyMap.put("rateDiscountPolicy", new RateDiscountPolicy());
+        policyMap.put("fixDiscountPolicy", new FixDiscountPolicy());
+        return new DiscountPolicyRouter(policyMap);
+    }
+}
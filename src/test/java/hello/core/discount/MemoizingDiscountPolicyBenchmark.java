@@ -0,0 +1,66 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 인기 가격 몇 천 개에 몰린 요청에서 정책을 그대로 부를 때와 MemoizingDiscountPolicy 로 감쌌을 때의 ns/op. ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class MemoizingDiscountPolicyBenchmark {
+
+    static final int CALLS = 20_000_000;
+    static final int PRICE_POINTS = 3_000;
+
+    @Test
+    void compareWithDirect() {
+        Member[] members = {new Member(1L, "memberVIP", Grade.VIP), new Member(2L, "memberBASIC", Grade.BASIC)};
+        Random random = new Random(3);
+        int[] prices = new int[1 << 16];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 1000 + random.nextInt(PRICE_POINTS) * 100;
+        }
+        List<String> manyRules = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            manyRules.add("grade=BASIC price=" + (i * 10000) + ".." + (i * 10000 + 4999) + " discount=" + (i + 1) + "%");
+        }
+        manyRules.add("grade=VIP discount=10% cap=20000");
+        RuleDiscountPolicy rules = new RuleDiscountPolicy(DiscountRuleParser.parse(manyRules));
+
+        DiscountPolicy[] policies = {
+                new RateDiscountPolicy(),
+                new MemoizingDiscountPolicy(new RateDiscountPolicy()),
+                rules,
+                new MemoizingDiscountPolicy(rules),
+        };
+        String[] names = {"rate", "memo(rate)", "rule(" + manyRules.size() + ")", "memo(rule)"};
+        for (int warmup = 0; warmup < 3; warmup++) {
+            for (DiscountPolicy policy : policies) {
+                run(policy, members, prices, CALLS / 10);
+            }
+        }
+        for (int i = 0; i < policies.length; i++) {
+            long start = System.nanoTime();
+            long sum = run(policies[i], members, prices, CALLS);
+            long elapsed = System.nanoTime() - start;
+            String hitRatio = policies[i] instanceof MemoizingDiscountPolicy
+                    ? String.format(", hit %.3f", ((MemoizingDiscountPolicy) policies[i]).hitRatio())
+                    : "";
+            System.out.printf("[%s] %.1f ns/op%s (%d)%n", names[i], (double) elapsed / CALLS, hitRatio, sum & 1);
+        }
+    }
+
+    private static long run(DiscountPolicy policy, Member[] members, int[] prices, int calls) {
+        long sum = 0;
+        for (int i = 0; i < calls; i++) {
+            sum += policy.discount(members[i & 1], prices[(i >>> 1) & (prices.length - 1)]);
+        }
+        return sum;
+    }
+}
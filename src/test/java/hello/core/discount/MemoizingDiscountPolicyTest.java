@@ -0,0 +1,109 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoizingDiscountPolicyTest {
+
+    @TempDir
+    Path directory;
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    Member basic = new Member(2L, "memberBASIC", Grade.BASIC);
+    Member noGrade = new Member(3L, "memberNoGrade", null);
+
+    @Test
+    @DisplayName("같은 등급과 가격은 한 번만 계산하고, 결과는 감싼 정책과 같다")
+    void memoize() {
+        //given
+        AtomicInteger calls = new AtomicInteger();
+        RateDiscountPolicy rate = new RateDiscountPolicy();
+        MemoizingDiscountPolicy policy = new MemoizingDiscountPolicy((member, price) -> {
+            calls.incrementAndGet();
+            return rate.discount(member, price);
+        });
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            assertThat(policy.discount(vip, 20000)).isEqualTo(2000);
+            assertThat(policy.discount(basic, 20000)).isEqualTo(0);
+        }
+
+        //then
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(policy.hitCount()).isEqualTo(18L);
+        assertThat(policy.missCount()).isEqualTo(2L);
+        assertThat(policy.hitRatio()).isEqualTo(0.9);
+        assertThat(policy.memoryBytes()).isGreaterThan(3L * 8 * MemoizingDiscountPolicy.DEFAULT_CAPACITY);
+    }
+
+    @Test
+    @DisplayName("표보다 가격이 많아서 칸을 덮어써도 결과는 감싼 정책과 같다")
+    void collisions() {
+        //given
+        RateDiscountPolicy rate = new RateDiscountPolicy();
+        MemoizingDiscountPolicy policy = new MemoizingDiscountPolicy(rate, 16);
+        Random random = new Random(7);
+        Member[] members = {vip, basic, noGrade};
+
+        //when
+        //then
+        for (int i = 0; i < 100_000; i++) {
+            Member member = members[random.nextInt(members.length)];
+            int price = random.nextInt(200) * 1000 - 1000;
+            assertThat(policy.discount(member, price)).isEqualTo(rate.discount(member, price));
+        }
+    }
+
+    @Test
+    @DisplayName("규칙 파일을 다시 읽으면 기억한 결과를 버리고 새 규칙으로 계산한다")
+    void invalidateOnReload() throws Exception {
+        //given
+        Path file = directory.resolve("discount-rules.txt");
+        Files.write(file, "grade=VIP discount=10%\n".getBytes(StandardCharsets.UTF_8));
+        ReloadableDiscountPolicy rules = new ReloadableDiscountPolicy(file, false);
+        MemoizingDiscountPolicy policy = new MemoizingDiscountPolicy(rules);
+        int before = policy.discount(vip, 10000);
+
+        //when
+        Files.write(file, "grade=VIP discount=2000\n".getBytes(StandardCharsets.UTF_8));
+        rules.reload();
+        int after = policy.discount(vip, 10000);
+
+        //then
+        assertThat(before).isEqualTo(1000);
+        assertThat(after).isEqualTo(2000);
+        assertThat(policy.invalidationCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("상품명을 넘기면 기억한 결과 대신 상품 규칙까지 적용한다")
+    void itemRules() throws Exception {
+        //given
+        Path file = directory.resolve("discount-rules.txt");
+        Files.write(file, "item=book* discount=5%\ngrade=VIP discount=10%\n".getBytes(StandardCharsets.UTF_8));
+        ReloadableDiscountPolicy rules = new ReloadableDiscountPolicy(file, false);
+        MemoizingDiscountPolicy policy = new MemoizingDiscountPolicy(rules);
+
+        //when
+        int withoutItem = policy.discount(vip, 10000);
+        int book = policy.discount(vip, "bookA", 10000);
+        int other = policy.discount(vip, "itemA", 10000);
+
+        //then
+        assertThat(withoutItem).isEqualTo(1000);
+        assertThat(book).isEqualTo(500);
+        assertThat(other).isEqualTo(1000);
+    }
+}
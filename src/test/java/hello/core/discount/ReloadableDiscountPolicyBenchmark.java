@@ -0,0 +1,79 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 설정을 계속 다시 읽는 동안과 다시 읽지 않을 때의 discount 지연 분포(p50, p99.9). ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class ReloadableDiscountPolicyBenchmark {
+
+    static final int READERS = 4;
+    static final int CALLS = 200_000;
+
+    @TempDir
+    Path directory;
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+
+    @Test
+    void latencyDuringReload() throws Exception {
+        Path file = directory.resolve("discount-rules.txt");
+        ReloadableDiscountPolicyTest.write(file, ReloadableDiscountPolicyTest.CONFIG_A);
+        ReloadableDiscountPolicy policy = new ReloadableDiscountPolicy(file, false);
+        measure(policy, file, false);
+
+        long[] baseline = measure(policy, file, false);
+        long[] reloading = measure(policy, file, true);
+        System.out.printf("baseline  p50=%dns p99.9=%dns%n", baseline[0], baseline[1]);
+        System.out.printf("reloading p50=%dns p99.9=%dns reloads=%d%n", reloading[0], reloading[1], policy.reloadCount());
+        // 다시 읽는 중에도 discount 는 락을 잡지 않으므로 꼬리 지연이 크게 늘지 않아야 한다.
+        assertThat(reloading[1]).isLessThan(Math.max(baseline[1] * 10, 1_000_000L));
+    }
+
+    /**
+     * @return {p50, p99.9} (ns)
+     */
+    private long[] measure(ReloadableDiscountPolicy policy, Path file, boolean reload) throws Exception {
+        long[][] latencies = new long[READERS][CALLS];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < READERS; t++) {
+            long[] threadLatencies = latencies[t];
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < CALLS; i++) {
+                    long start = System.nanoTime();
+                    policy.discount(vip, "itemA", 10000);
+                    threadLatencies[i] = System.nanoTime() - start;
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        int round = 0;
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            if (reload) {
+                ReloadableDiscountPolicyTest.write(file, round++ % 2 == 0
+                        ? ReloadableDiscountPolicyTest.CONFIG_B : ReloadableDiscountPolicyTest.CONFIG_A);
+                policy.reload();
+            } else {
+                Thread.sleep(1);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new long[]{all[all.length / 2], all[(int) (all.length * 0.999)]};
+    }
+}
@@ -0,0 +1,166 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReloadableDiscountPolicyTest {
+
+    // 두 설정은 VIP/BASIC 할인 금액의 조합으로 구분된다. (10000 원 기준 1000/0 또는 2000/500)
+    static final String CONFIG_A = "grade=VIP discount=10%\n";
+    static final String CONFIG_B = "grade=VIP discount=2000\ngrade=BASIC discount=500\n";
+
+    @TempDir
+    Path directory;
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    Member basic = new Member(2L, "memberBASIC", Grade.BASIC);
+
+    @Test
+    @DisplayName("파일이 바뀌면 다시 읽어서 새 할인 설정을 적용한다")
+    void reloadOnChange() throws Exception {
+        //given
+        Path file = directory.resolve("discount-rules.txt");
+        write(file, CONFIG_A);
+        ReloadableDiscountPolicy policy = new ReloadableDiscountPolicy(file, true);
+        List<RuleDiscountPolicy> reloaded = new ArrayList<>();
+        policy.addReloadListener(reloaded::add);
+        assertThat(policy.discount(vip, 10000)).isEqualTo(1000);
+
+        //when
+        write(file, CONFIG_B);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (policy.reloadCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        policy.close();
+
+        //then
+        assertThat(policy.discount(vip, 10000)).isEqualTo(2000);
+        assertThat(policy.discount(basic, 10000)).isEqualTo(500);
+        assertThat(reloaded).hasSize(1);
+        assertThat(reloaded.get(0)).isSameAs(policy.snapshot());
+    }
+
+    @Test
+    @DisplayName("검증에 실패한 설정은 적용하지 않고 이전 설정을 유지한다")
+    void keepPreviousOnInvalidConfig() throws Exception {
+        //given
+        Path file = directory.resolve("discount-rules.txt");
+        write(file, CONFIG_A);
+        ReloadableDiscountPolicy policy = new ReloadableDiscountPolicy(file, false);
+
+        //when
+        write(file, "grade=GOLD discount=10%\n");
+        boolean invalid = policy.reload();
+        write(file, "\n# 모두 주석\n");
+        boolean empty = policy.reload();
+
+        //then
+        assertThat(invalid).isFalse();
+        assertThat(empty).isFalse();
+        assertThat(policy.failureCount()).isEqualTo(2L);
+        assertThat(policy.getLastFailure()).isNotNull();
+        assertThat(policy.discount(vip, 10000)).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("리스너가 예외를 던져도 새 설정은 적용되고, 다른 리스너와 파일 감시는 계속 동작한다")
+    void listenerFailure() throws Exception {
+        //given
+        Path file = directory.resolve("discount-rules.txt");
+        write(file, CONFIG_A);
+        ReloadableDiscountPolicy policy = new ReloadableDiscountPolicy(file, true);
+        List<RuleDiscountPolicy> reloaded = new ArrayList<>();
+        policy.addReloadListener(next -> {
+            throw new IllegalStateException("listener failure");
+        });
+        policy.addReloadListener(reloaded::add);
+
+        //when
+        write(file, CONFIG_B);
+        awaitReloads(policy, 1);
+        int afterFirst = policy.discount(basic, 10000);
+        write(file, CONFIG_A);
+        awaitReloads(policy, 2);
+        policy.close();
+
+        //then
+        assertThat(afterFirst).isEqualTo(500);
+        assertThat(policy.discount(vip, 10000)).isEqualTo(1000);
+        assertThat(reloaded).hasSize(2);
+        assertThat(policy.listenerFailureCount()).isEqualTo(2L);
+        assertThat(policy.getLastListenerFailure()).isInstanceOf(IllegalStateException.class);
+        assertThat(policy.failureCount()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("부하 중에 설정을 계속 바꿔도 discount 는 항상 두 설정 중 하나의 결과를 돌려준다")
+    void reloadUnderLoad() throws Exception {
+        //given
+        Path file = directory.resolve("discount-rules.txt");
+        write(file, CONFIG_A);
+        ReloadableDiscountPolicy policy = new ReloadableDiscountPolicy(file, false);
+        int readers = 4;
+        int calls = 200_000;
+        AtomicInteger invalid = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < readers; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < calls; i++) {
+                    int vipDiscount = policy.discount(vip, "itemA", 10000);
+                    int basicDiscount = policy.discount(basic, "itemA", 10000);
+                    if ((vipDiscount != 1000 && vipDiscount != 2000) || (basicDiscount != 0 && basicDiscount != 500)) {
+                        invalid.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        //when
+        int reloads = 0;
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            write(file, reloads % 2 == 0 ? CONFIG_B : CONFIG_A);
+            if (policy.reload()) {
+                reloads++;
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        //then
+        assertThat(reloads).isGreaterThan(0);
+        assertThat(invalid.get()).isEqualTo(0);
+    }
+
+    private static void awaitReloads(ReloadableDiscountPolicy policy, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (policy.reloadCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * 임시 파일에 쓰고 rename 으로 바꾼다.
+     */
+    static void write(Path file, String content) throws Exception {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, content.getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,69 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 직접 작성한 정책(RateDiscountPolicy, FixDiscountPolicy)과 규칙 정책의 할인 계산 속도(ns/op)와 할당량. ./gradlew benchmark 로 실행한다.
+ * 할당량은 com.sun.management.ThreadMXBean.getThreadAllocatedBytes 로 잰다.
+ */
+@Tag("benchmark")
+class RuleDiscountPolicyBenchmark {
+
+    static final int CALLS = 20_000_000;
+    static final String[] ITEM_NAMES = {"itemA", "book-java", "summer-event-1", "itemB"};
+
+    @Test
+    void compareWithHandWritten() {
+        Member[] members = {new Member(1L, "memberVIP", Grade.VIP), new Member(2L, "memberBASIC", Grade.BASIC)};
+        List<String> manyRules = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            manyRules.add("grade=BASIC item=promo" + i + "* discount=" + (i + 1) + "%");
+        }
+        manyRules.add("item=book* discount=5%");
+        manyRules.add("grade=VIP price=100000.. discount=20% cap=30000");
+        manyRules.add("grade=VIP price=10000..99999 discount=10%");
+
+        DiscountPolicy[] policies = {
+                new RateDiscountPolicy(),
+                new FixDiscountPolicy(),
+                new RuleDiscountPolicy(DiscountRuleParser.parse(Arrays.asList("grade=VIP discount=10%"))),
+                new RuleDiscountPolicy(DiscountRuleParser.parse(manyRules)),
+        };
+        String[] names = {"rate", "fix", "rule(1)", "rule(" + manyRules.size() + ")"};
+        for (int warmup = 0; warmup < 3; warmup++) {
+            for (DiscountPolicy policy : policies) {
+                run(policy, members, CALLS / 10);
+            }
+        }
+        for (int i = 0; i < policies.length; i++) {
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            long sum = run(policies[i], members, CALLS);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("[%s] %.1f ns/op, %.2f bytes/op (%d)%n", names[i], (double) elapsed / CALLS,
+                    (double) (allocatedBytes() - bytes) / CALLS, sum & 1);
+        }
+    }
+
+    private static long run(DiscountPolicy policy, Member[] members, int calls) {
+        long sum = 0;
+        for (int i = 0; i < calls; i++) {
+            sum += policy.discount(members[i & 1], ITEM_NAMES[(i >>> 1) & 3], 5000 + (i & 0x3FFFF));
+        }
+        return sum;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
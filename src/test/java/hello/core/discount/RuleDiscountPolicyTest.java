@@ -0,0 +1,77 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RuleDiscountPolicyTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    Member basic = new Member(2L, "memberBASIC", Grade.BASIC);
+
+    @Test
+    @DisplayName("규칙으로 정의한 정책은 기존 정률/정액 할인 정책과 같은 금액을 계산한다")
+    void sameAsHandWrittenPolicies() {
+        //given
+        RuleDiscountPolicy rate = policy("grade=VIP discount=10%");
+        RuleDiscountPolicy fix = policy("grade=VIP discount=1000");
+        RateDiscountPolicy rateDiscountPolicy = new RateDiscountPolicy();
+        FixDiscountPolicy fixDiscountPolicy = new FixDiscountPolicy();
+
+        //when, then
+        for (Member member : new Member[]{vip, basic}) {
+            for (int price = 0; price <= 100_000; price += 777) {
+                assertThat(rate.discount(member, price)).isEqualTo(rateDiscountPolicy.discount(member, price));
+                assertThat(fix.discount(member, price)).isEqualTo(fixDiscountPolicy.discount(member, price));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("가격 구간, 상품명 패턴, 상한을 조합한 규칙 중 위에 있는 규칙이 먼저 적용된다")
+    void rulePriority() {
+        //given
+        RuleDiscountPolicy policy = policy(
+                "# 책은 등급과 상관없이 5%",
+                "item=book* discount=5%",
+                "grade=VIP price=100000.. discount=20% cap=30000",
+                "grade=VIP price=10000..99999 discount=10%",
+                "grade=BASIC item=*event* discount=2000",
+                "price=..9999 discount=0");
+
+        //then
+        assertThat(policy.discount(basic, "book-java", 20000)).isEqualTo(1000);
+        assertThat(policy.discount(vip, "book-java", 200000)).isEqualTo(10000);
+        assertThat(policy.discount(vip, "itemA", 200000)).isEqualTo(30000);
+        assertThat(policy.discount(vip, "itemA", 100000)).isEqualTo(20000);
+        assertThat(policy.discount(vip, "itemA", 99999)).isEqualTo(9999);
+        assertThat(policy.discount(vip, "itemA", 9999)).isEqualTo(0);
+        assertThat(policy.discount(basic, "summer-event-1", 50000)).isEqualTo(2000);
+        assertThat(policy.discount(basic, "itemA", 50000)).isEqualTo(0);
+        assertThat(policy.discount(basic, null, 50000)).isEqualTo(0);
+        assertThat(policy.discount(new Member(3L, "noGrade", null), "book-java", 20000)).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("잘못된 규칙은 몇 번째 줄인지 알려준다")
+    void invalidRule() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> policy("grade=VIP discount=10%", "grade=GOLD discount=10%"));
+        assertThat(e.getMessage()).startsWith("할인 규칙 2 번째 줄");
+        assertThrows(IllegalArgumentException.class, () -> policy("grade=VIP"));
+        assertThrows(IllegalArgumentException.class, () -> policy("price=5000..1000 discount=1000"));
+        assertThrows(IllegalArgumentException.class, () -> policy("discount=1.234%"));
+    }
+
+    private static RuleDiscountPolicy policy(String... lines) {
+        List<DiscountRule> rules = DiscountRuleParser.parse(Arrays.asList(lines));
+        return new RuleDiscountPolicy(rules);
+    }
+}
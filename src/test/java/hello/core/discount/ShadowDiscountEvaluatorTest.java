@@ -0,0 +1,101 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import hello.core.order.Order;
+import hello.core.order.OrderServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShadowDiscountEvaluatorTest {
+
+    Member vip = new Member(23_001L, "memberVIP", Grade.VIP);
+    Member basic = new Member(23_002L, "memberBASIC", Grade.BASIC);
+
+    @Test
+    @DisplayName("주문 결과는 지금 정책을 따르고, 후보 정책과 다른 결과는 차이로 기록한다")
+    void recordDivergence() {
+        //given
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(vip);
+        memberRepository.save(basic);
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+        ShadowDiscountEvaluator evaluator = new ShadowDiscountEvaluator(new FixDiscountPolicy(), 1.0);
+        orderService.setShadowEvaluator(evaluator);
+
+        //when
+        Order order = orderService.createOrder(vip.getId(), "itemA", 20000);
+        orderService.createOrders(new long[]{vip.getId(), basic.getId()}, new String[]{"itemB", "itemC"},
+                new int[]{20000, 20000});
+        orderService.createOrderAsync(basic.getId(), "itemD", 20000).join();
+        evaluator.close();
+
+        //then
+        assertThat(order.getDiscountPrice()).isEqualTo(2000);
+        assertThat(evaluator.sampledCount()).isEqualTo(4L);
+        assertThat(evaluator.evaluatedCount()).isEqualTo(4L);
+        assertThat(evaluator.divergenceCount()).isEqualTo(2L);
+        assertThat(evaluator.divergenceRate()).isEqualTo(0.5);
+        // 차이는 2000 - 1000 = 1000 이고, [512, 1024) 구간에 들어간다.
+        assertThat(evaluator.divergenceHistogram().percentile(1.0)).isEqualTo(1023L);
+        assertThat(evaluator.latencyHistogram().count()).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("후보 정책이 밀리면 대기열을 넘는 주문은 기다리지 않고 버린다")
+    void dropUnderLoad() throws Exception {
+        //given
+        CountDownLatch release = new CountDownLatch(1);
+        DiscountPolicy slowCandidate = (member, price) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 0;
+        };
+        ShadowDiscountEvaluator evaluator = new ShadowDiscountEvaluator(slowCandidate, 1.0, 4);
+
+        //when
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            evaluator.offer(vip, "itemA", 10000, 1000);
+        }
+        long elapsed = System.nanoTime() - start;
+        release.countDown();
+        evaluator.close();
+
+        //then
+        assertThat(evaluator.sampledCount()).isEqualTo(1000L);
+        // 계산 중인 1 건과 대기열의 4 건 말고는 버린다.
+        assertThat(evaluator.droppedCount()).isGreaterThanOrEqualTo(995L);
+        assertThat(evaluator.evaluatedCount() + evaluator.droppedCount()).isEqualTo(1000L);
+        assertThat(elapsed).isLessThan(1_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("표본 비율만큼만 후보 정책으로 계산한다")
+    void sampling() {
+        //given
+        ShadowDiscountEvaluator none = new ShadowDiscountEvaluator(new FixDiscountPolicy(), 0);
+        ShadowDiscountEvaluator tenth = new ShadowDiscountEvaluator(new FixDiscountPolicy(), 0.1, 100_000);
+
+        //when
+        for (int i = 0; i < 100_000; i++) {
+            none.offer(vip, "itemA", 10000, 1000);
+            tenth.offer(vip, "itemA", 10000, 1000);
+        }
+        none.close();
+        tenth.close();
+
+        //then
+        assertThat(none.sampledCount()).isEqualTo(0L);
+        assertThat(tenth.sampledCount()).isBetween(9_000L, 11_000L);
+        assertThat(tenth.divergenceCount()).isEqualTo(0L);
+    }
+}
@@ -0,0 +1,100 @@
+package hello.core.importer;
+
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MemberImporterTest {
+
+    static final int ROWS = 50_000;
+
+    @TempDir
+    Path directory;
+
+    ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+    // chunk 를 작게 잡아서 여러 chunk 로 나뉘게 하고, 큐도 작게 잡아서 backpressure 가 걸리게 한다.
+    MemberImporter importer = new MemberImporter(new MemberServiceImpl(memberRepository), 4, 64 * 1024, 100, 2);
+
+    @Test
+    @DisplayName("CSV 파일의 모든 회원을 가입시킨다.")
+    void importCsv() throws IOException {
+        //given
+        Path file = directory.resolve("members.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("id,name,grade\n");
+            for (int id = 0; id < ROWS; id++) {
+                writer.write(id + ",회원" + id + "," + (id % 3 == 0 ? "VIP" : "BASIC") + (id % 2 == 0 ? "\n" : "\r\n"));
+            }
+        }
+
+        //when
+        ImportResult result = importer.importFile(file, new CsvMemberFormat());
+
+        //then
+        assertThat(result.getRows()).isEqualTo((long) ROWS);
+        assertThat(result.getChunks()).isGreaterThan(1);
+        assertThat(memberRepository.size()).isEqualTo(ROWS);
+        assertThat(memberRepository.findById(0L).getName()).isEqualTo("회원0");
+        assertThat(memberRepository.findById(0L).getGrade()).isEqualTo(Grade.VIP);
+        assertThat(memberRepository.findById(ROWS - 1L).getName()).isEqualTo("회원" + (ROWS - 1));
+        assertThat(memberRepository.findById(ROWS - 1L).getGrade()).isEqualTo(Grade.BASIC);
+    }
+
+    @Test
+    @DisplayName("바이너리 파일의 모든 회원을 가입시킨다.")
+    void importBinary() throws IOException {
+        //given
+        Path file = directory.resolve("members.bin");
+        List<Member> members = new ArrayList<>();
+        for (long id = 0; id < ROWS; id++) {
+            members.add(new Member(id, "member" + id, id % 3 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        BinaryMemberFormat.write(file, members);
+
+        //when
+        ImportResult result = importer.importFile(file, new BinaryMemberFormat());
+
+        //then
+        assertThat(result.getRows()).isEqualTo((long) ROWS);
+        assertThat(result.rowsPerSecond()).isGreaterThan(0);
+        assertThat(memberRepository.size()).isEqualTo(ROWS);
+        assertThat(memberRepository.findById(12_345L).getName()).isEqualTo("member12345");
+    }
+
+    @Test
+    @DisplayName("잘못된 줄이 있으면 실패한다.")
+    void invalidCsv() throws IOException {
+        Path file = directory.resolve("invalid.csv");
+        Files.write(file, "1,memberA,VIP\n2,memberB,GOLD\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalStateException.class, () -> importer.importFile(file, new CsvMemberFormat()));
+    }
+
+    @Test
+    @DisplayName("마지막 줄이 쉼표 전에 끊겨 있으면 잘못된 줄로 실패한다.")
+    void truncatedCsv() throws IOException {
+        Path file = directory.resolve("truncated.csv");
+        Files.write(file, "1,memberA,VIP\n2,memb".getBytes(StandardCharsets.UTF_8));
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> importer.importFile(file, new CsvMemberFormat()));
+
+        assertThat(thrown.getCause()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(thrown.getCause().getMessage()).contains("2,memb");
+    }
+}
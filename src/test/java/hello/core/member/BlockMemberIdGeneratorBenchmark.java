@@ -0,0 +1,58 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 스레드 수(1 ~ 64)에 따른 id 발급 처리량. 전역 AtomicLong 하나를 쓰는 경우와 비교한다.
+ * ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class BlockMemberIdGeneratorBenchmark {
+
+    static final int IDS_PER_THREAD = 2_000_000;
+
+    @Test
+    void contention() throws InterruptedException {
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            BlockMemberIdGenerator generator = new BlockMemberIdGenerator();
+            AtomicLong counter = new AtomicLong();
+            long blockOps = run(threads, generator::nextId);
+            long atomicOps = run(threads, counter::incrementAndGet);
+            System.out.printf("threads=%2d block=%,d ids/s atomicLong=%,d ids/s%n", threads, blockOps, atomicOps);
+        }
+    }
+
+    private long run(int threads, LongSupplier supplier) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long[] sink = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long last = 0;
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    last = supplier.getAsLong();
+                }
+                sink[index] = last;
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        return (long) threads * IDS_PER_THREAD * 1_000_000_000L / elapsed;
+    }
+}
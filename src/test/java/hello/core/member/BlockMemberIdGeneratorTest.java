@@ -0,0 +1,86 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockMemberIdGeneratorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 발급받아도 id 가 겹치지 않는다.")
+    void uniqueAcrossThreads() throws Exception {
+        //given
+        BlockMemberIdGenerator generator = new BlockMemberIdGenerator(directory.resolve("member-id.hwm"), 100);
+        int threadCount = 16;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<long[]>> futures = new ArrayList<>();
+
+        //when
+        for (int t = 0; t < threadCount; t++) {
+            futures.add(executor.submit(() -> {
+                long[] ids = new long[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            }));
+        }
+        ConcurrentMemberRepository seen = new ConcurrentMemberRepository();
+        for (Future<long[]> future : futures) {
+            for (long id : future.get()) {
+                assertThat(seen.findById(id)).isNull();
+                seen.save(new Member(id, null, null));
+            }
+        }
+        executor.shutdown();
+
+        //then
+        assertThat(seen.size()).isEqualTo(threadCount * perThread);
+        assertThat(seen.findById(0L)).isNull();
+    }
+
+    @Test
+    @DisplayName("재시작하면 이전에 발급한 id 보다 큰 id 부터 발급한다.")
+    void neverReuseAfterRestart() {
+        //given
+        Path file = directory.resolve("member-id.hwm");
+        BlockMemberIdGenerator before = new BlockMemberIdGenerator(file, 10);
+        long max = 0;
+        for (int i = 0; i < 5_000; i++) {
+            max = Math.max(max, before.nextId());
+        }
+
+        //when
+        BlockMemberIdGenerator after = new BlockMemberIdGenerator(file, 10);
+
+        //then
+        assertThat(after.nextId()).isGreaterThan(max);
+        assertThat(before.getHighWaterMark()).isGreaterThan(max);
+    }
+
+    @Test
+    @DisplayName("id 없이 가입하면 서버가 id 를 발급한다.")
+    void joinAssignsId() {
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+        MemberService memberService = new MemberServiceImpl(memberRepository, new BlockMemberIdGenerator());
+
+        Member member = new Member(null, "memberA", Grade.VIP);
+        memberService.join(member);
+
+        assertThat(member.getId()).isNotNull();
+        assertThat(memberService.findMember(member.getId())).isSameAs(member);
+    }
+}
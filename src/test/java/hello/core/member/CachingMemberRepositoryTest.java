@@ -0,0 +1,121 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingMemberRepositoryTest {
+
+    CountingMemberRepository delegate = new CountingMemberRepository();
+
+    @Test
+    @DisplayName("두 번째 조회부터는 원본 저장소를 거치지 않는다.")
+    void readThrough() {
+        //given
+        CachingMemberRepository memberRepository = new CachingMemberRepository(delegate, 100);
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+
+        //when
+        memberRepository.findById(1L);
+        Member member = memberRepository.findById(1L);
+
+        //then
+        assertThat(member.getName()).isEqualTo("memberA");
+        assertThat(delegate.findCount.get()).isEqualTo(1);
+        assertThat(memberRepository.hitCount()).isEqualTo(1L);
+        assertThat(memberRepository.missCount()).isEqualTo(1L);
+        assertThat(memberRepository.hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("저장하면 캐시가 무효화되어 새 값을 읽는다.")
+    void invalidateOnSave() {
+        CachingMemberRepository memberRepository = new CachingMemberRepository(delegate, 100);
+        memberRepository.save(new Member(1L, "before", Grade.BASIC));
+        memberRepository.findById(1L);
+
+        memberRepository.save(new Member(1L, "after", Grade.VIP));
+
+        assertThat(memberRepository.findById(1L).getName()).isEqualTo("after");
+        assertThat(delegate.findCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("크기 제한을 넘지 않고, 자주 조회되는 회원은 한 번씩 훑는 조회에 밀려나지 않는다.")
+    void frequencyAwareEviction() {
+        //given
+        int maximumSize = 100;
+        CachingMemberRepository memberRepository = new CachingMemberRepository(delegate, maximumSize);
+        for (long id = 0; id < 10_000; id++) {
+            delegate.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+        for (int round = 0; round < 5; round++) {
+            for (long hot = 0; hot < 50; hot++) {
+                memberRepository.findById(hot);
+            }
+        }
+
+        //when
+        // 자주 쓰는 회원 조회가 계속 들어오는 중에 한 번씩만 조회되는 회원들을 훑는다.
+        for (long cold = 1_000; cold < 10_000; cold++) {
+            memberRepository.findById(cold);
+            if (cold % 100 == 0) {
+                for (long hot = 0; hot < 50; hot++) {
+                    memberRepository.findById(hot);
+                }
+            }
+        }
+        int before = delegate.findCount.get();
+        for (long hot = 0; hot < 50; hot++) {
+            memberRepository.findById(hot);
+        }
+
+        //then
+        assertThat(memberRepository.size()).isLessThanOrEqualTo(maximumSize);
+        assertThat(delegate.findCount.get() - before).isEqualTo(0);
+        assertThat(memberRepository.rejectionCount()).isGreaterThan(0L);
+    }
+
+    @Test
+    @DisplayName("배치 조회는 캐시에 없는 회원만 원본 저장소에 묻는다.")
+    void findAllById() {
+        CachingMemberRepository memberRepository = new CachingMemberRepository(delegate, 100);
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        memberRepository.save(new Member(2L, "memberB", Grade.BASIC));
+        memberRepository.findById(1L);
+
+        List<Member> members = memberRepository.findAllById(new long[]{1L, 2L, 3L});
+
+        assertThat(members.get(0).getName()).isEqualTo("memberA");
+        assertThat(members.get(1).getName()).isEqualTo("memberB");
+        assertThat(members.get(2)).isNull();
+        assertThat(delegate.lastBatchSize).isEqualTo(2);
+    }
+
+    static class CountingMemberRepository extends ConcurrentMemberRepository {
+        final AtomicInteger findCount = new AtomicInteger();
+        int lastBatchSize;
+
+        @Override
+        public Member findById(Long memberId) {
+            findCount.incrementAndGet();
+            return super.findById(memberId);
+        }
+
+        @Override
+        public Member findById(long memberId) {
+            findCount.incrementAndGet();
+            return super.findById(memberId);
+        }
+
+        @Override
+        public List<Member> findAllById(long[] memberIds) {
+            lastBatchSize = memberIds.length;
+            return super.findAllById(memberIds);
+        }
+    }
+}
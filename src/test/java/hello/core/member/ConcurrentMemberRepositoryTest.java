@@ -0,0 +1,137 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentMemberRepositoryTest {
+
+    ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+
+    @Test
+    void saveAndFind() {
+        //given
+        Member member = new Member(1L, "memberA", Grade.VIP);
+
+        //when
+        memberRepository.save(member);
+
+        //then
+        assertThat(memberRepository.findById(1L)).isSameAs(member);
+        assertThat(memberRepository.findById(Long.valueOf(1L))).isSameAs(member);
+        assertThat(memberRepository.findById(2L)).isNull();
+        assertThat(memberRepository.findById((Long) null)).isNull();
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 저장해도 유실되는 회원이 없어야 한다.")
+    void concurrentSaveNoLostUpdate() throws Exception {
+        //given
+        int threadCount = 16;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (int t = 0; t < threadCount; t++) {
+            long base = (long) t * perThread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long id = base; id < base + perThread; id++) {
+                    memberRepository.save(new Member(id, "member" + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+                }
+                return null;
+            }));
+            // 쓰기와 동시에 읽기 스레드도 돌린다.
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long id = base; id < base + perThread; id++) {
+                    Member found = memberRepository.findById(id);
+                    if (found != null && found.getId() != id) {
+                        throw new IllegalStateException("다른 회원이 조회됨 id=" + id);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        //then
+        assertThat(memberRepository.size()).isEqualTo(threadCount * perThread);
+        for (long id = 0; id < (long) threadCount * perThread; id++) {
+            Member found = memberRepository.findById(id);
+            assertThat(found).isNotNull();
+            assertThat(found.getName()).isEqualTo("member" + id);
+        }
+    }
+
+    @Test
+    @DisplayName("같은 회원을 여러 스레드가 덮어써도 회원 수는 늘어나지 않는다.")
+    void concurrentOverwrite() throws Exception {
+        //given
+        int threadCount = 8;
+        int memberCount = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (int t = 0; t < threadCount; t++) {
+            String name = "thread" + t;
+            futures.add(executor.submit(() -> {
+                for (int round = 0; round < 100; round++) {
+                    for (long id = 0; id < memberCount; id++) {
+                        memberRepository.save(new Member(id, name, Grade.BASIC));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        //then
+        assertThat(memberRepository.size()).isEqualTo(memberCount);
+        for (long id = 0; id < memberCount; id++) {
+            assertThat(memberRepository.findById(id).getName()).startsWith("thread");
+        }
+    }
+
+    @Test
+    @DisplayName("배치 저장 후 배치 조회하면 같은 순서로, 없는 id 는 null 로 돌려준다.")
+    void saveAllAndFindAllById() {
+        //given
+        List<Member> members = new ArrayList<>();
+        for (long id = 0; id < 1_000; id++) {
+            members.add(new Member(id, "member" + id, Grade.BASIC));
+        }
+        members.add(new Member(0L, "last", Grade.VIP));
+
+        //when
+        memberRepository.saveAll(members);
+        List<Member> found = memberRepository.findAllById(new long[]{999L, 0L, 5_000L});
+
+        //then
+        assertThat(memberRepository.size()).isEqualTo(1_000);
+        assertThat(found).hasSize(3);
+        assertThat(found.get(0).getName()).isEqualTo("member999");
+        assertThat(found.get(1).getName()).isEqualTo("last");
+        assertThat(found.get(2)).isNull();
+    }
+}
@@ -0,0 +1,111 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexedMemberRepositoryTest {
+
+    IndexedMemberRepository memberRepository = new IndexedMemberRepository(new ConcurrentMemberRepository());
+
+    @Test
+    @DisplayName("등급으로 회원을 찾을 수 있고, 등급이 바뀌면 인덱스도 바뀐다.")
+    void findByGrade() {
+        //given
+        memberRepository.saveAll(Arrays.asList(
+                new Member(1L, "memberA", Grade.VIP),
+                new Member(2L, "memberB", Grade.BASIC),
+                new Member(3L, "memberC", Grade.VIP)));
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+
+        //when
+        List<Long> vipIds = memberRepository.findByGrade(Grade.VIP).map(Member::getId).collect(Collectors.toList());
+        List<Long> basicIds = memberRepository.findByGrade(Grade.BASIC).map(Member::getId).collect(Collectors.toList());
+
+        //then
+        assertThat(vipIds).containsExactly(3L);
+        assertThat(basicIds).containsExactly(1L, 2L);
+        assertThat(memberRepository.countByGrade(Grade.BASIC)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("이름 prefix 로 회원을 찾을 수 있고, 이름이 바뀌면 이전 이름으로는 찾을 수 없다.")
+    void findByNamePrefix() {
+        //given
+        memberRepository.save(new Member(1L, "kim", Grade.VIP));
+        memberRepository.save(new Member(2L, "kimchi", Grade.BASIC));
+        memberRepository.save(new Member(3L, "lee", Grade.BASIC));
+        memberRepository.save(new Member(4L, "ki", Grade.BASIC));
+        memberRepository.save(new Member(4L, "park", Grade.BASIC));
+
+        //when
+        List<String> names = memberRepository.findByNamePrefix("ki").map(Member::getName).collect(Collectors.toList());
+
+        //then
+        assertThat(names).containsExactly("kim", "kimchi");
+        assertThat(memberRepository.findByNamePrefix("p").count()).isEqualTo(1L);
+        assertThat(memberRepository.findByNamePrefix("x").count()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("큰 결과도 필요한 만큼만 꺼내 온다.")
+    void lazyResult() {
+        //given
+        for (long id = 0; id < 200_000; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+
+        //when
+        Iterator<Member> vips = memberRepository.findByGrade(Grade.VIP).iterator();
+
+        //then
+        assertThat(vips.next().getId()).isEqualTo(0L);
+        assertThat(vips.next().getId()).isEqualTo(2L);
+        assertThat(memberRepository.findByGrade(Grade.VIP).skip(99_999).findFirst().get().getId()).isEqualTo(199_998L);
+    }
+
+    @Test
+    @DisplayName("같은 회원을 동시에 저장해서 원본 저장소와 인덱스에 반영되는 순서가 달라도 인덱스는 저장소에 남은 값을 따른다.")
+    void concurrentSameId() throws Exception {
+        //given
+        // VIP 저장은 원본 저장소에 쓴 뒤, BASIC 저장이 인덱스까지 끝날 때까지 기다렸다가 인덱스를 갱신한다.
+        CountDownLatch basicSaved = new CountDownLatch(1);
+        ConcurrentMemberRepository store = new ConcurrentMemberRepository() {
+            @Override
+            public void save(Member member) {
+                super.save(member);
+                if (member.getGrade() == Grade.VIP) {
+                    try {
+                        basicSaved.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        IndexedMemberRepository repository = new IndexedMemberRepository(store);
+        Thread vipSave = new Thread(() -> repository.save(new Member(1L, "memberVIP", Grade.VIP)));
+        vipSave.start();
+        while (store.findById(1L) == null) {
+            Thread.onSpinWait();
+        }
+
+        //when
+        repository.save(new Member(1L, "memberBASIC", Grade.BASIC));
+        basicSaved.countDown();
+        vipSave.join();
+
+        //then
+        assertThat(repository.findById(1L).getGrade()).isEqualTo(Grade.BASIC);
+        assertThat(repository.findByGrade(Grade.BASIC).count()).isEqualTo(1L);
+        assertThat(repository.countByGrade(Grade.VIP)).isEqualTo(0);
+        assertThat(repository.findByNamePrefix("memberBASIC").count()).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,60 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+/**
+ * 재시작(복구) 시간 측정. ./gradlew benchmark 로 실행한다.
+ * -Dbenchmark.members=1000000,10000000 으로 회원 수를 바꿀 수 있다.
+ */
+@Tag("benchmark")
+class MappedLogMemberRepositoryBenchmark {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoveryTime() {
+        for (String value : System.getProperty("benchmark.members", "1000000,10000000").split(",")) {
+            int memberCount = Integer.parseInt(value.trim());
+            Path logOnly = directory.resolve("log-only-" + memberCount);
+            Path withSnapshot = directory.resolve("snapshot-" + memberCount);
+
+            // 스냅샷 없이 전체 이력을 재생하는 경우
+            try (MappedLogMemberRepository memberRepository = new MappedLogMemberRepository(logOnly,
+                    MappedLogMemberRepository.DEFAULT_SEGMENT_SIZE, Integer.MAX_VALUE)) {
+                fill(memberRepository, memberCount);
+            }
+            // 스냅샷 + 1% tail 만 재생하는 경우
+            try (MappedLogMemberRepository memberRepository = new MappedLogMemberRepository(withSnapshot)) {
+                fill(memberRepository, memberCount);
+                memberRepository.snapshot();
+                for (long id = 0; id < memberCount / 100; id++) {
+                    memberRepository.save(new Member(id, "updated" + id, Grade.VIP));
+                }
+            }
+
+            report("log only", logOnly, memberCount);
+            report("snapshot + tail", withSnapshot, memberCount);
+        }
+    }
+
+    private void fill(MappedLogMemberRepository memberRepository, int memberCount) {
+        for (long id = 0; id < memberCount; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+    }
+
+    private void report(String name, Path path, int memberCount) {
+        System.gc();
+        try (MappedLogMemberRepository memberRepository = new MappedLogMemberRepository(path,
+                MappedLogMemberRepository.DEFAULT_SEGMENT_SIZE, Integer.MAX_VALUE)) {
+            System.out.printf("[%s] members=%d snapshotMembers=%d replayedRecords=%d recovery=%dms%n",
+                    name, memberCount, memberRepository.getSnapshotMembers(), memberRepository.getReplayedRecords(),
+                    memberRepository.getRecoveryNanos() / 1_000_000);
+        }
+    }
+}
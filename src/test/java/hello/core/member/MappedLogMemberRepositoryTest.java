@@ -0,0 +1,141 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedLogMemberRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("재시작해도 저장한 회원이 남아 있어야 한다.")
+    void recoverAfterRestart() {
+        //given
+        try (MappedLogMemberRepository memberRepository = new MappedLogMemberRepository(directory, 4096, 2)) {
+            memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+            memberRepository.save(new Member(2L, "memberB", Grade.BASIC));
+            memberRepository.save(new Member(1L, "memberA2", Grade.BASIC));
+        }
+
+        //when
+        try (MappedLogMemberRepository memberRepository = new MappedLogMemberRepository(directory, 4096, 2)) {
+            //then
+            assertThat(memberRepository.size()).isEqualTo(2);
+            assertThat(memberRepository.findById(1L).getName()).isEqualTo("memberA2");
+            assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.BASIC);
+            assertThat(memberRepository.findById(2L).getName()).isEqualTo("memberB");
+            assertThat(memberRepository.getReplayedRecords()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    @DisplayName("segment 를 여러 번 넘기면 스냅샷이 만들어지고, 재시작 시 tail 만 재생한다.")
+    void snapshotCompactsHistory() throws IOException {
+        //given
+        int memberCount = 500;
+        try (MappedLogMemberRepository memberRepository = new MappedLogMemberRepository(directory, 4096, 2)) {
+            for (int round = 0; round < 10; round++) {
+                for (long id = 0; id < memberCount; id++) {
+                    memberRepository.save(new Member(id, "member" + id + "-" + round, Grade.VIP));
+                }
+            }
+        }
+
+        //when
+        try (MappedLogMemberRepository memberRepository = new MappedLogMemberRepository(directory, 4096, 2)) {
+            //then
+            assertThat(memberRepository.size()).isEqualTo(memberCount);
+            for (long id = 0; id < memberCount; id++) {
+                assertThat(memberRepository.findById(id).getName()).isEqualTo("member" + id + "-9");
+            }
+            assertThat(memberRepository.getSnapshotMembers()).isGreaterThan(0);
+            assertThat(memberRepository.getReplayedRecords()).isLessThan(memberCount * 10);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            // 스냅샷 1개 + 스냅샷 이후 segment 들만 남는다.
+            assertThat(files.filter(path -> path.toString().endsWith(".snap")).count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("명시적으로 스냅샷을 만들면 재시작 시 재생할 레코드가 없다.")
+    void explicitSnapshot() {
+        try (MappedLogMemberRepository memberRepository = new MappedLogMemberRepository(directory, 4096, 100)) {
+            memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+            memberRepository.snapshot();
+            memberRepository.save(new Member(2L, null, null));
+        }
+
+        try (MappedLogMemberRepository memberRepository = new MappedLogMemberRepository(directory, 4096, 100)) {
+            assertThat(memberRepository.getSnapshotMembers()).isEqualTo(1);
+            assertThat(memberRepository.getReplayedRecords()).isEqualTo(1);
+            assertThat(memberRepository.findById(1L).getName()).isEqualTo("memberA");
+            assertThat(memberRepository.findById(2L).getName()).isNull();
+            assertThat(memberRepository.findById(2L).getGrade()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("배치 저장 도중 segment 를 넘기고 스냅샷이 만들어져도 유실이 없어야 한다.")
+    void saveAllAcrossSegments() {
+        List<Member> members = new ArrayList<>();
+        for (long id = 0; id < 2_000; id++) {
+            members.add(new Member(id, "member" + id, Grade.VIP));
+        }
+        try (MappedLogMemberRepository memberRepository = new MappedLogMemberRepository(directory, 4096, 1)) {
+            memberRepository.saveAll(members);
+            assertThat(memberRepository.size()).isEqualTo(2_000);
+        }
+
+        try (MappedLogMemberRepository memberRepository = new MappedLogMemberRepository(directory, 4096, 1)) {
+            assertThat(memberRepository.size()).isEqualTo(2_000);
+            List<Member> found = memberRepository.findAllById(new long[]{0L, 1_999L});
+            assertThat(found.get(0).getName()).isEqualTo("member0");
+            assertThat(found.get(1).getName()).isEqualTo("member1999");
+        }
+    }
+
+    @Test
+    @DisplayName("저장하는 동안 스냅샷을 만들어도 재시작하면 마지막으로 저장한 값이 남아 있어야 한다.")
+    void snapshotWhileSaving() throws Exception {
+        //given
+        int memberCount = 200;
+        int rounds = 50;
+        try (MappedLogMemberRepository memberRepository = new MappedLogMemberRepository(directory, 8192, 3)) {
+            Thread writer = new Thread(() -> {
+                for (int round = 0; round < rounds; round++) {
+                    for (long id = 0; id < memberCount; id++) {
+                        memberRepository.save(new Member(id, "member" + id + "-" + round, Grade.VIP));
+                    }
+                }
+            });
+            writer.start();
+
+            //when
+            while (writer.isAlive()) {
+                memberRepository.snapshot();
+            }
+            writer.join();
+            assertThat(memberRepository.getLastSnapshotFailure()).isNull();
+        }
+
+        //then
+        try (MappedLogMemberRepository memberRepository = new MappedLogMemberRepository(directory, 8192, 3)) {
+            assertThat(memberRepository.size()).isEqualTo(memberCount);
+            for (long id = 0; id < memberCount; id++) {
+                assertThat(memberRepository.findById(id).getName()).isEqualTo("member" + id + "-" + (rounds - 1));
+            }
+        }
+    }
+}
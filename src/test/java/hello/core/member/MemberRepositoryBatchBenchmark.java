@@ -0,0 +1,75 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 단건 save 반복과 saveAll 의 처리량 비교. ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class MemberRepositoryBatchBenchmark {
+
+    static final int MEMBER_COUNT = 500_000;
+    static final int BATCH_SIZE = 1_000;
+    static final int ROUNDS = 5;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void batchVersusSingle() {
+        List<Member> members = new ArrayList<>(MEMBER_COUNT);
+        for (long id = 0; id < MEMBER_COUNT; id++) {
+            members.add(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+
+        run("ConcurrentMemberRepository", members, ConcurrentMemberRepository::new);
+        run("OffHeapMemberRepository", members, () -> new OffHeapMemberRepository(MEMBER_COUNT));
+        int[] seq = {0};
+        run("MappedLogMemberRepository", members,
+                () -> new MappedLogMemberRepository(directory.resolve("run" + seq[0]++)));
+    }
+
+    private void run(String name, List<Member> members, Supplier<MemberRepository> factory) {
+        for (int round = 0; round < ROUNDS; round++) {
+            MemberRepository single = factory.get();
+            long start = System.nanoTime();
+            for (Member member : members) {
+                single.save(member);
+            }
+            long singleNanos = System.nanoTime() - start;
+            close(single);
+
+            MemberRepository batch = factory.get();
+            start = System.nanoTime();
+            for (int from = 0; from < members.size(); from += BATCH_SIZE) {
+                batch.saveAll(members.subList(from, Math.min(from + BATCH_SIZE, members.size())));
+            }
+            long batchNanos = System.nanoTime() - start;
+            close(batch);
+
+            System.out.printf("[%s] round=%d single=%,d ops/s batch(%d)=%,d ops/s%n", name, round,
+                    opsPerSecond(members.size(), singleNanos), BATCH_SIZE, opsPerSecond(members.size(), batchNanos));
+        }
+    }
+
+    private static long opsPerSecond(int ops, long nanos) {
+        return ops * 1_000_000_000L / Math.max(nanos, 1);
+    }
+
+    private static void close(MemberRepository memberRepository) {
+        if (memberRepository instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) memberRepository).close();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+
 public class MemberServiceTest {
     MemberService memberService;
 
@@ -25,4 +27,18 @@ public class MemberServiceTest {
         //then
         Assertions.assertThat(member).isEqualTo(findMember);
     }
+
+    @Test
+    void joinAll() {
+        //given
+        Member memberA = new Member(1L, "memberA", Grade.VIP);
+        Member memberB = new Member(2L, "memberB", Grade.BASIC);
+
+        //when
+        memberService.joinAll(Arrays.asList(memberA, memberB));
+
+        //then
+        Assertions.assertThat(memberService.findMember(1L)).isEqualTo(memberA);
+        Assertions.assertThat(memberService.findMember(2L)).isEqualTo(memberB);
+    }
 }
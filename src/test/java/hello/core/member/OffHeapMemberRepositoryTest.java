@@ -0,0 +1,92 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OffHeapMemberRepositoryTest {
+
+    @Test
+    void saveAndFind() {
+        //given
+        OffHeapMemberRepository memberRepository = new OffHeapMemberRepository(16);
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        memberRepository.save(new Member(2L, "회원B", Grade.BASIC));
+        memberRepository.save(new Member(3L, null, null));
+
+        //when
+        Member memberA = memberRepository.findById(1L);
+        Member memberB = memberRepository.findById(2L);
+        Member memberC = memberRepository.findById(3L);
+
+        //then
+        assertThat(memberA.getId()).isEqualTo(1L);
+        assertThat(memberA.getName()).isEqualTo("memberA");
+        assertThat(memberA.getGrade()).isEqualTo(Grade.VIP);
+        assertThat(memberB.getName()).isEqualTo("회원B");
+        assertThat(memberB.getGrade()).isEqualTo(Grade.BASIC);
+        assertThat(memberC.getName()).isNull();
+        assertThat(memberC.getGrade()).isNull();
+        assertThat(memberRepository.findById(4L)).isNull();
+    }
+
+    @Test
+    @DisplayName("같은 id 로 다시 저장하면 덮어쓰고 회원 수는 그대로다.")
+    void overwrite() {
+        OffHeapMemberRepository memberRepository = new OffHeapMemberRepository(16);
+        memberRepository.save(new Member(1L, "before", Grade.BASIC));
+        memberRepository.save(new Member(1L, "after", Grade.VIP));
+
+        Member member = memberRepository.findById(1L);
+        assertThat(member.getName()).isEqualTo("after");
+        assertThat(member.getGrade()).isEqualTo(Grade.VIP);
+        assertThat(memberRepository.size()).isEqualTo(1);
+        assertThat(memberRepository.wastedNameBytes()).isEqualTo(2 + "before".length());
+    }
+
+    @Test
+    @DisplayName("이름 page 를 넘어가도 모든 회원을 찾을 수 있고, 회원당 바이트 수를 보고한다.")
+    void manyMembers() {
+        int count = 100_000;
+        OffHeapMemberRepository memberRepository = new OffHeapMemberRepository(count, 64 * 1024);
+        for (long id = 0; id < count; id++) {
+            memberRepository.save(new Member(id * 31, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+
+        for (long id = 0; id < count; id++) {
+            Member member = memberRepository.findById(id * 31);
+            assertThat(member.getName()).isEqualTo("member" + id);
+        }
+        assertThat(memberRepository.bytesPerMember()).isLessThan(64);
+    }
+
+    @Test
+    void capacityExceeded() {
+        OffHeapMemberRepository memberRepository = new OffHeapMemberRepository(1);
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+
+        assertThrows(IllegalStateException.class,
+                () -> memberRepository.save(new Member(2L, "memberB", Grade.VIP)));
+    }
+
+    @Test
+    void saveAllAndFindAllById() {
+        OffHeapMemberRepository memberRepository = new OffHeapMemberRepository(16);
+        memberRepository.saveAll(Arrays.asList(
+                new Member(1L, "memberA", Grade.VIP),
+                new Member(2L, "memberB", Grade.BASIC),
+                new Member(1L, "memberA2", Grade.BASIC)));
+
+        List<Member> found = memberRepository.findAllById(new long[]{2L, 3L, 1L});
+
+        assertThat(memberRepository.size()).isEqualTo(2);
+        assertThat(found.get(0).getName()).isEqualTo("memberB");
+        assertThat(found.get(1)).isNull();
+        assertThat(found.get(2).getName()).isEqualTo("memberA2");
+    }
+}
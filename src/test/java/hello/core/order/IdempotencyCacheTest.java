@@ -0,0 +1,130 @@
+package hello.core.order;
+
+import hello.core.discount.DiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyCacheTest {
+
+    MemoryOrderRepositoryTest.TestClock clock = new MemoryOrderRepositoryTest.TestClock(1_600_000_000_000L);
+    IdempotencyCache cache = new IdempotencyCache(1_000, Duration.ofMinutes(1), clock);
+
+    @Test
+    @DisplayName("같은 키로 다시 주문하면 회원 조회와 할인 계산 없이 처음 주문을 돌려준다")
+    void repeatKey() {
+        //given
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(17_001L, "memberA", Grade.VIP));
+        AtomicInteger discounts = new AtomicInteger();
+        DiscountPolicy discountPolicy = (member, price) -> {
+            discounts.incrementAndGet();
+            return 1000;
+        };
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, discountPolicy);
+        orderService.setIdempotencyCache(cache);
+
+        //when
+        Order first = orderService.createOrder(17_001L, "itemA", 10000, "request-1");
+        Order retry = orderService.createOrder(17_001L, "itemA", 10000, "request-1");
+        Order other = orderService.createOrder(17_001L, "itemA", 10000, "request-2");
+
+        //then
+        assertThat(retry).isSameAs(first);
+        assertThat(other).isNotNull();
+        assertThat(discounts.get()).isEqualTo(2);
+        assertThat(cache.hitCount()).isEqualTo(1L);
+        assertThat(cache.missCount()).isEqualTo(2L);
+        assertThat(cache.hitRate()).isBetween(0.33, 0.34);
+    }
+
+    @Test
+    @DisplayName("처리 중인 키로 동시에 들어온 요청은 처음 요청의 결과를 기다린다")
+    void concurrentDuplicates() throws Exception {
+        //given
+        AtomicInteger created = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Order>> results = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < 8; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> cache.getOrCreate("key", () -> {
+                created.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new Order(1L, "itemA", 10000, 0);
+            }), executor));
+        }
+        Thread.sleep(100);
+        release.countDown();
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //then
+        assertThat(created.get()).isEqualTo(1);
+        for (CompletableFuture<Order> result : results) {
+            assertThat(result.get()).isSameAs(results.get(0).get());
+        }
+    }
+
+    @Test
+    @DisplayName("주문 생성이 실패한 키는 기억하지 않아서 재시도하면 새로 만든다")
+    void failureIsNotCached() {
+        //when
+        assertThrows(IllegalStateException.class, () -> cache.getOrCreate("key", () -> {
+            throw new IllegalStateException("장애");
+        }));
+        Order order = cache.getOrCreate("key", () -> new Order(1L, "itemA", 10000, 0));
+
+        //then
+        assertThat(order.getItemName()).isEqualTo("itemA");
+        assertThat(cache.missCount()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("유효 시간이 지나면 다시 만들고, 키가 많아져도 크기 제한을 넘지 않는다")
+    void ttlAndBound() {
+        //given
+        Order first = cache.getOrCreate("key", () -> new Order(1L, "itemA", 10000, 0));
+
+        //when
+        clock.set(clock.millis() + Duration.ofMinutes(2).toMillis());
+        Order afterTtl = cache.getOrCreate("key", () -> new Order(1L, "itemA", 10000, 0));
+        for (int i = 0; i < 100_000; i++) {
+            cache.getOrCreate("key-" + i, () -> first);
+        }
+
+        //then
+        assertThat(afterTtl).isNotNull();
+        assertThat(afterTtl == first).isFalse();
+        assertThat(cache.size()).isLessThanOrEqualTo(1_000 + 16);
+        assertThat(cache.evictionCount()).isGreaterThan(90_000L);
+    }
+
+    @Test
+    @DisplayName("크기나 유효 시간이 0 이하면 만들 수 없다")
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyCache(0, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyCache(1_000, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyCache(1_000, Duration.ofSeconds(-1)));
+    }
+}
@@ -0,0 +1,88 @@
+package hello.core.order;
+
+import hello.core.discount.FixDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSpendingAggregatorTest {
+
+    MemberSpendingAggregator aggregator = new MemberSpendingAggregator();
+
+    @Test
+    @DisplayName("여러 스레드에서 같은 회원의 주문을 더해도 누적 값이 정확하다")
+    void concurrentAdd() throws Exception {
+        //given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        //when
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    aggregator.add(i % 4, 1000, 100);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        //then
+        MemberOrderStats stats = aggregator.get(1L);
+        assertThat(stats.getOrderCount()).isEqualTo(20_000L);
+        assertThat(stats.getTotalItemPrice()).isEqualTo(20_000_000L);
+        assertThat(stats.getTotalDiscountPrice()).isEqualTo(2_000_000L);
+        assertThat(aggregator.memberCount()).isEqualTo(4);
+        assertThat(aggregator.get(99L).getOrderCount()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("결제 금액이 큰 순서로 상위 n 명을 조회한다")
+    void top() {
+        //given
+        for (long memberId = 1; memberId <= 100; memberId++) {
+            aggregator.add(memberId, (int) memberId * 1000, 0);
+        }
+        aggregator.add(3L, 200_000, 100_000);
+
+        //when
+        List<MemberOrderStats> top = aggregator.top(3);
+
+        //then
+        assertThat(top).hasSize(3);
+        assertThat(top.get(0).getMemberId()).isEqualTo(3L);
+        assertThat(top.get(0).getTotalPaidPrice()).isEqualTo(103_000L);
+        assertThat(top.get(1).getMemberId()).isEqualTo(100L);
+        assertThat(top.get(2).getMemberId()).isEqualTo(99L);
+        assertThat(aggregator.top(1_000)).hasSize(100);
+    }
+
+    @Test
+    @DisplayName("주문 서비스가 만든 주문이 회원별 누적 금액에 더해진다")
+    void orderServiceUpdatesAggregator() {
+        //given
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(16_001L, "memberA", Grade.VIP));
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new FixDiscountPolicy());
+        orderService.setSpendingAggregator(aggregator);
+
+        //when
+        orderService.createOrder(16_001L, "itemA", 10000);
+        orderService.createOrders(new long[]{16_001L, 16_001L}, new String[]{"itemB", "itemC"}, new int[]{20000, 30000});
+        orderService.createOrderAsync(16_001L, "itemD", 40000).join();
+
+        //then
+        MemberOrderStats stats = aggregator.get(16_001L);
+        assertThat(stats.getOrderCount()).isEqualTo(4L);
+        assertThat(stats.getTotalItemPrice()).isEqualTo(100_000L);
+        assertThat(stats.getTotalDiscountPrice()).isEqualTo(4_000L);
+    }
+}
@@ -0,0 +1,139 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoryOrderRepositoryTest {
+
+    static final long MINUTE = 60_000;
+
+    TestClock clock = new TestClock(1_600_000_000_000L);
+    MemoryOrderRepository orderRepository = new MemoryOrderRepository(clock);
+
+    @Test
+    @DisplayName("회원별 주문을 cursor 로 나눠서 조회한다")
+    void findByMemberId() {
+        //given
+        for (int i = 0; i < 50; i++) {
+            orderRepository.save(new Order(i % 2 == 0 ? 1L : 2L, "item" + i, 1000 * i, 0));
+        }
+
+        //when
+        List<Order> orders = new ArrayList<>();
+        long cursor = 0;
+        int pages = 0;
+        OrderPage page;
+        do {
+            page = orderRepository.findByMemberId(1L, cursor, 10);
+            orders.addAll(page.getOrders());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (page.hasNext());
+
+        //then
+        assertThat(pages).isEqualTo(3);
+        assertThat(orders).hasSize(25);
+        assertThat(orders.get(0).getItemName()).isEqualTo("item0");
+        assertThat(orders.get(24).getItemName()).isEqualTo("item48");
+        assertThat(orderRepository.findByMemberId(3L, 0, 10).getOrders()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("저장 시각 범위로 주문을 조회한다")
+    void findByCreatedAt() {
+        //given : 0분, 1분, (비어 있는 2분), 3분에 각각 10건씩
+        long start = clock.millis();
+        for (int minute : new int[]{0, 1, 3}) {
+            clock.set(start + minute * MINUTE);
+            for (int i = 0; i < 10; i++) {
+                orderRepository.save(new Order((long) i, "m" + minute, 1000, 0));
+            }
+        }
+
+        //when
+        OrderPage first = orderRepository.findByCreatedAt(start + MINUTE, start + 4 * MINUTE, 0, 15);
+        OrderPage second = orderRepository.findByCreatedAt(start + MINUTE, start + 4 * MINUTE, first.getNextCursor(), 15);
+        OrderPage emptyMinute = orderRepository.findByCreatedAt(start + 2 * MINUTE, start + 3 * MINUTE, 0, 15);
+
+        //then
+        assertThat(first.getOrders()).hasSize(15);
+        assertThat(first.getOrders().get(0).getItemName()).isEqualTo("m1");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getOrders()).hasSize(5);
+        assertThat(second.getOrders().get(4).getItemName()).isEqualTo("m3");
+        assertThat(second.hasNext()).isFalse();
+        assertThat(emptyMinute.getOrders()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("주문 한 건당 메모리를 추정한다")
+    void bytesPerOrder() {
+        for (int i = 0; i < 100_000; i++) {
+            orderRepository.save(new Order((long) (i % 1000), "item" + (i % 10), 1000, 100));
+        }
+
+        assertThat(orderRepository.size()).isEqualTo(100_000L);
+        assertThat(orderRepository.bytesPerOrder()).isBetween(28.0, 64.0);
+    }
+
+    @Test
+    @DisplayName("OrderService 로 만든 주문이 저장소에 저장된다")
+    void orderServiceSavesOrders() {
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(501L, "vip", Grade.VIP));
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+        orderService.setOrderRepository(orderRepository);
+
+        orderService.createOrder(501L, "itemA", 10000);
+        orderService.createOrders(new long[]{501L}, new String[]{"itemB"}, new int[]{20000});
+
+        List<Order> orders = orderRepository.findByMemberId(501L, 0, 10).getOrders();
+        assertThat(orders).hasSize(2);
+        assertThat(orders.get(1).getDiscountPrice()).isEqualTo(2000);
+    }
+
+    static class TestClock extends Clock {
+        private long millis;
+
+        TestClock(long millis) {
+            this.millis = millis;
+        }
+
+        void set(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package hello.core.order;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FsyncPolicy 별 저널 처리량(orders/s)과 append 부터 완료까지의 p99 지연. ./gradlew benchmark 로 실행한다.
+ * 스레드마다 append 후 완료를 기다리는 동기 호출(createOrder 와 같은 방식)을 반복한다.
+ */
+@Tag("benchmark")
+class OrderJournalBenchmark {
+
+    static final int THREADS = 32;
+    static final int ORDERS_PER_THREAD = 5_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fsyncPolicies() throws Exception {
+        for (OrderJournal.FsyncPolicy policy : OrderJournal.FsyncPolicy.values()) {
+            run(policy);
+        }
+    }
+
+    private void run(OrderJournal.FsyncPolicy policy) throws InterruptedException {
+        OrderJournal journal = new OrderJournal(directory.resolve(policy + ".journal"), policy);
+        long[][] latencies = new long[THREADS][ORDERS_PER_THREAD];
+        CountDownLatch done = new CountDownLatch(THREADS);
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            long[] threadLatencies = latencies[t];
+            long memberId = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    long begin = System.nanoTime();
+                    journal.append(new Order(memberId, "itemA", 10000 + i, 1000)).join();
+                    threadLatencies[i] = System.nanoTime() - begin;
+                }
+                done.countDown();
+            });
+            thread.start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        journal.close();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("[%s] %,d orders/s p50=%,d us p99=%,d us avgBatch=%.1f forces=%,d%n", policy,
+                all.length * 1_000_000_000L / Math.max(elapsed, 1),
+                TimeUnit.NANOSECONDS.toMicros(all[all.length / 2]),
+                TimeUnit.NANOSECONDS.toMicros(all[(int) (all.length * 0.99)]),
+                journal.averageBatchSize(), journal.forceCount());
+    }
+}
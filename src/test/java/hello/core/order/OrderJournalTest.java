@@ -0,0 +1,108 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("여러 스레드에서 기록한 주문을 모두 다시 읽을 수 있다")
+    void appendAndReplay() throws Exception {
+        //given
+        Path file = directory.resolve("orders.journal");
+        OrderJournal journal = new OrderJournal(file, OrderJournal.FsyncPolicy.PER_BATCH);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Long>> appends = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < 2_000; i++) {
+            Order order = new Order((long) i, "item" + i, 1000 + i, i % 10);
+            appends.add(CompletableFuture.supplyAsync(() -> journal.append(order), executor).thenCompose(f -> f));
+        }
+        CompletableFuture.allOf(appends.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        journal.close();
+        executor.shutdown();
+
+        //then
+        long[] priceSum = {0};
+        long count = OrderJournal.replay(file, order -> priceSum[0] += order.getItemPrice());
+        assertThat(count).isEqualTo(2_000L);
+        assertThat(priceSum[0]).isEqualTo(2_000L * 1000 + 1999L * 2000 / 2);
+        assertThat(journal.recordCount()).isEqualTo(2_000L);
+        assertThat(journal.batchCount()).isLessThanOrEqualTo(2_000L);
+    }
+
+    @Test
+    @DisplayName("끝부분이 깨진 저널을 다시 열면 깨진 레코드를 잘라내고 이어서 기록한다")
+    void truncateTornTail() throws Exception {
+        //given
+        Path file = directory.resolve("orders.journal");
+        OrderJournal journal = new OrderJournal(file, OrderJournal.FsyncPolicy.NONE);
+        journal.append(new Order(1L, "itemA", 10000, 1000)).join();
+        long secondPosition = journal.append(new Order(2L, "itemB", 20000, 2000)).join();
+        journal.close();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 3);
+        }
+
+        //when
+        OrderJournal reopened = new OrderJournal(file, OrderJournal.FsyncPolicy.NONE);
+        long thirdPosition = reopened.append(new Order(3L, "itemC", 30000, 0)).join();
+        reopened.close();
+
+        //then
+        List<Order> orders = new ArrayList<>();
+        OrderJournal.replay(file, orders::add);
+        assertThat(thirdPosition).isEqualTo(secondPosition);
+        assertThat(orders).hasSize(2);
+        assertThat(orders.get(0).getItemName()).isEqualTo("itemA");
+        assertThat(orders.get(1).getMemberId()).isEqualTo(3L);
+        assertThat(orders.get(1).getItemPrice()).isEqualTo(30000);
+    }
+
+    @Test
+    @DisplayName("저널을 설정하면 OrderService 가 만든 주문이 기록된다")
+    void orderServiceWritesJournal() {
+        //given
+        Path file = directory.resolve("orders.journal");
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(401L, "vip", Grade.VIP));
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+        OrderJournal journal = new OrderJournal(file, OrderJournal.FsyncPolicy.INTERVAL);
+        orderService.setOrderJournal(journal);
+
+        //when
+        orderService.createOrder(401L, "itemA", 10000);
+        orderService.createOrders(new long[]{401L, 401L}, new String[]{"itemB", "itemC"}, new int[]{20000, 30000});
+        orderService.createOrderAsync(401L, "itemD", 40000).join();
+        journal.close();
+
+        //then
+        List<Order> orders = new ArrayList<>();
+        OrderJournal.replay(file, orders::add);
+        assertThat(orders).hasSize(4);
+        assertThat(orders.get(2).getDiscountPrice()).isEqualTo(3000);
+        assertThat(orders.get(3).getItemName()).isEqualTo("itemD");
+    }
+}
@@ -0,0 +1,110 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 저장소 조회에 지연을 넣고, 요청 스레드가 직접 createOrder 하는 경우와 createOrderAsync 의 처리량을 비교한다.
+ * ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class OrderServiceAsyncBenchmark {
+
+    static final int MEMBER_COUNT = 10_000;
+    static final int ORDERS = 20_000;
+    static final int REQUEST_THREADS = 16;
+    static final long LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Test
+    void asyncVersusBlocking() throws Exception {
+        ConcurrentMemberRepository store = new ConcurrentMemberRepository();
+        for (long id = 1; id <= MEMBER_COUNT; id++) {
+            store.save(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        OrderServiceImpl orderService = new OrderServiceImpl(new LatencyMemberRepository(store), new RateDiscountPolicy());
+
+        report("blocking x" + REQUEST_THREADS, blocking(orderService));
+
+        ExecutorService bounded = OrderExecutors.boundedPool(512, ORDERS);
+        orderService.setOrderExecutor(bounded);
+        report("async bounded(512)", async(orderService));
+        bounded.shutdown();
+
+        if (OrderExecutors.virtualThreadsSupported()) {
+            ExecutorService virtual = OrderExecutors.virtualThreads();
+            orderService.setOrderExecutor(virtual);
+            report("async virtual", async(orderService));
+            virtual.shutdown();
+        } else {
+            System.out.println("[async virtual] skipped: runtime " + Runtime.version());
+        }
+    }
+
+    /**
+     * 요청 스레드(서블릿 스레드 흉내) 수만큼만 동시에 처리된다.
+     */
+    private long blocking(OrderService orderService) throws InterruptedException {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        CountDownLatch done = new CountDownLatch(ORDERS);
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            long memberId = i % MEMBER_COUNT + 1;
+            requestThreads.execute(() -> {
+                orderService.createOrder(memberId, "itemA", 10000);
+                done.countDown();
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        requestThreads.shutdown();
+        return elapsed;
+    }
+
+    private long async(OrderService orderService) {
+        List<CompletableFuture<Order>> futures = new ArrayList<>(ORDERS);
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            futures.add(orderService.createOrderAsync(i % MEMBER_COUNT + 1L, "itemA", 10000));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.printf("[%s] %,d orders in %,d ms -> %,d orders/s%n", name, ORDERS,
+                TimeUnit.NANOSECONDS.toMillis(nanos), ORDERS * 1_000_000_000L / Math.max(nanos, 1));
+    }
+
+    static class LatencyMemberRepository implements MemberRepository {
+        private final MemberRepository delegate;
+
+        LatencyMemberRepository(MemberRepository delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void save(Member member) {
+            delegate.save(member);
+        }
+
+        @Override
+        public Member findById(Long memberId) {
+            LockSupport.parkNanos(LATENCY_NANOS);
+            return delegate.findById(memberId);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * createOrder 반복과 createOrders 의 처리량 비교. ./gradlew benchmark 로 실행한다.
+ * 저장소 조회 한 번에 왕복 지연이 있는 경우(원격 저장소 흉내)도 함께 잰다.
+ */
+@Tag("benchmark")
+class OrderServiceBatchBenchmark {
+
+    static final int MEMBER_COUNT = 100_000;
+    static final int CART_SIZE = 500;
+    static final int CART_MEMBERS = 50;
+    static final int ROUNDS = 5;
+
+    @Test
+    void batchVersusLoop() {
+        ConcurrentMemberRepository store = new ConcurrentMemberRepository();
+        for (long id = 1; id <= MEMBER_COUNT; id++) {
+            store.save(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+
+        run("in-memory", store, 2_000);
+        run("round-trip 20us", new SlowMemberRepository(store, 20_000), 20);
+    }
+
+    private void run(String name, MemberRepository memberRepository, int carts) {
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+        long[][] memberIds = new long[carts][];
+        String[] itemNames = new String[CART_SIZE];
+        int[][] itemPrices = new int[carts][];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < CART_SIZE; i++) {
+            itemNames[i] = "item" + i;
+        }
+        for (int cart = 0; cart < carts; cart++) {
+            long base = random.nextLong(1, MEMBER_COUNT - CART_MEMBERS);
+            memberIds[cart] = new long[CART_SIZE];
+            itemPrices[cart] = new int[CART_SIZE];
+            for (int i = 0; i < CART_SIZE; i++) {
+                memberIds[cart][i] = base + random.nextInt(CART_MEMBERS);
+                itemPrices[cart][i] = random.nextInt(1_000, 100_000);
+            }
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long sink = 0;
+            long start = System.nanoTime();
+            for (int cart = 0; cart < carts; cart++) {
+                List<Order> orders = new ArrayList<>(CART_SIZE);
+                for (int i = 0; i < CART_SIZE; i++) {
+                    orders.add(orderService.createOrder(memberIds[cart][i], itemNames[i], itemPrices[cart][i]));
+                }
+                sink += orders.get(CART_SIZE - 1).getDiscountPrice();
+            }
+            long loopNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int cart = 0; cart < carts; cart++) {
+                OrderBatch batch = orderService.createOrders(memberIds[cart], itemNames, itemPrices[cart]);
+                sink += batch.getDiscountPrice(CART_SIZE - 1);
+            }
+            long batchNanos = System.nanoTime() - start;
+
+            long orders = (long) carts * CART_SIZE;
+            System.out.printf("[%s] round=%d loop=%,d orders/s batch=%,d orders/s (sink=%d)%n", name, round,
+                    orders * 1_000_000_000L / Math.max(loopNanos, 1),
+                    orders * 1_000_000_000L / Math.max(batchNanos, 1), sink);
+        }
+    }
+
+    static class SlowMemberRepository implements MemberRepository {
+        private final MemberRepository delegate;
+        private final long roundTripNanos;
+
+        SlowMemberRepository(MemberRepository delegate, long roundTripNanos) {
+            this.delegate = delegate;
+            this.roundTripNanos = roundTripNanos;
+        }
+
+        @Override
+        public void save(Member member) {
+            LockSupport.parkNanos(roundTripNanos);
+            delegate.save(member);
+        }
+
+        @Override
+        public Member findById(Long memberId) {
+            LockSupport.parkNanos(roundTripNanos);
+            return delegate.findById(memberId);
+        }
+
+        @Override
+        public List<Member> findAllById(long[] memberIds) {
+            LockSupport.parkNanos(roundTripNanos);
+            return delegate.findAllById(memberIds);
+        }
+    }
+}
@@ -1,15 +1,36 @@
 package hello.core.order;
 
+import hello.core.discount.DiscountPolicy;
 import hello.core.discount.FixDiscountPolicy;
+import hello.core.discount.RateDiscountPolicy;
 import hello.core.member.Grade;
 import hello.core.member.Member;
+import hello.core.member.MemberRepository;
 import hello.core.member.MemoryMemberRepository;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 class OrderServiceImplTest {
+
+    @TempDir
+    Path dir;
+
     @Test
     void createOrder() {
         // 스프링 없이 자바코드로 테스트
@@ -21,4 +42,224 @@ class OrderServiceImplTest {
         assertThat(order.getDiscountPrice()).isEqualTo(1000);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("여러 주문을 한 번에 만들면 같은 회원은 한 번만 조회한다")
+    void createOrders() {
+        //given
+        MemoryMemberRepository store = new MemoryMemberRepository();
+        store.save(new Member(101L, "vip", Grade.VIP));
+        store.save(new Member(102L, "basic", Grade.BASIC));
+        CountingMemberRepository memberRepository = new CountingMemberRepository(store);
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+
+        //when
+        OrderBatch batch = orderService.createOrders(
+                new long[]{101L, 102L, 101L, 101L},
+                new String[]{"itemA", "itemB", "itemC", "itemD"},
+                new int[]{10000, 10000, 20000, 5000});
+
+        //then
+        assertThat(memberRepository.findAllCalls).isEqualTo(1);
+        assertThat(memberRepository.requestedIds).isEqualTo(2);
+        assertThat(batch.size()).isEqualTo(4);
+        assertThat(batch.getDiscountPrice(0)).isEqualTo(1000);
+        assertThat(batch.getDiscountPrice(1)).isEqualTo(0);
+        assertThat(batch.getDiscountPrice(2)).isEqualTo(2000);
+        assertThat(batch.getItemName(3)).isEqualTo("itemD");
+        assertThat(batch.totalPrice()).isEqualTo(45000 - 3500);
+        assertThat(batch.toOrder(2).calculatePrice()).isEqualTo(18000);
+    }
+
+    @Test
+    @DisplayName("없는 회원이 섞여 있으면 배치 전체가 실패한다")
+    void createOrdersWithUnknownMember() {
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(201L, "vip", Grade.VIP));
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.createOrders(
+                new long[]{201L, 202L}, new String[]{"itemA", "itemB"}, new int[]{1000, 1000}));
+    }
+
+    @Test
+    @DisplayName("비동기 주문은 지정한 executor 에서 처리된다")
+    void createOrderAsync() throws Exception {
+        //given
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(301L, "vip", Grade.VIP));
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+        ExecutorService executor = OrderExecutors.boundedPool(2, 10);
+        orderService.setOrderExecutor(executor);
+
+        //when
+        Order order = orderService.createOrderAsync(301L, "itemA", 20000).get(5, TimeUnit.SECONDS);
+
+        //then
+        assertThat(order.getDiscountPrice()).isEqualTo(2000);
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("시간 안에 끝나지 않은 비동기 주문은 실패하고 할인 계산을 건너뛴다")
+    void createOrderAsyncTimeout() throws Exception {
+        //given
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        MemoryMemberRepository store = new MemoryMemberRepository();
+        store.save(new Member(302L, "vip", Grade.VIP));
+        MemberRepository slowRepository = new CountingMemberRepository(store) {
+            @Override
+            public Member findById(Long memberId) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return super.findById(memberId);
+            }
+        };
+        AtomicInteger discountCalls = new AtomicInteger();
+        DiscountPolicy discountPolicy = (member, price) -> {
+            discountCalls.incrementAndGet();
+            return 0;
+        };
+        OrderServiceImpl orderService = new OrderServiceImpl(slowRepository, discountPolicy);
+        ExecutorService executor = OrderExecutors.boundedPool(1, 10);
+        orderService.setOrderExecutor(executor);
+
+        //when
+        CompletableFuture<Order> future = orderService.createOrderAsync(302L, "itemA", 10000, Duration.ofMillis(50));
+
+        //then
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertThat(thrown.getCause()).isInstanceOf(TimeoutException.class);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(discountCalls.get()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("취소한 비동기 주문은 회원 조회도 하지 않는다")
+    void createOrderAsyncCancel() throws Exception {
+        //given
+        AtomicInteger lookups = new AtomicInteger();
+        MemberRepository repository = new CountingMemberRepository(new MemoryMemberRepository()) {
+            @Override
+            public Member findById(Long memberId) {
+                lookups.incrementAndGet();
+                return super.findById(memberId);
+            }
+        };
+        OrderServiceImpl orderService = new OrderServiceImpl(repository, new RateDiscountPolicy());
+        ExecutorService executor = OrderExecutors.boundedPool(1, 10);
+        CountDownLatch blocker = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        orderService.setOrderExecutor(executor);
+
+        //when
+        CompletableFuture<Order> future = orderService.createOrderAsync(303L, "itemA", 10000);
+        future.cancel(true);
+        blocker.countDown();
+        executor.shutdown();
+
+        //then
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(future.isCancelled()).isTrue();
+        assertThat(lookups.get()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("할인 계산 중에 시간이 초과된 비동기 주문은 저널에 기록하지 않는다")
+    void createOrderAsyncTimeoutNotJournaled() throws Exception {
+        //given
+        CountDownLatch release = new CountDownLatch(1);
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(304L, "vip", Grade.VIP));
+        DiscountPolicy slowPolicy = (member, price) -> {
+            // 인터럽트를 무시하고 시간 초과 이후까지 계산이 이어지게 한다.
+            while (release.getCount() > 0) {
+                Thread.onSpinWait();
+            }
+            return 0;
+        };
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, slowPolicy);
+        ExecutorService executor = OrderExecutors.boundedPool(1, 10);
+        orderService.setOrderExecutor(executor);
+        MemoryOrderRepository orderRepository = new MemoryOrderRepository();
+        orderService.setOrderRepository(orderRepository);
+        Path file = dir.resolve("orders.journal");
+        OrderJournal journal = new OrderJournal(file, OrderJournal.FsyncPolicy.NONE);
+        orderService.setOrderJournal(journal);
+
+        //when
+        CompletableFuture<Order> future = orderService.createOrderAsync(304L, "itemA", 10000, Duration.ofMillis(50));
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        release.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        journal.close();
+
+        //then
+        assertThat(thrown.getCause()).isInstanceOf(TimeoutException.class);
+        assertThat(journal.recordCount()).isEqualTo(0L);
+        assertThat(OrderJournal.replay(file, order -> { })).isEqualTo(0L);
+        assertThat(orderRepository.size()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("저널 기록에 실패한 주문은 저장소에 남기지 않는다")
+    void journalFailureNotSaved() {
+        //given
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(305L, "vip", Grade.VIP));
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+        MemoryOrderRepository orderRepository = new MemoryOrderRepository();
+        orderService.setOrderRepository(orderRepository);
+        OrderJournal journal = new OrderJournal(dir.resolve("orders.journal"), OrderJournal.FsyncPolicy.NONE);
+        orderService.setOrderJournal(journal);
+        journal.close();
+
+        //when
+        assertThrows(CompletionException.class, () -> orderService.createOrder(305L, "itemA", 10000));
+        assertThrows(CompletionException.class, () -> orderService.createOrders(
+                new long[]{305L, 305L}, new String[]{"itemA", "itemB"}, new int[]{10000, 20000}));
+
+        //then
+        assertThat(orderRepository.size()).isEqualTo(0L);
+    }
+
+    static class CountingMemberRepository implements MemberRepository {
+        private final MemberRepository delegate;
+        int findAllCalls;
+        int requestedIds;
+
+        CountingMemberRepository(MemberRepository delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void save(Member member) {
+            delegate.save(member);
+        }
+
+        @Override
+        public Member findById(Long memberId) {
+            return delegate.findById(memberId);
+        }
+
+        @Override
+        public List<Member> findAllById(long[] memberIds) {
+            findAllCalls++;
+            requestedIds += memberIds.length;
+            return delegate.findAllById(memberIds);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 공유 저장소를 쓰는 OrderServiceImpl 과 shard 수별 ShardedOrderProcessor 의 처리량 비교.
+ * ./gradlew benchmark 로 실행한다. shard 수가 코어 수를 넘으면 더 늘지 않는다.
+ */
+@Tag("benchmark")
+class ShardedOrderProcessorBenchmark {
+
+    static final int MEMBER_COUNT = 100_000;
+    static final int PRODUCERS = 8;
+    static final int ORDERS_PER_PRODUCER = 200_000;
+
+    @Test
+    void throughputByShardCount() throws Exception {
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+        for (long id = 1; id <= MEMBER_COUNT; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        System.out.println("available processors=" + Runtime.getRuntime().availableProcessors());
+
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+        orderService.setOrderRepository(new MemoryOrderRepository());
+        long nanos = run(memberId -> {
+            orderService.createOrder(memberId, "itemA", 10000);
+            return null;
+        }, () -> { });
+        report("shared repository", nanos);
+
+        for (int shards : new int[]{1, 2, 4, 8}) {
+            ShardedOrderProcessor processor = new ShardedOrderProcessor(memberRepository, new RateDiscountPolicy(),
+                    shards, ShardedOrderProcessor.DEFAULT_QUEUE_CAPACITY, MemoryOrderRepository::new);
+            // close 는 남은 주문을 모두 처리한 뒤에 끝나므로 측정 시간에 포함한다.
+            nanos = run(memberId -> processor.submit(memberId, "itemA", 10000), processor::close);
+            report("sharded x" + shards, nanos);
+        }
+    }
+
+    private long run(OrderCall call, Runnable drain) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(PRODUCERS);
+        long start = System.nanoTime();
+        for (int p = 0; p < PRODUCERS; p++) {
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ORDERS_PER_PRODUCER; i++) {
+                    call.order(random.nextLong(1, MEMBER_COUNT + 1));
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        drain.run();
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, long nanos) {
+        long orders = (long) PRODUCERS * ORDERS_PER_PRODUCER;
+        System.out.printf("[%s] %,d orders/s%n", name, orders * 1_000_000_000L / Math.max(nanos, 1));
+    }
+
+    interface OrderCall {
+        CompletableFuture<Order> order(long memberId);
+    }
+}
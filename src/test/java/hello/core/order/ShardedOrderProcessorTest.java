@@ -0,0 +1,116 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedOrderProcessorTest {
+
+    ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+    ShardedOrderProcessor processor;
+
+    @AfterEach
+    void afterEach() {
+        if (processor != null) {
+            processor.close();
+        }
+    }
+
+    @Test
+    @DisplayName("같은 회원의 주문은 들어온 순서대로 처리되고 shard 별로 집계된다")
+    void submitKeepsPerMemberOrder() throws Exception {
+        //given
+        for (long id = 1; id <= 20; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        processor = new ShardedOrderProcessor(memberRepository, new RateDiscountPolicy(), 4,
+                16, MemoryOrderRepository::new);
+
+        //when : 큐가 작아서 submit 쪽 대기도 함께 일어난다.
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            long firstMember = p * 5 + 1;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    for (long memberId = firstMember; memberId < firstMember + 5; memberId++) {
+                        processor.submit(memberId, "item" + i, 10000);
+                    }
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+
+        //then
+        MemberOrderStats vip = processor.memberStats(2L).get(5, TimeUnit.SECONDS);
+        MemberOrderStats basic = processor.memberStats(3L).get(5, TimeUnit.SECONDS);
+        assertThat(vip.getOrderCount()).isEqualTo(1_000L);
+        assertThat(vip.getTotalDiscountPrice()).isEqualTo(1_000L * 1000);
+        assertThat(basic.getTotalDiscountPrice()).isEqualTo(0L);
+
+        OrderPage page = processor.findOrders(2L, 0, 1_000).get(5, TimeUnit.SECONDS);
+        boolean ordered = true;
+        for (int i = 0; i < page.getOrders().size(); i++) {
+            ordered &= page.getOrders().get(i).getItemName().equals("item" + i);
+        }
+        assertThat(page.getOrders()).hasSize(1_000);
+        assertThat(ordered).isTrue();
+        assertThat(processor.processedCount()).isEqualTo(20_000L);
+    }
+
+    @Test
+    @DisplayName("회원이 많아서 집계 표가 늘어나도 회원마다 따로 집계된다")
+    void statsForManyMembers() throws Exception {
+        //given
+        int memberCount = 5_000;
+        for (long id = 1; id <= memberCount; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        processor = new ShardedOrderProcessor(memberRepository, new RateDiscountPolicy(), 2);
+
+        //when
+        for (long id = 1; id <= memberCount; id++) {
+            processor.submit(id, "itemA", 10000);
+            processor.submit(id, "itemB", (int) id);
+        }
+
+        //then
+        for (long id = 1; id <= memberCount; id++) {
+            MemberOrderStats stats = processor.memberStats(id).get(5, TimeUnit.SECONDS);
+            assertThat(stats.getOrderCount()).isEqualTo(2L);
+            assertThat(stats.getTotalItemPrice()).isEqualTo(10000L + id);
+        }
+        assertThat(processor.memberStats(memberCount + 1L).get(5, TimeUnit.SECONDS).getOrderCount()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("없는 회원의 주문은 실패하고, 닫힌 뒤의 주문은 거절된다")
+    void failures() {
+        processor = new ShardedOrderProcessor(memberRepository, new RateDiscountPolicy(), 2);
+
+        ExecutionException unknown = assertThrows(ExecutionException.class,
+                () -> processor.submit(99L, "itemA", 1000).get(5, TimeUnit.SECONDS));
+        processor.close();
+        ExecutionException closed = assertThrows(ExecutionException.class,
+                () -> processor.submit(99L, "itemA", 1000).get(5, TimeUnit.SECONDS));
+
+        assertThat(unknown.getCause()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(closed.getCause()).isInstanceOf(RejectedExecutionException.class);
+    }
+}
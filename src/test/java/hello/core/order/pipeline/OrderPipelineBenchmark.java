@@ -0,0 +1,98 @@
+package hello.core.order.pipeline;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.order.OrderJournal;
+import hello.core.order.OrderServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+/**
+ * 주문 한 건당 할당량(byte)과 처리량 비교. ./gradlew benchmark 로 실행한다.
+ * - createOrder + OrderJournal (호출 스레드와 저널 writer 스레드 포함, JVM 전체 스레드 기준)
+ * - OrderPipeline (회원 조회 → 할인 → 저널)
+ * 할당량은 com.sun.management.ThreadMXBean.getThreadAllocatedBytes 로 잰다.
+ */
+@Tag("benchmark")
+class OrderPipelineBenchmark {
+
+    static final int MEMBER_COUNT = 10_000;
+    static final int WARMUP = 500_000;
+    static final int ORDERS = 2_000_000;
+    static final String[] ITEM_NAMES = {"itemA", "itemB", "itemC", "itemD"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void allocationsPerOrder() {
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+        for (long id = 1; id <= MEMBER_COUNT; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+        OrderJournal orderJournal = new OrderJournal(directory.resolve("service.journal"), OrderJournal.FsyncPolicy.NONE);
+        orderService.setOrderJournal(orderJournal);
+        for (int i = 0; i < WARMUP; i++) {
+            orderService.createOrder(i % MEMBER_COUNT + 1L, ITEM_NAMES[i & 3], 10000);
+        }
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            orderService.createOrder(i % MEMBER_COUNT + 1L, ITEM_NAMES[i & 3], 10000);
+        }
+        report("createOrder + OrderJournal", start, bytes);
+        orderJournal.close();
+
+        for (String name : new String[]{"busySpin", "yielding", "parking"}) {
+            WaitStrategy waitStrategy = "busySpin".equals(name) ? WaitStrategy.busySpin()
+                    : "yielding".equals(name) ? WaitStrategy.yielding() : WaitStrategy.parking(50_000);
+            JournalHandler journal = new JournalHandler(directory.resolve(name + ".journal"), OrderJournal.FsyncPolicy.NONE);
+            OrderPipeline pipeline = new OrderPipeline(4096, waitStrategy,
+                    new MemberResolveHandler(memberRepository), new DiscountHandler(new RateDiscountPolicy()), journal);
+            for (int i = 0; i < WARMUP; i++) {
+                pipeline.publish(i % MEMBER_COUNT + 1, ITEM_NAMES[i & 3], 10000);
+            }
+            waitUntilProcessed(pipeline, WARMUP);
+            bytes = allocatedBytes();
+            start = System.nanoTime();
+            for (int i = 0; i < ORDERS; i++) {
+                pipeline.publish(i % MEMBER_COUNT + 1, ITEM_NAMES[i & 3], 10000);
+            }
+            waitUntilProcessed(pipeline, WARMUP + ORDERS);
+            report("pipeline " + name + " (avgBatch=" + Math.round(pipeline.averageBatchSize()) + ")", start, bytes);
+            pipeline.close();
+            journal.close();
+        }
+    }
+
+    private static void waitUntilProcessed(OrderPipeline pipeline, long count) {
+        while (pipeline.processedCount() < count) {
+            Thread.yield();
+        }
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long bytes : threadMXBean.getThreadAllocatedBytes(threadMXBean.getAllThreadIds())) {
+            total += Math.max(bytes, 0);
+        }
+        return total;
+    }
+
+    private static void report(String name, long startNanos, long startBytes) {
+        long nanos = System.nanoTime() - startNanos;
+        long bytes = allocatedBytes() - startBytes;
+        System.out.printf("[%s] %,d orders/s, %.1f bytes/order%n", name,
+                ORDERS * 1_000_000_000L / Math.max(nanos, 1), (double) bytes / ORDERS);
+    }
+}
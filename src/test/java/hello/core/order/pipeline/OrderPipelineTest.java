@@ -0,0 +1,182 @@
+package hello.core.order.pipeline;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.order.OrderJournal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderPipelineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("회원 조회, 할인, 저널 단계를 거쳐 모든 주문이 순서대로 처리된다")
+    void pipeline() throws InterruptedException {
+        //given
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+        for (long id = 1; id <= 100; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        Path file = directory.resolve("orders.journal");
+        JournalHandler journal = new JournalHandler(file, OrderJournal.FsyncPolicy.PER_BATCH);
+        long[] lastSequence = {-1};
+        boolean[] inOrder = {true};
+        long[] discountSum = {0};
+        OrderEventHandler check = (event, sequence, endOfBatch) -> {
+            inOrder[0] &= sequence == lastSequence[0] + 1;
+            lastSequence[0] = sequence;
+            discountSum[0] += event.getDiscountPrice();
+        };
+        OrderPipeline pipeline = new OrderPipeline(64, WaitStrategy.yielding(),
+                new MemberResolveHandler(memberRepository), new DiscountHandler(new RateDiscountPolicy()), journal, check);
+
+        //when : 생산자 4개, 각 5,000건. id 0 은 없는 회원
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    pipeline.publish(i % 101, "itemA", 10000);
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        pipeline.close();
+        journal.close();
+
+        //then : 회원 id 1~100 중 짝수가 VIP
+        long rejected = 4 * (5_000 / 101 + 1);
+        long vipOrders = 0;
+        for (int i = 0; i < 5_000; i++) {
+            if (i % 101 != 0 && i % 101 % 2 == 0) {
+                vipOrders++;
+            }
+        }
+        assertThat(pipeline.processedCount()).isEqualTo(20_000L);
+        assertThat(inOrder[0]).isTrue();
+        assertThat(discountSum[0]).isEqualTo(4 * vipOrders * 1000);
+        assertThat(OrderJournal.replay(file, order -> { })).isEqualTo(20_000L - rejected);
+    }
+
+    @Test
+    @DisplayName("INTERVAL 은 주문이 끊겨도 interval 이 지나면 force 하고, NONE 은 force 하지 않는다")
+    void forceWhenIdle() throws InterruptedException {
+        //given
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+        memberRepository.save(new Member(1L, "member1", Grade.VIP));
+        JournalHandler interval = new JournalHandler(directory.resolve("interval.journal"),
+                OrderJournal.FsyncPolicy.INTERVAL, Duration.ofMillis(50));
+        JournalHandler none = new JournalHandler(directory.resolve("none.journal"), OrderJournal.FsyncPolicy.NONE);
+        OrderPipeline pipeline = new OrderPipeline(64, WaitStrategy.parking(1_000_000),
+                new MemberResolveHandler(memberRepository), new DiscountHandler(new RateDiscountPolicy()), interval, none);
+
+        //when : 한 건만 넣고 더 넣지 않는다.
+        pipeline.publish(1L, "itemA", 10000);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (interval.forceCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        long intervalForces = interval.forceCount();
+        long noneForces = none.forceCount();
+        pipeline.close();
+        interval.close();
+        none.close();
+
+        //then
+        assertThat(intervalForces).isEqualTo(1L);
+        assertThat(noneForces).isEqualTo(0L);
+        assertThat(pipeline.failureCount()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("단계에서 예외가 나면 그 주문만 reject 되고 파이프라인은 계속 돈다")
+    void handlerFailure() {
+        List<Boolean> rejected = new ArrayList<>();
+        OrderPipeline pipeline = new OrderPipeline(8, WaitStrategy.parking(100_000),
+                (event, sequence, endOfBatch) -> {
+                    if (event.getItemPrice() < 0) {
+                        throw new IllegalArgumentException("가격이 음수입니다.");
+                    }
+                },
+                (event, sequence, endOfBatch) -> rejected.add(event.isRejected()));
+
+        for (int i = 0; i < 20; i++) {
+            pipeline.publish(1L, "itemA", i == 5 ? -1 : 1000);
+        }
+        pipeline.close();
+
+        assertThat(pipeline.failureCount()).isEqualTo(1L);
+        assertThat(rejected).hasSize(20);
+        assertThat(rejected.get(5)).isTrue();
+        assertThat(rejected.get(6)).isFalse();
+    }
+
+    @Test
+    @DisplayName("닫는 중에 들어온 주문은 처리되거나 예외로 거절되고, 빠지는 주문은 없다")
+    void closeWhilePublishing() throws InterruptedException {
+        //given
+        AtomicLong handled = new AtomicLong();
+        OrderPipeline pipeline = new OrderPipeline(16, WaitStrategy.yielding(),
+                (event, sequence, endOfBatch) -> handled.incrementAndGet());
+        AtomicLong published = new AtomicLong();
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    while (true) {
+                        pipeline.publish(1L, "itemA", 1000);
+                        published.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    // 닫힌 뒤의 claim
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+
+        //when
+        Thread.sleep(50);
+        pipeline.close();
+        for (Thread thread : producers) {
+            thread.join();
+        }
+
+        //then
+        assertThat(handled.get()).isEqualTo(published.get());
+        assertThat(pipeline.processedCount()).isEqualTo(published.get());
+    }
+
+    @Test
+    @DisplayName("예약만 하고 publish 하지 않은 칸이 있으면 close 는 기다리다가 예외를 던진다")
+    void closeWithUnpublishedClaim() {
+        //given
+        OrderPipeline pipeline = new OrderPipeline(8, WaitStrategy.parking(100_000),
+                (event, sequence, endOfBatch) -> { });
+        pipeline.publish(1L, "itemA", 1000);
+        pipeline.claim();
+
+        //when
+        //then
+        assertThrows(IllegalStateException.class, () -> pipeline.close(Duration.ofMillis(200)));
+        assertThat(pipeline.processedCount()).isEqualTo(1L);
+        assertThrows(IllegalStateException.class, pipeline::claim);
+    }
+}